@@ -0,0 +1,82 @@
+package com.microservice.benchmark;
+
+import com.microservice.resource.service.ResourceService;
+import com.microservice.song.service.SongService;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+
+import java.lang.invoke.MethodHandle;
+import java.lang.invoke.MethodHandles;
+import java.lang.invoke.MethodType;
+import java.util.List;
+import java.util.StringJoiner;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Measures parsing of the comma-separated ID lists accepted by the delete endpoints of both services,
+ * from a single ID up to the 200 character limit.
+ * The private parseCsvIds methods are called through method handles on services built without collaborators
+ * other than a meter registry, which the parsing does not use.
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.NANOSECONDS)
+@Warmup(iterations = 5, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+public class CsvIdParsingBenchmark {
+
+    private static final MethodHandle RESOURCE_PARSE_CSV_IDS = parseCsvIds(ResourceService.class);
+    private static final MethodHandle SONG_PARSE_CSV_IDS = parseCsvIds(SongService.class);
+
+    // 33 five-digit IDs are the most that fit into 200 characters
+    @Param({"1", "10", "33"})
+    private int idCount;
+
+    private ResourceService resourceService;
+    private SongService songService;
+    private String csv;
+
+    @Setup
+    public void setUp() {
+        resourceService = new ResourceService(null, null, null, null, null, null, null, null,
+                new SimpleMeterRegistry());
+        songService = new SongService(null, null, null, null, null, null, null, null);
+        StringJoiner joiner = new StringJoiner(",");
+        for (int i = 0; i < idCount; i++) {
+            joiner.add(String.valueOf(10000 + i * 37));
+        }
+        csv = joiner.toString();
+    }
+
+    @Benchmark
+    @SuppressWarnings("unchecked")
+    public List<Integer> resourceService() throws Throwable {
+        return (List<Integer>) RESOURCE_PARSE_CSV_IDS.invokeExact(resourceService, csv);
+    }
+
+    @Benchmark
+    @SuppressWarnings("unchecked")
+    public List<Integer> songService() throws Throwable {
+        return (List<Integer>) SONG_PARSE_CSV_IDS.invokeExact(songService, csv);
+    }
+
+    private static MethodHandle parseCsvIds(Class<?> service) {
+        try {
+            return MethodHandles.privateLookupIn(service, MethodHandles.lookup())
+                    .findVirtual(service, "parseCsvIds", MethodType.methodType(List.class, String.class));
+        } catch (ReflectiveOperationException e) {
+            throw new IllegalStateException("parseCsvIds not found in " + service.getName(), e);
+        }
+    }
+}
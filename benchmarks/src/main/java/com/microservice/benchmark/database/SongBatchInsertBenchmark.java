@@ -0,0 +1,75 @@
+package com.microservice.benchmark.database;
+
+import com.microservice.song.dto.SongBatchResponseDto;
+import com.microservice.song.dto.SongCreateRequestDto;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Level;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Compares creating a list of songs through the batch ingest path of POST /songs/batch
+ * with creating them one at a time as POST /songs does. Each score is the time for the whole list.
+ */
+@State(Scope.Thread)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MILLISECONDS)
+@Warmup(iterations = 3, time = 2)
+@Measurement(iterations = 5, time = 2)
+@Fork(1)
+public class SongBatchInsertBenchmark {
+
+    private static final int FIRST_ID = 1_000_000_000;
+    private static final int LAST_ID = 1_099_999_999;
+
+    @Param({"1", "100", "1000"})
+    private int batchSize;
+
+    private int nextId;
+    private List<SongCreateRequestDto> songs;
+
+    @Setup(Level.Trial)
+    public void setUp(SongServiceContext context) {
+        context.deleteSongsOnStop(FIRST_ID, LAST_ID);
+    }
+
+    @Setup(Level.Iteration)
+    public void clear(SongServiceContext context) {
+        context.deleteSongs(FIRST_ID, LAST_ID);
+        nextId = FIRST_ID;
+    }
+
+    @Setup(Level.Invocation)
+    public void prepareSongs() {
+        songs = new ArrayList<>(batchSize);
+        for (int i = 0; i < batchSize; i++) {
+            songs.add(SongServiceContext.song(nextId++));
+        }
+    }
+
+    @Benchmark
+    public SongBatchResponseDto createSongsInBatch(SongServiceContext context) {
+        return context.songService().createSongs(songs);
+    }
+
+    @Benchmark
+    public int createSongsOneByOne(SongServiceContext context) {
+        int created = 0;
+        for (SongCreateRequestDto song : songs) {
+            created += context.songService().createSong(song).getId() > 0 ? 1 : 0;
+        }
+        return created;
+    }
+}
@@ -0,0 +1,66 @@
+package com.microservice.benchmark.database;
+
+import com.microservice.song.dto.DeleteSongsResponseDto;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Level;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+
+import java.util.StringJoiner;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Measures DELETE /songs as the ID list grows to the 200 character limit.
+ * All IDs are removed with one statement, so the latency should stay flat across ID counts.
+ * The songs are created again before each call, outside the measured time.
+ */
+@State(Scope.Thread)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Warmup(iterations = 3, time = 2)
+@Measurement(iterations = 5, time = 2)
+@Fork(1)
+public class SongDeleteBenchmark {
+
+    // Five-digit IDs, so that 33 of them fill the 200 character CSV limit
+    private static final int FIRST_ID = 99900;
+    private static final int LAST_ID = 99999;
+
+    @Param({"1", "10", "33"})
+    private int idCount;
+
+    private String csv;
+
+    @Setup(Level.Trial)
+    public void setUp(SongServiceContext context) {
+        context.deleteSongs(FIRST_ID, LAST_ID);
+        context.deleteSongsOnStop(FIRST_ID, LAST_ID);
+        StringJoiner joiner = new StringJoiner(",");
+        for (int i = 0; i < idCount; i++) {
+            joiner.add(String.valueOf(FIRST_ID + i));
+        }
+        csv = joiner.toString();
+    }
+
+    @Setup(Level.Invocation)
+    public void createSongs(SongServiceContext context) {
+        context.createSongs(FIRST_ID, idCount, SongServiceContext::song);
+    }
+
+    @Benchmark
+    public DeleteSongsResponseDto deleteSongs(SongServiceContext context) {
+        DeleteSongsResponseDto deleted = context.songService().deleteSongs(csv);
+        if (deleted.getIds().size() != idCount) {
+            throw new IllegalStateException("Deleted " + deleted.getIds().size() + " of " + idCount + " songs");
+        }
+        return deleted;
+    }
+}
@@ -0,0 +1,96 @@
+package com.microservice.benchmark.database;
+
+import com.microservice.song.dto.SongCreateRequestDto;
+import com.microservice.song.dto.SongSearchResponseDto;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Level;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Measures GET /songs/search for each kind of filter against a generated catalog.
+ * Artists, albums and years repeat with different periods, and song names are built from a fixed vocabulary,
+ * so every query matches a full page. The catalog is created once per run and removed afterwards.
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.SampleTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Warmup(iterations = 3, time = 2)
+@Measurement(iterations = 5, time = 2)
+@Fork(1)
+public class SongSearchBenchmark {
+
+    private static final int FIRST_ID = 1_500_000_000;
+    private static final int VOCABULARY_SIZE = 5000;
+
+    @Param({"200000"})
+    private int songCount;
+
+    @Setup(Level.Trial)
+    public void createCatalog(SongServiceContext context) {
+        context.deleteSongs(FIRST_ID, FIRST_ID + songCount - 1);
+        context.deleteSongsOnStop(FIRST_ID, FIRST_ID + songCount - 1);
+        context.createSongs(FIRST_ID, songCount, SongSearchBenchmark::song);
+        // Fresh statistics, so the planner sees the catalog as it would in production
+        context.jdbcTemplate().execute("ANALYZE songs");
+    }
+
+    @Benchmark
+    public SongSearchResponseDto byArtist(SongServiceContext context) {
+        return context.songService().searchSongs("Artist 42", null, null, null, null, null, null);
+    }
+
+    @Benchmark
+    public SongSearchResponseDto byAlbum(SongServiceContext context) {
+        return context.songService().searchSongs(null, "Album 123", null, null, null, null, null);
+    }
+
+    @Benchmark
+    public SongSearchResponseDto byYear(SongServiceContext context) {
+        return context.songService().searchSongs(null, null, "1977", null, null, null, null);
+    }
+
+    @Benchmark
+    public SongSearchResponseDto byYearFromCursor(SongServiceContext context) {
+        return context.songService().searchSongs(null, null, "1977", null, null,
+                String.valueOf(FIRST_ID + songCount / 2), null);
+    }
+
+    @Benchmark
+    public SongSearchResponseDto byNamePrefix(SongServiceContext context) {
+        return context.songService().searchSongs(null, null, null, word(17).substring(0, 2), null, null, null);
+    }
+
+    @Benchmark
+    public SongSearchResponseDto byText(SongServiceContext context) {
+        return context.songService().searchSongs(null, null, null, null, word(17), null, null);
+    }
+
+    @Benchmark
+    public SongSearchResponseDto byYearAndText(SongServiceContext context) {
+        return context.songService().searchSongs(null, null, "1977", null, word(17), null, null);
+    }
+
+    private static SongCreateRequestDto song(int id) {
+        int i = id - FIRST_ID;
+        return new SongCreateRequestDto(id, word(i) + " " + word(i / 7) + " " + word(i / 13),
+                "Artist " + i % 1000, "Album " + i % 10000, "03:25", String.valueOf(1950 + i % 70));
+    }
+
+    /**
+     * Returns a word of the song name vocabulary.
+     */
+    private static String word(int index) {
+        return "w" + Integer.toString(index % VOCABULARY_SIZE * 7919 % VOCABULARY_SIZE + 1000, 36);
+    }
+}
@@ -0,0 +1,110 @@
+package com.microservice.benchmark.database;
+
+import com.microservice.song.SongServiceApplication;
+import com.microservice.song.dto.SongCreateRequestDto;
+import com.microservice.song.service.SongService;
+import org.openjdk.jmh.annotations.Level;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.TearDown;
+import org.springframework.boot.WebApplicationType;
+import org.springframework.boot.builder.SpringApplicationBuilder;
+import org.springframework.context.ConfigurableApplicationContext;
+import org.springframework.jdbc.core.JdbcTemplate;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.function.IntFunction;
+
+/**
+ * Song Service application context shared by the database benchmarks, started without a web server.
+ * It is configured by song-benchmark.properties rather than the application.properties of either service,
+ * which are both on the benchmark classpath. Benchmarks only create and delete songs in their own ID ranges.
+ */
+@State(Scope.Benchmark)
+public class SongServiceContext {
+
+    private static final String DELETE_RANGE_SQL = "DELETE FROM songs WHERE id BETWEEN ? AND ?";
+    private static final int MAX_BATCH_SIZE = 1000;
+
+    private final List<int[]> rangesToDelete = new ArrayList<>();
+    private ConfigurableApplicationContext context;
+    private SongService songService;
+    private JdbcTemplate jdbcTemplate;
+
+    @Setup(Level.Trial)
+    public void start() {
+        context = new SpringApplicationBuilder(SongServiceApplication.class)
+                .web(WebApplicationType.NONE)
+                .run("--spring.config.name=song-benchmark");
+        songService = context.getBean(SongService.class);
+        jdbcTemplate = context.getBean(JdbcTemplate.class);
+    }
+
+    /**
+     * Removes the songs the benchmarks left behind, then closes the context.
+     * Runs after the trial tear-down of the benchmark states, which can therefore no longer use the context.
+     */
+    @TearDown(Level.Trial)
+    public void stop() {
+        try {
+            rangesToDelete.forEach(range -> deleteSongs(range[0], range[1]));
+        } finally {
+            context.close();
+        }
+    }
+
+    SongService songService() {
+        return songService;
+    }
+
+    JdbcTemplate jdbcTemplate() {
+        return jdbcTemplate;
+    }
+
+    /**
+     * Creates songs with consecutive IDs through the batch ingest path.
+     *
+     * @param firstId ID of the first song.
+     * @param count Number of songs.
+     * @param song Builds the song with the given ID.
+     */
+    void createSongs(int firstId, int count, IntFunction<SongCreateRequestDto> song) {
+        List<SongCreateRequestDto> batch = new ArrayList<>(Math.min(count, MAX_BATCH_SIZE));
+        for (int id = firstId; id < firstId + count; id++) {
+            batch.add(song.apply(id));
+            if (batch.size() == MAX_BATCH_SIZE) {
+                songService.createSongs(batch);
+                batch.clear();
+            }
+        }
+        if (!batch.isEmpty()) {
+            songService.createSongs(batch);
+        }
+    }
+
+    /**
+     * Deletes all songs in an ID range once the benchmark run is over.
+     *
+     * @param firstId First ID of the range.
+     * @param lastId Last ID of the range, inclusive.
+     */
+    void deleteSongsOnStop(int firstId, int lastId) {
+        rangesToDelete.add(new int[]{firstId, lastId});
+    }
+
+    /**
+     * Deletes all songs in an ID range.
+     *
+     * @param firstId First ID of the range.
+     * @param lastId Last ID of the range, inclusive.
+     */
+    void deleteSongs(int firstId, int lastId) {
+        jdbcTemplate.update(DELETE_RANGE_SQL, firstId, lastId);
+    }
+
+    static SongCreateRequestDto song(int id) {
+        return new SongCreateRequestDto(id, "Song " + id, "Artist " + id % 1000, "Album " + id % 10000, "03:25", "1977");
+    }
+}
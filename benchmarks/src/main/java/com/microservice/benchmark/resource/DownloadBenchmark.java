@@ -0,0 +1,120 @@
+package com.microservice.benchmark.resource;
+
+import com.microservice.resource.storage.FileSystemBlobStore;
+import com.microservice.resource.storage.StoredBlob;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.TearDown;
+import org.openjdk.jmh.annotations.Warmup;
+
+import java.io.ByteArrayInputStream;
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.OutputStream;
+import java.net.InetAddress;
+import java.net.InetSocketAddress;
+import java.nio.ByteBuffer;
+import java.nio.channels.Channels;
+import java.nio.channels.ServerSocketChannel;
+import java.nio.channels.SocketChannel;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.Comparator;
+import java.util.concurrent.TimeUnit;
+import java.util.stream.Stream;
+
+/**
+ * Compares the download path of GET /resources/{id} with the byte[] path it replaced, sending a stored blob
+ * to a loopback socket that a background thread drains. The zero-copy path transfers the blob file to the socket
+ * with FileChannel.transferTo, which the JDK maps to sendfile; the byte[] path reads the whole blob onto the heap
+ * and writes it through an output stream, as the former ResponseEntity&lt;byte[]&gt; response did.
+ * Throughput is reported in downloads per second, allocation per download by the gc profiler.
+ */
+@State(Scope.Thread)
+@BenchmarkMode(Mode.Throughput)
+@OutputTimeUnit(TimeUnit.SECONDS)
+@Warmup(iterations = 5, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+public class DownloadBenchmark {
+
+    @Param({"262144", "8388608"})
+    private int size;
+
+    private Path root;
+    private FileSystemBlobStore blobStore;
+    private String key;
+
+    private ServerSocketChannel server;
+    private SocketChannel socket;
+    private OutputStream socketStream;
+    private Thread drain;
+
+    @Setup
+    public void setUp() throws IOException {
+        root = Files.createTempDirectory("download-benchmark");
+        blobStore = new FileSystemBlobStore(root.toString(), false);
+        StoredBlob blob = blobStore.put(new ByteArrayInputStream(Mp3Samples.build(Mp3Samples.Layout.ID3V23, size)), 65536);
+        key = blob.key();
+
+        server = ServerSocketChannel.open().bind(new InetSocketAddress(InetAddress.getLoopbackAddress(), 0));
+        socket = SocketChannel.open(server.getLocalAddress());
+        socketStream = Channels.newOutputStream(socket);
+        SocketChannel client = server.accept();
+        drain = Thread.ofPlatform().name("download-drain").daemon().start(() -> drain(client));
+    }
+
+    @TearDown
+    public void tearDown() throws IOException, InterruptedException {
+        socket.close();
+        drain.join();
+        server.close();
+        try (Stream<Path> files = Files.walk(root)) {
+            for (Path file : files.sorted(Comparator.reverseOrder()).toList()) {
+                Files.delete(file);
+            }
+        }
+    }
+
+    /**
+     * Transfers the blob file to the socket, as AudioResponseWriter does when the connector offers no sendfile.
+     */
+    @Benchmark
+    public void zeroCopy() throws IOException {
+        blobStore.content(key).transferTo(0, size, socket);
+    }
+
+    /**
+     * Reads the blob into a byte array and writes it to the socket, as the download path did before.
+     */
+    @Benchmark
+    public void byteArray() throws IOException {
+        byte[] audioData;
+        try (InputStream in = blobStore.open(key)) {
+            audioData = in.readAllBytes();
+        }
+        socketStream.write(audioData);
+    }
+
+    /**
+     * Reads and discards everything sent to the socket until it is closed.
+     */
+    private static void drain(SocketChannel client) {
+        ByteBuffer buffer = ByteBuffer.allocateDirect(1 << 20);
+        try (client) {
+            while (client.read(buffer.clear()) != -1) {
+                // Discarded
+            }
+        } catch (IOException e) {
+            throw new IllegalStateException("Draining the download socket failed", e);
+        }
+    }
+}
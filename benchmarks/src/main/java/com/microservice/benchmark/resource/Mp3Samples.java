@@ -0,0 +1,185 @@
+package com.microservice.benchmark.resource;
+
+import java.io.ByteArrayOutputStream;
+import java.io.InputStream;
+import java.nio.charset.StandardCharsets;
+
+/**
+ * Builds synthetic MP3 files for the metadata extraction benchmarks and the upload load test.
+ * Audio is made of silent MPEG-1 Layer III frames at 128 kbit/s and 44.1 kHz, so the parser walks
+ * real frame headers; the tag layout decides which parts of the parser are exercised.
+ */
+public final class Mp3Samples {
+
+    // MPEG-1 Layer III, no CRC, 128 kbit/s, 44.1 kHz, no padding, joint stereo
+    private static final byte[] FRAME_HEADER = {(byte) 0xFF, (byte) 0xFB, (byte) 0x90, (byte) 0x44};
+    private static final int FRAME_LENGTH = 417;
+    // Side information of a stereo MPEG-1 frame precedes the Xing header
+    private static final int XING_OFFSET = 4 + 32;
+
+    private static final String TITLE = "We are the champions";
+    private static final String ARTIST = "Queen";
+    private static final String ALBUM = "News of the world";
+    private static final String YEAR = "1977";
+
+    /**
+     * Tag layouts of the samples.
+     */
+    public enum Layout {
+        /** ID3v1 tag in the last 128 bytes only; every audio frame is counted. */
+        ID3V1,
+        /** ID3v2.3 tag with ISO-8859-1 text frames; every audio frame is counted. */
+        ID3V23,
+        /** ID3v2.4 tag with UTF-8 text frames; every audio frame is counted. */
+        ID3V24,
+        /** ID3v2.3 tag and a Xing header carrying the frame count; audio frames are skipped. */
+        VBR
+    }
+
+    private Mp3Samples() {
+    }
+
+    /**
+     * Builds a sample file.
+     *
+     * @param layout Tag layout.
+     * @param size Approximate size of the file in bytes.
+     * @return Content of the file.
+     */
+    static byte[] build(Layout layout, int size) {
+        ByteArrayOutputStream out = new ByteArrayOutputStream(size + 1024);
+        switch (layout) {
+            case ID3V23, VBR -> writeId3v2(out, 3);
+            case ID3V24 -> writeId3v2(out, 4);
+            default -> {
+            }
+        }
+
+        int frames = Math.max(2, size / FRAME_LENGTH);
+        for (int i = 0; i < frames; i++) {
+            byte[] frame = new byte[FRAME_LENGTH];
+            System.arraycopy(FRAME_HEADER, 0, frame, 0, FRAME_HEADER.length);
+            if (i == 0 && layout == Layout.VBR) {
+                writeXingHeader(frame, frames - 1);
+            }
+            out.writeBytes(frame);
+        }
+
+        if (layout == Layout.ID3V1) {
+            writeId3v1(out);
+        }
+        return out.toByteArray();
+    }
+
+    /**
+     * Streams a sample file with an ID3v2.3 tag, generating its frames while it is read,
+     * so files larger than the heap can be sent without being held in memory.
+     *
+     * @param size Approximate size of the file in bytes; see {@link #streamLength(long)} for the exact size.
+     * @param seed Value written into the first audio frame, so files of the same size differ in content.
+     * @return Stream of the file content.
+     */
+    static InputStream stream(long size, long seed) {
+        byte[] head = build(Layout.ID3V23, 0);
+        for (int i = 0; i < Long.BYTES; i++) {
+            head[head.length - 1 - i] = (byte) (seed >>> 8 * i);
+        }
+        long length = streamLength(size);
+        byte[] frame = new byte[FRAME_LENGTH];
+        System.arraycopy(FRAME_HEADER, 0, frame, 0, FRAME_HEADER.length);
+
+        return new InputStream() {
+            private long position;
+
+            @Override
+            public int read() {
+                byte[] single = new byte[1];
+                return read(single, 0, 1) == -1 ? -1 : single[0] & 0xFF;
+            }
+
+            @Override
+            public int read(byte[] b, int off, int len) {
+                if (position >= length) {
+                    return -1;
+                }
+                int count = (int) Math.min(len, length - position);
+                for (int copied = 0; copied < count; ) {
+                    byte[] source = position < head.length ? head : frame;
+                    int from = position < head.length ? (int) position : (int) ((position - head.length) % FRAME_LENGTH);
+                    int n = Math.min(count - copied, source.length - from);
+                    System.arraycopy(source, from, b, off + copied, n);
+                    copied += n;
+                    position += n;
+                }
+                return count;
+            }
+        };
+    }
+
+    /**
+     * Returns the exact size of a file produced by {@link #stream(long, long)}: the tag followed by whole frames.
+     *
+     * @param size Approximate size of the file in bytes.
+     * @return Size of the file in bytes.
+     */
+    static long streamLength(long size) {
+        long headLength = build(Layout.ID3V23, 0).length;
+        return headLength + Math.max(0, size - headLength) / FRAME_LENGTH * FRAME_LENGTH;
+    }
+
+    private static void writeId3v2(ByteArrayOutputStream out, int version) {
+        ByteArrayOutputStream frames = new ByteArrayOutputStream();
+        writeTextFrame(frames, version, "TIT2", TITLE);
+        writeTextFrame(frames, version, "TPE1", ARTIST);
+        writeTextFrame(frames, version, "TALB", ALBUM);
+        writeTextFrame(frames, version, version == 4 ? "TDRC" : "TYER", YEAR);
+        // Padding, as left by most tag editors
+        frames.writeBytes(new byte[256]);
+
+        out.writeBytes(new byte[]{'I', 'D', '3', (byte) version, 0, 0});
+        out.writeBytes(syncSafe(frames.size()));
+        out.writeBytes(frames.toByteArray());
+    }
+
+    private static void writeTextFrame(ByteArrayOutputStream out, int version, String id, String text) {
+        // ID3v2.4 text is written as UTF-8, ID3v2.3 text as ISO-8859-1
+        byte[] value = text.getBytes(version == 4 ? StandardCharsets.UTF_8 : StandardCharsets.ISO_8859_1);
+        int size = 1 + value.length;
+        out.writeBytes(id.getBytes(StandardCharsets.ISO_8859_1));
+        out.writeBytes(version == 4 ? syncSafe(size) : int32(size));
+        out.writeBytes(new byte[]{0, 0});
+        out.write(version == 4 ? 3 : 0);
+        out.writeBytes(value);
+    }
+
+    private static void writeXingHeader(byte[] frame, int frameCount) {
+        System.arraycopy("Xing".getBytes(StandardCharsets.ISO_8859_1), 0, frame, XING_OFFSET, 4);
+        // Only the frame count field is present
+        System.arraycopy(int32(1), 0, frame, XING_OFFSET + 4, 4);
+        System.arraycopy(int32(frameCount), 0, frame, XING_OFFSET + 8, 4);
+    }
+
+    private static void writeId3v1(ByteArrayOutputStream out) {
+        byte[] tag = new byte[128];
+        put(tag, 0, "TAG");
+        put(tag, 3, TITLE);
+        put(tag, 33, ARTIST);
+        put(tag, 63, ALBUM);
+        put(tag, 93, YEAR);
+        out.writeBytes(tag);
+    }
+
+    private static void put(byte[] tag, int offset, String value) {
+        byte[] bytes = value.getBytes(StandardCharsets.ISO_8859_1);
+        System.arraycopy(bytes, 0, tag, offset, bytes.length);
+    }
+
+    private static byte[] int32(int value) {
+        return new byte[]{(byte) (value >>> 24), (byte) (value >>> 16), (byte) (value >>> 8), (byte) value};
+    }
+
+    private static byte[] syncSafe(int value) {
+        return new byte[]{(byte) (value >>> 21 & 0x7F), (byte) (value >>> 14 & 0x7F),
+                (byte) (value >>> 7 & 0x7F), (byte) (value & 0x7F)};
+    }
+}
@@ -0,0 +1,214 @@
+package com.microservice.benchmark.resource;
+
+import com.microservice.resource.ResourceServiceApplication;
+import com.microservice.resource.service.ResourceService;
+import com.sun.management.GarbageCollectionNotificationInfo;
+import org.springframework.boot.builder.SpringApplicationBuilder;
+import org.springframework.context.ConfigurableApplicationContext;
+import org.springframework.jdbc.core.JdbcTemplate;
+import tools.jackson.databind.json.JsonMapper;
+
+import javax.management.Notification;
+import javax.management.NotificationEmitter;
+import javax.management.NotificationListener;
+import javax.management.openmbean.CompositeData;
+import java.lang.management.GarbageCollectorMXBean;
+import java.lang.management.ManagementFactory;
+import java.lang.management.MemoryPoolMXBean;
+import java.lang.management.MemoryType;
+import java.lang.management.MemoryUsage;
+import java.net.URI;
+import java.net.http.HttpClient;
+import java.net.http.HttpRequest;
+import java.net.http.HttpResponse;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+import java.util.Map;
+import java.util.Objects;
+import java.util.StringJoiner;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.atomic.AtomicLong;
+
+/**
+ * Load test of the streaming upload path: checks that the heap of Resource Service stays flat as uploads grow.
+ * Resource Service is started in this JVM on a random port, configured by resource-benchmark.properties.
+ * For every file size, the given number of uploads are sent concurrently through POST /resources; their bodies
+ * are generated while they are sent, so no whole file is held on either side. After every garbage collection
+ * during a round, the heap occupancy left by the collection is recorded; its peak is the live heap the uploads
+ * needed, and it must not grow with the file size. The created resources are deleted after each round.
+ * <p>
+ * Usage: {@code UploadHeapLoadTest <concurrency> <sizes in MB, comma-separated> <allowed growth in MB>}.
+ * Exits with status 1 if the live heap peak of any size exceeds that of the smallest size by more than the
+ * allowed growth. Run it with a maximum heap smaller than the data of a round, e.g. -Xmx256m, so that an
+ * upload path holding whole files fails with OutOfMemoryError as well.
+ */
+public final class UploadHeapLoadTest {
+
+    private static final String DELETE_OUTBOX_SQL = "DELETE FROM metadata_outbox WHERE resource_id = ANY (?)";
+    // Keeps each DELETE /resources ID list well below the 200 character limit
+    private static final int DELETE_BATCH_SIZE = 20;
+    private static final long MB = 1024 * 1024;
+
+    private UploadHeapLoadTest() {
+    }
+
+    public static void main(String[] args) throws Exception {
+        if (args.length != 3) {
+            System.err.println("Usage: UploadHeapLoadTest <concurrency> <sizes in MB, comma-separated> <allowed growth in MB>");
+            System.exit(2);
+        }
+        int concurrency = Integer.parseInt(args[0]);
+        long[] sizes = Arrays.stream(args[1].split(",")).map(String::trim).mapToLong(size -> Long.parseLong(size) * MB)
+                .sorted().toArray();
+        long allowedGrowth = Long.parseLong(args[2]) * MB;
+
+        LiveHeapMonitor monitor = new LiveHeapMonitor();
+        boolean flat = true;
+        try (ConfigurableApplicationContext context = new SpringApplicationBuilder(ResourceServiceApplication.class)
+                .run("--spring.config.name=resource-benchmark")) {
+            URI uploads = URI.create("http://localhost:" + context.getEnvironment().getProperty("local.server.port")
+                    + "/resources");
+            UploadRound round = new UploadRound(context, uploads);
+            System.out.printf("max heap %d MB, %d concurrent uploads per round%n",
+                    Runtime.getRuntime().maxMemory() / MB, concurrency);
+
+            // Loads and compiles the upload path, so its one-time allocations are not attributed to the first size
+            round.run(concurrency, sizes[0]);
+
+            long baseline = -1;
+            for (long size : sizes) {
+                System.gc();
+                monitor.reset();
+                long start = System.nanoTime();
+                round.run(concurrency, size);
+                long millis = (System.nanoTime() - start) / 1_000_000;
+                long livePeak = monitor.livePeak();
+
+                if (baseline < 0) {
+                    baseline = livePeak;
+                }
+                boolean withinBound = livePeak - baseline <= allowedGrowth;
+                flat &= withinBound;
+                System.out.printf("%4d MB x %d: %6d ms, live heap peak %4d MB, heap used peak %4d MB, %d collections%s%n",
+                        size / MB, concurrency, millis, livePeak / MB, monitor.usedPeak() / MB, monitor.collections(),
+                        withinBound ? "" : " - grew by more than " + allowedGrowth / MB + " MB");
+            }
+        }
+
+        if (!flat) {
+            System.exit(1);
+        }
+    }
+
+    /**
+     * Uploads a round of files concurrently and deletes them again.
+     */
+    private static final class UploadRound {
+
+        private final HttpClient client = HttpClient.newBuilder().version(HttpClient.Version.HTTP_1_1).build();
+        private final JsonMapper jsonMapper = JsonMapper.builder().build();
+        private final URI uploads;
+        private final ResourceService resourceService;
+        private final JdbcTemplate jdbcTemplate;
+        private long seed;
+
+        UploadRound(ConfigurableApplicationContext context, URI uploads) {
+            this.uploads = uploads;
+            this.resourceService = context.getBean(ResourceService.class);
+            this.jdbcTemplate = context.getBean(JdbcTemplate.class);
+        }
+
+        void run(int concurrency, long size) {
+            List<CompletableFuture<HttpResponse<String>>> responses = new ArrayList<>(concurrency);
+            for (int i = 0; i < concurrency; i++) {
+                long fileSeed = seed++;
+                HttpRequest request = HttpRequest.newBuilder(uploads)
+                        .header("Content-Type", "audio/mpeg")
+                        .POST(HttpRequest.BodyPublishers.fromPublisher(
+                                HttpRequest.BodyPublishers.ofInputStream(() -> Mp3Samples.stream(size, fileSeed)),
+                                Mp3Samples.streamLength(size)))
+                        .build();
+                responses.add(client.sendAsync(request, HttpResponse.BodyHandlers.ofString()));
+            }
+
+            List<Integer> ids = new ArrayList<>(concurrency);
+            List<String> failures = new ArrayList<>();
+            for (CompletableFuture<HttpResponse<String>> future : responses) {
+                HttpResponse<String> response = future.join();
+                if (response.statusCode() == 200) {
+                    ids.add(jsonMapper.readTree(response.body()).get("id").asInt());
+                } else {
+                    failures.add("HTTP " + response.statusCode() + ": " + response.body());
+                }
+            }
+            delete(ids);
+            if (!failures.isEmpty()) {
+                throw new IllegalStateException(failures.size() + " of " + concurrency + " uploads failed: " + failures);
+            }
+        }
+
+        /**
+         * Deletes the resources of a round and drops their metadata events, which would otherwise
+         * be delivered to Song Service by the next relay that runs against the database.
+         */
+        private void delete(List<Integer> ids) {
+            for (int from = 0; from < ids.size(); from += DELETE_BATCH_SIZE) {
+                StringJoiner csv = new StringJoiner(",");
+                ids.subList(from, Math.min(from + DELETE_BATCH_SIZE, ids.size())).forEach(id -> csv.add(id.toString()));
+                resourceService.deleteResources(csv.toString());
+            }
+            jdbcTemplate.update(DELETE_OUTBOX_SQL, (Object) ids.toArray(new Integer[0]));
+        }
+    }
+
+    /**
+     * Records the heap occupancy after each garbage collection, which is the live heap plus
+     * whatever the collection did not reclaim, and the peak heap usage including garbage.
+     */
+    private static final class LiveHeapMonitor implements NotificationListener {
+
+        private final AtomicLong livePeak = new AtomicLong();
+        private final AtomicLong collections = new AtomicLong();
+        private final List<MemoryPoolMXBean> heapPools = ManagementFactory.getMemoryPoolMXBeans().stream()
+                .filter(pool -> pool.getType() == MemoryType.HEAP).toList();
+
+        LiveHeapMonitor() {
+            for (GarbageCollectorMXBean collector : ManagementFactory.getGarbageCollectorMXBeans()) {
+                ((NotificationEmitter) collector).addNotificationListener(this, null, null);
+            }
+        }
+
+        @Override
+        public void handleNotification(Notification notification, Object handback) {
+            if (!GarbageCollectionNotificationInfo.GARBAGE_COLLECTION_NOTIFICATION.equals(notification.getType())) {
+                return;
+            }
+            GarbageCollectionNotificationInfo info = GarbageCollectionNotificationInfo.from((CompositeData) notification.getUserData());
+            // The usage after collection is reported for all memory pools, including metaspace and code cache
+            Map<String, MemoryUsage> afterGc = info.getGcInfo().getMemoryUsageAfterGc();
+            long used = heapPools.stream().map(pool -> afterGc.get(pool.getName()))
+                    .filter(Objects::nonNull).mapToLong(MemoryUsage::getUsed).sum();
+            livePeak.accumulateAndGet(used, Math::max);
+            collections.incrementAndGet();
+        }
+
+        void reset() {
+            livePeak.set(0);
+            collections.set(0);
+            heapPools.forEach(MemoryPoolMXBean::resetPeakUsage);
+        }
+
+        long livePeak() {
+            return livePeak.get();
+        }
+
+        long usedPeak() {
+            return heapPools.stream().mapToLong(pool -> pool.getPeakUsage().getUsed()).sum();
+        }
+
+        long collections() {
+            return collections.get();
+        }
+    }
+}
@@ -0,0 +1,77 @@
+package com.microservice.benchmark.song;
+
+import com.microservice.song.dto.SongResponseDto;
+import com.microservice.song.dto.SongSearchResponseDto;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+import tools.jackson.databind.ObjectWriter;
+import tools.jackson.databind.json.JsonMapper;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Measures Jackson serialization of song metadata responses: a single song as returned by GET /songs/{id},
+ * and a full default-sized search page.
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.NANOSECONDS)
+@Warmup(iterations = 5, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+public class SongResponseSerializationBenchmark {
+
+    private static final int PAGE_SIZE = 100;
+
+    private final JsonMapper jsonMapper = JsonMapper.builder().build();
+    private ObjectWriter songWriter;
+    private SongResponseDto song;
+    private SongSearchResponseDto page;
+
+    @Setup
+    public void setUp() {
+        songWriter = jsonMapper.writerFor(SongResponseDto.class);
+        song = new SongResponseDto(1, "We are the champions", "Queen", "News of the world", "02:59", "1977");
+        List<SongResponseDto> songs = new ArrayList<>();
+        for (int i = 1; i <= PAGE_SIZE; i++) {
+            songs.add(new SongResponseDto(i, "Song " + i, "Artist " + i % 7, "Album " + i % 13, "03:25", "1977"));
+        }
+        page = new SongSearchResponseDto(songs, PAGE_SIZE);
+    }
+
+    /**
+     * Serializes a song the way Song Service caches GET /songs/{id} responses.
+     */
+    @Benchmark
+    public byte[] songToBytes() {
+        return jsonMapper.writeValueAsBytes(song);
+    }
+
+    @Benchmark
+    public String songToString() {
+        return jsonMapper.writeValueAsString(song);
+    }
+
+    /**
+     * Serializes a song with a writer resolved once, skipping the per-call serializer lookup.
+     */
+    @Benchmark
+    public byte[] songToBytesWithWriter() {
+        return songWriter.writeValueAsBytes(song);
+    }
+
+    @Benchmark
+    public byte[] searchPageToBytes() {
+        return jsonMapper.writeValueAsBytes(page);
+    }
+}
@@ -0,0 +1,168 @@
+package com.microservice.benchmark.startup;
+
+import java.io.IOException;
+import java.net.ConnectException;
+import java.net.URI;
+import java.net.http.HttpClient;
+import java.net.http.HttpRequest;
+import java.net.http.HttpResponse;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.TimeUnit;
+import java.util.stream.Stream;
+
+/**
+ * Measures the time from launching a service until it answered its first request, for each startup mode
+ * produced by the service build profiles. Every run starts a fresh process, waits until
+ * /actuator/health/readiness reports UP, sends one listing request and stops the process again.
+ * <p>
+ * Usage: {@code TimeToFirstRequest <service directory> <mode> <runs>}, where mode is one of
+ * <ul>
+ *     <li>{@code jvm} - the extracted jar of {@code mvn -Pcds package}, without the archive,</li>
+ *     <li>{@code cds} - the extracted jar with the AppCDS archive,</li>
+ *     <li>{@code aot} - the extracted jar of {@code mvn -Paot,cds package} with Spring AOT, without the archive,</li>
+ *     <li>{@code aot-cds} - the extracted jar of {@code mvn -Paot,cds package} with Spring AOT and the archive,</li>
+ *     <li>{@code native} - the executable of {@code mvn -Pnative package}.</li>
+ * </ul>
+ * The services connect to the databases configured in their application.properties;
+ * environment variables such as SPRING_DATASOURCE_URL are passed on.
+ */
+public final class TimeToFirstRequest {
+
+    private static final Map<String, String> BASE_URLS = Map.of(
+            "resource-service", "http://localhost:8081",
+            "song-service", "http://localhost:8082");
+    private static final Map<String, String> FIRST_REQUESTS = Map.of(
+            "resource-service", "/resources?limit=1",
+            "song-service", "/songs?limit=1");
+    private static final List<String> JVM_MODES = List.of("jvm", "cds", "aot", "aot-cds");
+    private static final Duration POLL_INTERVAL = Duration.ofMillis(10);
+    private static final Duration STARTUP_TIMEOUT = Duration.ofMinutes(2);
+
+    private TimeToFirstRequest() {
+    }
+
+    public static void main(String[] args) throws Exception {
+        if (args.length != 3) {
+            System.err.println("Usage: TimeToFirstRequest <service directory> <jvm|cds|aot|aot-cds|native> <runs>");
+            System.exit(2);
+        }
+        Path serviceDir = Path.of(args[0]).toAbsolutePath().normalize();
+        String service = serviceDir.getFileName().toString();
+        String mode = args[1];
+        int runs = Integer.parseInt(args[2]);
+        if (!BASE_URLS.containsKey(service)) {
+            throw new IllegalArgumentException("Unknown service " + service + ", expected one of " + BASE_URLS.keySet());
+        }
+
+        List<String> command = command(serviceDir, mode);
+        URI readiness = URI.create(BASE_URLS.get(service) + "/actuator/health/readiness");
+        URI firstRequest = URI.create(BASE_URLS.get(service) + FIRST_REQUESTS.get(service));
+        Path log = serviceDir.resolve("target").resolve("startup-" + mode + ".log");
+        HttpClient client = HttpClient.newBuilder().connectTimeout(Duration.ofSeconds(1)).build();
+
+        System.out.println(String.join(" ", command));
+        long[] readyMillis = new long[runs];
+        long[] firstMillis = new long[runs];
+        for (int run = 0; run < runs; run++) {
+            long start = System.nanoTime();
+            Process process = new ProcessBuilder(command)
+                    .redirectErrorStream(true)
+                    .redirectOutput(log.toFile())
+                    .start();
+            try {
+                awaitReadiness(client, readiness, process);
+                readyMillis[run] = elapsedMillis(start);
+                int status = client.send(HttpRequest.newBuilder(firstRequest).build(),
+                        HttpResponse.BodyHandlers.discarding()).statusCode();
+                firstMillis[run] = elapsedMillis(start);
+                System.out.printf("run %d: ready %d ms, first request %d ms (HTTP %d)%n",
+                        run + 1, readyMillis[run], firstMillis[run], status);
+            } finally {
+                process.destroy();
+                if (!process.waitFor(30, TimeUnit.SECONDS)) {
+                    process.destroyForcibly().waitFor();
+                }
+            }
+        }
+
+        System.out.printf("%s %s: ready %s, first request %s (min/median/max ms over %d runs)%n",
+                service, mode, summary(readyMillis), summary(firstMillis), runs);
+    }
+
+    /**
+     * Builds the command line starting the service in a mode.
+     */
+    private static List<String> command(Path serviceDir, String mode) throws IOException {
+        if (!JVM_MODES.contains(mode) && !mode.equals("native")) {
+            throw new IllegalArgumentException("Unknown mode " + mode);
+        }
+        Path target = serviceDir.resolve("target");
+        if (mode.equals("native")) {
+            Path executable = target.resolve(serviceDir.getFileName().toString());
+            requireFile(executable, "mvn -Pnative package");
+            return List.of(executable.toString());
+        }
+
+        Path cds = target.resolve("cds");
+        Path jar;
+        try (Stream<Path> files = Files.list(cds)) {
+            jar = files.filter(file -> file.getFileName().toString().endsWith("-exec.jar")).findFirst()
+                    .orElseThrow(() -> new IllegalStateException("No extracted jar in " + cds + ", run mvn -Pcds package"));
+        }
+
+        List<String> command = new ArrayList<>();
+        command.add(Path.of(System.getProperty("java.home"), "bin", "java").toString());
+        if (mode.endsWith("cds")) {
+            Path archive = cds.resolve("application.jsa");
+            requireFile(archive, "mvn -Pcds package");
+            command.add("-XX:SharedArchiveFile=" + archive);
+            command.add("-Xlog:cds=error");
+        }
+        if (mode.startsWith("aot")) {
+            command.add("-Dspring.aot.enabled=true");
+        }
+        command.addAll(Arrays.asList("-jar", jar.toString()));
+        return command;
+    }
+
+    private static void awaitReadiness(HttpClient client, URI readiness, Process process) throws Exception {
+        long deadline = System.nanoTime() + STARTUP_TIMEOUT.toNanos();
+        HttpRequest request = HttpRequest.newBuilder(readiness).build();
+        while (System.nanoTime() < deadline) {
+            if (!process.isAlive()) {
+                throw new IllegalStateException("Service exited with code " + process.exitValue());
+            }
+            try {
+                if (client.send(request, HttpResponse.BodyHandlers.discarding()).statusCode() == 200) {
+                    return;
+                }
+            } catch (ConnectException e) {
+                // Not listening yet
+            }
+            Thread.sleep(POLL_INTERVAL);
+        }
+        throw new IllegalStateException("Service not ready within " + STARTUP_TIMEOUT);
+    }
+
+    private static void requireFile(Path file, String build) {
+        if (!Files.isRegularFile(file)) {
+            throw new IllegalStateException(file + " does not exist, run " + build);
+        }
+    }
+
+    private static long elapsedMillis(long start) {
+        return (System.nanoTime() - start) / 1_000_000;
+    }
+
+    private static String summary(long[] millis) {
+        long[] sorted = millis.clone();
+        Arrays.sort(sorted);
+        return sorted[0] + "/" + sorted[sorted.length / 2] + "/" + sorted[sorted.length - 1];
+    }
+}
@@ -0,0 +1,15 @@
+package com.microservice.resource.reactive;
+
+import org.springframework.boot.SpringApplication;
+import org.springframework.boot.autoconfigure.SpringBootApplication;
+
+/**
+ * Main application class for the reactive variant of the Resource Service.
+ * Serves the same API and database as the servlet implementation on WebFlux and R2DBC.
+ */
+@SpringBootApplication
+public class ReactiveResourceServiceApplication {
+    public static void main(String[] args) {
+        SpringApplication.run(ReactiveResourceServiceApplication.class, args);
+    }
+}
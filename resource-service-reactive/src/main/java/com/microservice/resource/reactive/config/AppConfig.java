@@ -0,0 +1,74 @@
+package com.microservice.resource.reactive.config;
+
+import com.microservice.resource.service.Mp3MetadataExtractor;
+import io.netty.channel.ChannelOption;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Configuration;
+import org.springframework.http.client.reactive.ReactorClientHttpConnector;
+import org.springframework.scheduling.annotation.EnableScheduling;
+import org.springframework.web.reactive.function.client.WebClient;
+import reactor.netty.http.client.HttpClient;
+import reactor.netty.resources.ConnectionProvider;
+
+import java.time.Duration;
+
+/**
+ * Configuration for Spring application.
+ */
+@Configuration
+@EnableScheduling
+public class AppConfig {
+
+    @Bean
+    public Mp3MetadataExtractor mp3MetadataExtractor() {
+        return new Mp3MetadataExtractor();
+    }
+
+    /**
+     * Connection pool for calls to Song Service. Pool usage is published as
+     * {@code reactor.netty.connection.provider.*} metrics.
+     *
+     * @param maxConnections Maximum number of open connections.
+     * @param connectionRequestTimeout Time allowed to wait for a connection from an exhausted pool.
+     * @param keepAlive Time an idle connection is kept before it is evicted.
+     * @return Connection provider.
+     */
+    @Bean(destroyMethod = "dispose")
+    public ConnectionProvider songServiceConnectionProvider(
+            @Value("${song-service.http.max-connections:50}") int maxConnections,
+            @Value("${song-service.http.connection-request-timeout:2s}") Duration connectionRequestTimeout,
+            @Value("${song-service.http.keep-alive:30s}") Duration keepAlive) {
+        return ConnectionProvider.builder("song-service")
+                .maxConnections(maxConnections)
+                .pendingAcquireTimeout(connectionRequestTimeout)
+                .maxIdleTime(keepAlive)
+                .evictInBackground(keepAlive)
+                .metrics(true)
+                .build();
+    }
+
+    /**
+     * Non-blocking HTTP client for calls to Song Service, keeping connections alive between requests.
+     *
+     * @param connectionProvider Pool the connections are leased from.
+     * @param songServiceUrl Base URL of Song Service.
+     * @param connectTimeout Time allowed to establish a TCP connection.
+     * @param responseTimeout Time allowed to receive a response.
+     * @return Web client.
+     */
+    @Bean
+    public WebClient songServiceWebClient(
+            ConnectionProvider connectionProvider,
+            @Value("${song-service.url}") String songServiceUrl,
+            @Value("${song-service.http.connect-timeout:2s}") Duration connectTimeout,
+            @Value("${song-service.http.response-timeout:5s}") Duration responseTimeout) {
+        HttpClient httpClient = HttpClient.create(connectionProvider)
+                .option(ChannelOption.CONNECT_TIMEOUT_MILLIS, (int) connectTimeout.toMillis())
+                .responseTimeout(responseTimeout);
+        return WebClient.builder()
+                .baseUrl(songServiceUrl)
+                .clientConnector(new ReactorClientHttpConnector(httpClient))
+                .build();
+    }
+}
@@ -0,0 +1,101 @@
+package com.microservice.resource.reactive.controller;
+
+import com.microservice.resource.dto.DeleteResourcesResponseDto;
+import com.microservice.resource.dto.MetadataStatusResponseDto;
+import com.microservice.resource.dto.ResourceIdResponseDto;
+import com.microservice.resource.dto.ResourceListResponseDto;
+import com.microservice.resource.reactive.service.ResourceService;
+import org.springframework.core.io.FileSystemResource;
+import org.springframework.core.io.Resource;
+import org.springframework.core.io.buffer.DataBuffer;
+import org.springframework.http.HttpHeaders;
+import org.springframework.http.HttpStatus;
+import org.springframework.http.MediaType;
+import org.springframework.http.ResponseEntity;
+import org.springframework.web.bind.annotation.*;
+import reactor.core.publisher.Flux;
+import reactor.core.publisher.Mono;
+
+/**
+ * Non-blocking REST controller for managing MP3 resources.
+ * Serves the same endpoints as the servlet implementation from a small number of event-loop threads.
+ */
+@RestController
+@RequestMapping("/resources")
+public class ResourceController {
+
+    private static final MediaType AUDIO_MPEG = MediaType.parseMediaType("audio/mpeg");
+
+    private final ResourceService resourceService;
+
+    public ResourceController(ResourceService resourceService) {
+        this.resourceService = resourceService;
+    }
+
+    /**
+     * Uploads a new MP3 resource.
+     * The request body is consumed buffer by buffer with backpressure and never materialized as a byte array.
+     *
+     * @param audioData Binary MP3 audio data
+     * @return ResponseEntity with resource ID and 200 OK status
+     */
+    @PostMapping(consumes = "audio/mpeg", produces = "application/json")
+    public Mono<ResponseEntity<ResourceIdResponseDto>> uploadResource(@RequestBody(required = false) Flux<DataBuffer> audioData) {
+        return resourceService.uploadResource(audioData == null ? Flux.empty() : audioData)
+                .map(resourceId -> ResponseEntity.status(HttpStatus.OK).body(resourceId));
+    }
+
+    /**
+     * Lists resources in ID order, one page at a time.
+     * Pass the returned next cursor to fetch the following page; it is null on the last page.
+     *
+     * @param cursor ID after which the page starts; the first page is returned if absent
+     * @param limit Maximum number of resources in the page
+     * @return ResponseEntity with the ID, size and checksum of each resource and 200 OK status
+     */
+    @GetMapping(produces = "application/json")
+    public Mono<ResponseEntity<ResourceListResponseDto>> listResources(@RequestParam(required = false) String cursor,
+                                                                       @RequestParam(required = false) String limit) {
+        return resourceService.listResources(cursor, limit).map(page -> ResponseEntity.ok().body(page));
+    }
+
+    /**
+     * Retrieves the binary audio data of a resource.
+     * The file is written to the connection as the client consumes it, using zero-copy transfer when
+     * the whole file is requested, so slow clients hold no heap buffers while they are waiting.
+     * Supports single and multiple byte ranges, answered with 206 Partial Content.
+     *
+     * @param id The ID of the resource to retrieve
+     * @return ResponseEntity with the audio file and 200 OK status
+     */
+    @GetMapping(value = "/{id}")
+    public Mono<ResponseEntity<Resource>> getResourceById(@PathVariable String id) {
+        return resourceService.getResourceById(id)
+                .map(audio -> ResponseEntity.ok()
+                        .contentType(AUDIO_MPEG)
+                        .header(HttpHeaders.CONTENT_DISPOSITION, "attachment; filename=\"resource_" + id + ".mp3\"")
+                        .body(new FileSystemResource(audio.file())));
+    }
+
+    /**
+     * Retrieves the metadata processing state of a resource: PENDING, DONE or FAILED.
+     *
+     * @param id The ID of the resource
+     * @return ResponseEntity with the metadata state and 200 OK status
+     */
+    @GetMapping(value = "/{id}/metadata-status", produces = "application/json")
+    public Mono<ResponseEntity<MetadataStatusResponseDto>> getMetadataStatus(@PathVariable String id) {
+        return resourceService.getMetadataStatus(id).map(status -> ResponseEntity.ok().body(status));
+    }
+
+    /**
+     * Deletes specified resources by their IDs.
+     *
+     * @param id Comma-separated list of resource IDs to remove
+     * @return ResponseEntity with IDs of deleted resources and 200 OK status
+     */
+    @DeleteMapping
+    public Mono<ResponseEntity<DeleteResourcesResponseDto>> deleteResources(@RequestParam String id) {
+        return resourceService.deleteResources(id).map(deleted -> ResponseEntity.ok().body(deleted));
+    }
+}
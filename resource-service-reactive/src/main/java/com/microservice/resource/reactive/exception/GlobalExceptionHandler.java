@@ -0,0 +1,69 @@
+package com.microservice.resource.reactive.exception;
+
+import com.microservice.resource.dto.ErrorResponseDto;
+import com.microservice.resource.exception.InvalidRequestException;
+import com.microservice.resource.exception.ResourceNotFoundException;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.http.HttpStatus;
+import org.springframework.http.ResponseEntity;
+import org.springframework.web.bind.annotation.ExceptionHandler;
+import org.springframework.web.bind.annotation.RestControllerAdvice;
+import org.springframework.web.server.ServerWebInputException;
+import org.springframework.web.server.UnsupportedMediaTypeStatusException;
+
+/**
+ * Global exception handler for resource service exceptions.
+ * Catches specific exceptions and returns the same HTTP responses as the servlet implementation.
+ */
+@RestControllerAdvice
+@Slf4j
+public class GlobalExceptionHandler {
+
+    /**
+     * Handles the case when a requested resource is not found in the database.
+     */
+    @ExceptionHandler(ResourceNotFoundException.class)
+    public ResponseEntity<ErrorResponseDto> handleNotFound(ResourceNotFoundException ex) {
+        return ResponseEntity.status(HttpStatus.NOT_FOUND)
+                .body(new ErrorResponseDto(String.valueOf(HttpStatus.NOT_FOUND.value()), ex.getMessage()));
+    }
+
+    /**
+     * Handles invalid request exceptions, such as missing required fields or invalid data formats.
+     */
+    @ExceptionHandler(InvalidRequestException.class)
+    public ResponseEntity<ErrorResponseDto> handleBadRequest(InvalidRequestException ex) {
+        return ResponseEntity.status(HttpStatus.BAD_REQUEST)
+                .body(new ErrorResponseDto(String.valueOf(HttpStatus.BAD_REQUEST.value()), ex.getMessage()));
+    }
+
+    /**
+     * Handles requests with missing or malformed parameters.
+     */
+    @ExceptionHandler(ServerWebInputException.class)
+    public ResponseEntity<ErrorResponseDto> handleInvalidInput(ServerWebInputException ex) {
+        return ResponseEntity.status(HttpStatus.BAD_REQUEST)
+                .body(new ErrorResponseDto(String.valueOf(HttpStatus.BAD_REQUEST.value()), ex.getReason()));
+    }
+
+    /**
+     * Handles any unexpected exceptions that occur during request processing.
+     */
+    @ExceptionHandler(Exception.class)
+    public ResponseEntity<ErrorResponseDto> handleServerError(Exception ex) {
+        log.error(ex.getMessage(), ex);
+        return ResponseEntity.status(HttpStatus.INTERNAL_SERVER_ERROR)
+                .body(new ErrorResponseDto(String.valueOf(HttpStatus.INTERNAL_SERVER_ERROR.value()),
+                        "Internal server error"));
+    }
+
+    /**
+     * Handles requests with unsupported Content-Type.
+     */
+    @ExceptionHandler(UnsupportedMediaTypeStatusException.class)
+    public ResponseEntity<ErrorResponseDto> handleUnsupportedMediaType(UnsupportedMediaTypeStatusException ex) {
+        return ResponseEntity.status(HttpStatus.BAD_REQUEST)
+                .body(new ErrorResponseDto(String.valueOf(HttpStatus.BAD_REQUEST.value()),
+                        "Invalid file format: " + ex.getContentType() + ". Only MP3 files are allowed"));
+    }
+}
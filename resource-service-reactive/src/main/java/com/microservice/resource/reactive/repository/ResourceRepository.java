@@ -0,0 +1,209 @@
+package com.microservice.resource.reactive.repository;
+
+import com.microservice.resource.entity.MetadataEventType;
+import com.microservice.resource.entity.MetadataStatus;
+import org.springframework.r2dbc.core.DatabaseClient;
+import org.springframework.stereotype.Repository;
+import reactor.core.publisher.Flux;
+import reactor.core.publisher.Mono;
+
+import java.time.Instant;
+import java.time.OffsetDateTime;
+import java.time.ZoneOffset;
+import java.util.Collection;
+
+/**
+ * Non-blocking access to the resources, blobs and metadata_outbox tables.
+ * The schema is created and migrated by the servlet implementation of the Resource Service;
+ * the statements are the same as the ones it issues through JPA.
+ */
+@Repository
+public class ResourceRepository {
+
+    private static final String FIND_SQL = "SELECT id, storage_key, size, checksum, metadata_status "
+            + "FROM resources WHERE id = :id";
+    private static final String LIST_SQL = "SELECT id, size, checksum FROM resources "
+            + "WHERE id > :cursor ORDER BY id LIMIT :limit";
+    private static final String INSERT_SQL = "INSERT INTO resources (storage_key, size, checksum, metadata_status) "
+            + "VALUES (:storageKey, :size, :checksum, :status) RETURNING id";
+    private static final String UPDATE_STATUS_SQL = "UPDATE resources SET metadata_status = :status WHERE id = :id";
+    private static final String INSERT_EVENT_SQL = "INSERT INTO metadata_outbox "
+            + "(resource_id, type, payload, created_at, attempts, next_attempt_at) "
+            + "VALUES (:resourceId, :type, :payload, :now, 0, :now)";
+    private static final String ACQUIRE_BLOB_SQL = "INSERT INTO blobs (checksum, storage_key, size, ref_count) "
+            + "VALUES (:checksum, :storageKey, :size, 1) "
+            + "ON CONFLICT (checksum) DO UPDATE SET ref_count = blobs.ref_count + 1 "
+            + "RETURNING storage_key";
+    // Removes the rows, queues their Song Service deletion and releases their blobs in one statement
+    private static final String DELETE_SQL = "WITH deleted AS (DELETE FROM resources WHERE id = ANY (:ids) "
+            + "RETURNING id, storage_key), "
+            + "events AS (INSERT INTO metadata_outbox (resource_id, type, created_at, attempts, next_attempt_at) "
+            + "SELECT id, 'DELETE', :now, 0, :now FROM deleted ORDER BY id), "
+            + "released AS (UPDATE blobs b SET ref_count = b.ref_count - c.n "
+            + "FROM (SELECT storage_key, count(*) AS n FROM deleted GROUP BY storage_key) c "
+            + "WHERE b.storage_key = c.storage_key RETURNING b.storage_key) "
+            + "SELECT d.id, d.storage_key, r.storage_key IS NOT NULL AS shared "
+            + "FROM deleted d LEFT JOIN released r ON r.storage_key = d.storage_key";
+    private static final String DELETE_UNREFERENCED_BLOBS_SQL = "DELETE FROM blobs "
+            + "WHERE storage_key = ANY (:storageKeys) AND ref_count <= 0 RETURNING storage_key";
+
+    private final DatabaseClient databaseClient;
+
+    public ResourceRepository(DatabaseClient databaseClient) {
+        this.databaseClient = databaseClient;
+    }
+
+    /**
+     * Finds a resource by ID.
+     *
+     * @param id Resource ID.
+     * @return The resource row, or empty if it does not exist.
+     */
+    public Mono<ResourceRow> findById(int id) {
+        return databaseClient.sql(FIND_SQL)
+                .bind("id", id)
+                .map(row -> new ResourceRow(row.get("id", Integer.class), row.get("storage_key", String.class),
+                        row.get("size", Long.class), row.get("checksum", String.class),
+                        row.get("metadata_status", String.class)))
+                .one();
+    }
+
+    /**
+     * Lists resources in ID order, starting after the given ID. Reads only ID, size and checksum.
+     *
+     * @param cursor ID after which the page starts.
+     * @param limit Maximum number of resources.
+     * @return Resources of the page.
+     */
+    public Flux<ResourceSummary> findByIdGreaterThanOrderById(int cursor, int limit) {
+        return databaseClient.sql(LIST_SQL)
+                .bind("cursor", cursor)
+                .bind("limit", limit)
+                .map(row -> new ResourceSummary(row.get("id", Integer.class), row.get("size", Long.class),
+                        row.get("checksum", String.class)))
+                .all();
+    }
+
+    /**
+     * Inserts a resource.
+     *
+     * @param storageKey Storage key of the blob holding the audio data.
+     * @param size Size of the audio data in bytes.
+     * @param checksum Hex-encoded SHA-256 checksum of the audio data.
+     * @param status Metadata processing state.
+     * @return ID of the new resource.
+     */
+    public Mono<Integer> insert(String storageKey, long size, String checksum, MetadataStatus status) {
+        return databaseClient.sql(INSERT_SQL)
+                .bind("storageKey", storageKey)
+                .bind("size", size)
+                .bind("checksum", checksum)
+                .bind("status", status.name())
+                .map(row -> row.get("id", Integer.class))
+                .one();
+    }
+
+    /**
+     * Records the metadata processing state of a resource.
+     *
+     * @param id Resource ID.
+     * @param status New metadata state.
+     * @return Completion signal.
+     */
+    public Mono<Void> updateStatus(int id, MetadataStatus status) {
+        return databaseClient.sql(UPDATE_STATUS_SQL)
+                .bind("status", status.name())
+                .bind("id", id)
+                .then();
+    }
+
+    /**
+     * Records a metadata change to deliver to Song Service.
+     *
+     * @param resourceId ID of the resource the change belongs to.
+     * @param type Kind of change.
+     * @param payload JSON body sent to Song Service.
+     * @return Completion signal.
+     */
+    public Mono<Void> insertEvent(int resourceId, MetadataEventType type, String payload) {
+        return databaseClient.sql(INSERT_EVENT_SQL)
+                .bind("resourceId", resourceId)
+                .bind("type", type.name())
+                .bind("payload", payload)
+                .bind("now", timestamp(Instant.now()))
+                .then();
+    }
+
+    /**
+     * Takes a reference to the blob holding the given content, registering the new blob if the content is not stored yet.
+     *
+     * @param checksum Hex-encoded SHA-256 checksum of the content.
+     * @param storageKey Storage key of the newly written blob.
+     * @param size Size of the content in bytes.
+     * @return Storage key of the blob to reference; differs from the given key if the content was already stored.
+     */
+    public Mono<String> acquireBlob(String checksum, String storageKey, long size) {
+        return databaseClient.sql(ACQUIRE_BLOB_SQL)
+                .bind("checksum", checksum)
+                .bind("storageKey", storageKey)
+                .bind("size", size)
+                .map(row -> row.get("storage_key", String.class))
+                .one();
+    }
+
+    /**
+     * Deletes resources by IDs, records a DELETE outbox event for each deleted resource
+     * and releases their blob references, all in a single statement.
+     *
+     * @param ids IDs of the resources to delete.
+     * @param now Time the deletion is recorded at.
+     * @return ID, storage key and sharing state of each deleted resource.
+     */
+    public Flux<DeletedResource> deleteAllByIdReturning(Collection<Integer> ids, Instant now) {
+        return databaseClient.sql(DELETE_SQL)
+                .bind("ids", ids.toArray(Integer[]::new))
+                .bind("now", timestamp(now))
+                .map(row -> new DeletedResource(row.get("id", Integer.class), row.get("storage_key", String.class),
+                        Boolean.TRUE.equals(row.get("shared", Boolean.class))))
+                .all();
+    }
+
+    /**
+     * Removes blobs that are no longer referenced by any resource.
+     *
+     * @param storageKeys Storage keys of the blobs whose references were released.
+     * @return Storage keys of the removed blobs, whose content can be deleted.
+     */
+    public Flux<String> deleteUnreferencedBlobs(Collection<String> storageKeys) {
+        return databaseClient.sql(DELETE_UNREFERENCED_BLOBS_SQL)
+                .bind("storageKeys", storageKeys.toArray(String[]::new))
+                .map(row -> row.get("storage_key", String.class))
+                .all();
+    }
+
+    private static OffsetDateTime timestamp(Instant instant) {
+        return instant.atOffset(ZoneOffset.UTC);
+    }
+
+    /**
+     * Resource row without its audio data.
+     *
+     * @param metadataStatus Metadata processing state, null for resources uploaded before it was tracked.
+     */
+    public record ResourceRow(int id, String storageKey, Long size, String checksum, String metadataStatus) {
+    }
+
+    /**
+     * ID, size and checksum of a resource.
+     */
+    public record ResourceSummary(int id, Long size, String checksum) {
+    }
+
+    /**
+     * ID and storage key of a deleted resource.
+     *
+     * @param shared Whether the blob is reference counted; blobs stored before deduplication belong to a single resource.
+     */
+    public record DeletedResource(int id, String storageKey, boolean shared) {
+    }
+}
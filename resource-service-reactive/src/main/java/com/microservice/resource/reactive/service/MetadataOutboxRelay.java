@@ -0,0 +1,290 @@
+package com.microservice.resource.reactive.service;
+
+import com.microservice.resource.entity.MetadataEventType;
+import com.microservice.resource.entity.MetadataStatus;
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.Gauge;
+import io.micrometer.core.instrument.MeterRegistry;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.r2dbc.core.DatabaseClient;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Component;
+import org.springframework.web.reactive.function.client.WebClientException;
+import org.springframework.web.reactive.function.client.WebClientResponseException;
+import reactor.core.publisher.Flux;
+import reactor.core.publisher.Mono;
+
+import java.time.Duration;
+import java.time.Instant;
+import java.time.OffsetDateTime;
+import java.time.ZoneOffset;
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.Comparator;
+import java.util.List;
+import java.util.concurrent.atomic.AtomicLong;
+
+/**
+ * Delivers metadata changes recorded in the outbox to Song Service.
+ * Uses the same claim protocol as the servlet implementation, so both can relay from the same outbox:
+ * events are claimed in batches under a lease and removed only after Song Service acknowledged them,
+ * which gives at-least-once delivery. Events of a resource are delivered in the order they were written;
+ * failed deliveries are retried with exponential backoff. Only an event Song Service reports as invalid is dropped;
+ * a client error for the whole request is retried and counted as resource.outbox.refused.
+ */
+@Slf4j
+@Component
+public class MetadataOutboxRelay {
+
+    // Claims due events whose resource has no older event left, pushing them out of reach for the lease
+    private static final String CLAIM_SQL = "UPDATE metadata_outbox SET next_attempt_at = :leaseEnd WHERE id IN ("
+            + "SELECT o.id FROM metadata_outbox o WHERE o.next_attempt_at <= :now AND NOT EXISTS ("
+            + "SELECT 1 FROM metadata_outbox p WHERE p.resource_id = o.resource_id AND p.id < o.id) "
+            + "ORDER BY o.id LIMIT :limit FOR UPDATE SKIP LOCKED) "
+            + "RETURNING id, resource_id, type, payload, attempts";
+    private static final String DELETE_EVENTS_SQL = "DELETE FROM metadata_outbox WHERE id = ANY (:ids)";
+    private static final String RESCHEDULE_EVENT_SQL = "UPDATE metadata_outbox "
+            + "SET attempts = :attempts, next_attempt_at = :nextAttemptAt WHERE id = :id";
+    private static final String UPDATE_STATUS_SQL = "UPDATE resources SET metadata_status = :status WHERE id = ANY (:ids)";
+    private static final String STATS_SQL = "SELECT count(*) AS pending, min(created_at) AS oldest FROM metadata_outbox";
+
+    private final DatabaseClient databaseClient;
+    private final SongServiceClient songServiceClient;
+
+    private final Counter createdCounter;
+    private final Counter deletedCounter;
+    private final Counter retriedCounter;
+    private final Counter rejectedCounter;
+    private final Counter refusedCounter;
+    private final AtomicLong pendingEvents = new AtomicLong();
+    private final AtomicLong oldestEventMillis = new AtomicLong();
+
+    @Value("${resource.outbox.batch-size:50}")
+    private int batchSize;
+
+    @Value("${resource.outbox.lease:30s}")
+    private Duration lease;
+
+    @Value("${resource.outbox.initial-backoff:1s}")
+    private Duration initialBackoff;
+
+    @Value("${resource.outbox.max-backoff:5m}")
+    private Duration maxBackoff;
+
+    public MetadataOutboxRelay(DatabaseClient databaseClient, SongServiceClient songServiceClient, MeterRegistry registry) {
+        this.databaseClient = databaseClient;
+        this.songServiceClient = songServiceClient;
+        this.createdCounter = Counter.builder("resource.outbox.delivered").tag("type", "create")
+                .description("Metadata events delivered to Song Service").register(registry);
+        this.deletedCounter = Counter.builder("resource.outbox.delivered").tag("type", "delete")
+                .description("Metadata events delivered to Song Service").register(registry);
+        this.retriedCounter = Counter.builder("resource.outbox.retried")
+                .description("Failed metadata event deliveries scheduled for retry").register(registry);
+        this.rejectedCounter = Counter.builder("resource.outbox.rejected")
+                .description("Metadata events permanently rejected by Song Service").register(registry);
+        this.refusedCounter = Counter.builder("resource.outbox.refused")
+                .description("Metadata requests refused by Song Service with a client error, whose events are retried")
+                .register(registry);
+        Gauge.builder("resource.outbox.pending", pendingEvents, AtomicLong::get)
+                .description("Metadata events waiting for delivery").register(registry);
+        Gauge.builder("resource.outbox.lag", this, MetadataOutboxRelay::lagSeconds).baseUnit("seconds")
+                .description("Age of the oldest metadata event waiting for delivery").register(registry);
+    }
+
+    /**
+     * Drains all due events in batches.
+     * The next run is scheduled once the returned publisher completes.
+     *
+     * @return Completion signal.
+     */
+    @Scheduled(fixedDelayString = "${resource.outbox.poll-interval:200ms}")
+    public Mono<Void> relay() {
+        return Mono.defer(() -> claim().flatMap(events -> deliver(events).thenReturn(events.size())))
+                .repeat()
+                .takeUntil(claimed -> claimed < batchSize)
+                .then()
+                .onErrorResume(e -> {
+                    log.error("Failed to relay metadata events: {}", e.getMessage());
+                    return Mono.empty();
+                });
+    }
+
+    /**
+     * Claims the next batch of due events for the duration of the lease.
+     *
+     * @return Claimed events in the order they were written.
+     */
+    private Mono<List<OutboxEvent>> claim() {
+        Instant now = Instant.now();
+        return databaseClient.sql(CLAIM_SQL)
+                .bind("leaseEnd", timestamp(now.plus(lease)))
+                .bind("now", timestamp(now))
+                .bind("limit", batchSize)
+                .map(row -> new OutboxEvent(row.get("id", Long.class), row.get("resource_id", Integer.class),
+                        MetadataEventType.valueOf(row.get("type", String.class)), row.get("payload", String.class),
+                        row.get("attempts", Integer.class)))
+                .all()
+                .sort(Comparator.comparingLong(OutboxEvent::id))
+                .collectList();
+    }
+
+    /**
+     * Delivers a batch of events. Creations and deletions are each sent in a single request, one after the other.
+     *
+     * @param events Claimed events.
+     * @return Completion signal.
+     */
+    private Mono<Void> deliver(List<OutboxEvent> events) {
+        List<OutboxEvent> delivered = new ArrayList<>();
+        List<OutboxEvent> creations = events.stream().filter(event -> event.type() == MetadataEventType.CREATE).toList();
+        List<OutboxEvent> deletions = events.stream().filter(event -> event.type() == MetadataEventType.DELETE).toList();
+
+        Mono<Void> sendCreations = creations.isEmpty() ? Mono.empty() : songServiceClient
+                .sendMetadata(creations.stream().map(OutboxEvent::payload).toList())
+                .flatMap(results -> {
+                    List<Mono<Void>> rejections = new ArrayList<>();
+                    for (int i = 0; i < creations.size(); i++) {
+                        // Metadata Song Service already holds was delivered by an earlier attempt
+                        if ("INVALID".equals(results.get(i))) {
+                            rejections.add(reject(creations.get(i), "invalid metadata"));
+                        } else {
+                            delivered.add(creations.get(i));
+                            createdCounter.increment();
+                        }
+                    }
+                    return Flux.concat(rejections).then();
+                })
+                .onErrorResume(WebClientException.class, e -> failed(creations, e));
+
+        Mono<Void> sendDeletions = deletions.isEmpty() ? Mono.empty() : songServiceClient
+                .deleteMetadata(deletions.stream().map(OutboxEvent::resourceId).toList())
+                .then(Mono.<Void>fromRunnable(() -> {
+                    delivered.addAll(deletions);
+                    deletedCounter.increment(deletions.size());
+                }))
+                .onErrorResume(WebClientException.class, e -> failed(deletions, e))
+                .then();
+
+        return sendCreations
+                .then(sendDeletions)
+                .then(Mono.defer(() -> remove(delivered)))
+                .then(Mono.defer(() -> updateStatus(delivered.stream()
+                        .filter(event -> event.type() == MetadataEventType.CREATE).toList(), MetadataStatus.DONE)));
+    }
+
+    /**
+     * Schedules the events of a failed request for another attempt. A client error refusing the whole request
+     * is a configuration or compatibility problem rather than a problem of the events, so it is reported
+     * and retried instead of dropping the events.
+     *
+     * @param events Events that could not be delivered.
+     * @param e Cause of the failure.
+     * @return Completion signal.
+     */
+    private Mono<Void> failed(List<OutboxEvent> events, WebClientException e) {
+        if (e instanceof WebClientResponseException response && response.getStatusCode().is4xxClientError()) {
+            log.error("Song Service refused a request with {} {} events ({}), retrying with backoff: {}",
+                    events.size(), events.getFirst().type(), response.getStatusCode().value(), e.getMessage());
+            refusedCounter.increment();
+        }
+        return Flux.fromIterable(events).concatMap(event -> {
+            int attempts = event.attempts() + 1;
+            Duration backoff = initialBackoff.multipliedBy(1L << Math.min(attempts - 1, 20));
+            if (backoff.compareTo(maxBackoff) > 0) {
+                backoff = maxBackoff;
+            }
+            log.warn("Failed to deliver {} event for resource {} (attempt {}), retrying in {}: {}",
+                    event.type(), event.resourceId(), attempts, backoff, e.getMessage());
+            retriedCounter.increment();
+            return databaseClient.sql(RESCHEDULE_EVENT_SQL)
+                    .bind("attempts", attempts)
+                    .bind("nextAttemptAt", timestamp(Instant.now().plus(backoff)))
+                    .bind("id", event.id())
+                    .then();
+        }).then();
+    }
+
+    /**
+     * Drops an event Song Service will never accept.
+     *
+     * @param event Rejected event.
+     * @param reason Reason given by Song Service.
+     * @return Completion signal.
+     */
+    private Mono<Void> reject(OutboxEvent event, String reason) {
+        log.error("Song Service rejected {} event for resource {}: {}", event.type(), event.resourceId(), reason);
+        rejectedCounter.increment();
+        return remove(List.of(event))
+                .then(event.type() == MetadataEventType.CREATE
+                        ? updateStatus(List.of(event), MetadataStatus.FAILED) : Mono.empty());
+    }
+
+    /**
+     * Removes events from the outbox.
+     *
+     * @param events Events to remove.
+     * @return Completion signal.
+     */
+    private Mono<Void> remove(Collection<OutboxEvent> events) {
+        if (events.isEmpty()) return Mono.empty();
+
+        return databaseClient.sql(DELETE_EVENTS_SQL)
+                .bind("ids", events.stream().map(OutboxEvent::id).toArray(Long[]::new))
+                .then();
+    }
+
+    /**
+     * Records the metadata state of the resources the events belong to.
+     *
+     * @param events Events of the resources to update.
+     * @param status New metadata state.
+     * @return Completion signal.
+     */
+    private Mono<Void> updateStatus(Collection<OutboxEvent> events, MetadataStatus status) {
+        if (events.isEmpty()) return Mono.empty();
+
+        return databaseClient.sql(UPDATE_STATUS_SQL)
+                .bind("status", status.name())
+                .bind("ids", events.stream().map(OutboxEvent::resourceId).toArray(Integer[]::new))
+                .then();
+    }
+
+    /**
+     * Refreshes the number of pending events and the age of the oldest one. Counting scans the whole outbox,
+     * which is largest while Song Service is unavailable, so this runs far less often than the relay.
+     *
+     * @return Completion signal.
+     */
+    @Scheduled(fixedDelayString = "${resource.outbox.stats-interval:15s}")
+    public Mono<Void> refreshStats() {
+        return databaseClient.sql(STATS_SQL)
+                .map(row -> {
+                    pendingEvents.set(row.get("pending", Long.class));
+                    OffsetDateTime oldest = row.get("oldest", OffsetDateTime.class);
+                    oldestEventMillis.set(oldest == null ? 0 : oldest.toInstant().toEpochMilli());
+                    return oldestEventMillis.get();
+                })
+                .one()
+                .then()
+                .onErrorResume(e -> {
+                    log.warn("Failed to read metadata outbox statistics: {}", e.getMessage());
+                    return Mono.empty();
+                });
+    }
+
+    private double lagSeconds() {
+        long oldest = oldestEventMillis.get();
+        return oldest == 0 ? 0 : Math.max(0, System.currentTimeMillis() - oldest) / 1000.0;
+    }
+
+    private static OffsetDateTime timestamp(Instant instant) {
+        return instant.atOffset(ZoneOffset.UTC);
+    }
+
+    /**
+     * Claimed outbox row.
+     */
+    private record OutboxEvent(long id, int resourceId, MetadataEventType type, String payload, int attempts) {
+    }
+}
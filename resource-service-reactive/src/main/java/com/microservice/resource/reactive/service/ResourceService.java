@@ -0,0 +1,356 @@
+package com.microservice.resource.reactive.service;
+
+import com.microservice.resource.dto.DeleteResourcesResponseDto;
+import com.microservice.resource.dto.MetadataStatusResponseDto;
+import com.microservice.resource.dto.ResourceIdResponseDto;
+import com.microservice.resource.dto.ResourceListResponseDto;
+import com.microservice.resource.dto.ResourceSummaryDto;
+import com.microservice.resource.entity.MetadataEventType;
+import com.microservice.resource.entity.MetadataStatus;
+import com.microservice.resource.exception.InvalidRequestException;
+import com.microservice.resource.exception.ResourceNotFoundException;
+import com.microservice.resource.reactive.repository.ResourceRepository;
+import com.microservice.resource.reactive.repository.ResourceRepository.DeletedResource;
+import com.microservice.resource.reactive.storage.FileSystemBlobStore;
+import com.microservice.resource.service.Mp3MetadataExtractor;
+import com.microservice.resource.service.Mp3StreamParser;
+import com.microservice.resource.storage.StoredBlob;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.core.io.buffer.DataBuffer;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.reactive.TransactionalOperator;
+import reactor.core.publisher.Flux;
+import reactor.core.publisher.Mono;
+import tools.jackson.databind.json.JsonMapper;
+
+import java.nio.ByteBuffer;
+import java.nio.file.Path;
+import java.time.Instant;
+import java.util.Arrays;
+import java.util.LinkedHashSet;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.stream.Collectors;
+import java.util.stream.Stream;
+
+/**
+ * Non-blocking service for handling MP3 resource CRUD operations.
+ * Mirrors the servlet implementation's service, including its validation rules and error messages.
+ */
+@Service
+public class ResourceService {
+
+    // Size of the scratch buffer used to feed direct buffers to the MP3 parser
+    private static final int PARSE_BUFFER_SIZE = 8192;
+
+    private final ResourceRepository repository;
+    private final Mp3MetadataExtractor metadataExtractor;
+    private final FileSystemBlobStore blobStore;
+    private final TransactionalOperator transactionalOperator;
+    private final JsonMapper jsonMapper;
+
+    @Value("${resource.list.default-limit:100}")
+    private int defaultListLimit;
+
+    @Value("${resource.list.max-limit:1000}")
+    private int maxListLimit;
+
+    public ResourceService(ResourceRepository repository,
+                           Mp3MetadataExtractor metadataExtractor,
+                           FileSystemBlobStore blobStore,
+                           TransactionalOperator transactionalOperator,
+                           JsonMapper jsonMapper) {
+        this.repository = repository;
+        this.metadataExtractor = metadataExtractor;
+        this.blobStore = blobStore;
+        this.transactionalOperator = transactionalOperator;
+        this.jsonMapper = jsonMapper;
+    }
+
+    /**
+     * Uploads an MP3 file, extracts metadata, and stores it.
+     * Each buffer of the request body is parsed for metadata and written to the blob store as it arrives,
+     * and the body is read no faster than it can be written, so memory use per upload is bounded
+     * by the buffers in flight rather than the file size.
+     * Content that is already stored is shared with the existing resources instead of being kept twice.
+     * The metadata is written to the outbox in the same transaction as the resource and delivered
+     * to Song Service by {@link MetadataOutboxRelay}.
+     *
+     * @param audioData Binary MP3 data.
+     * @return DTO containing the ID of the created resource.
+     */
+    public Mono<ResourceIdResponseDto> uploadResource(Flux<DataBuffer> audioData) {
+        return Mono.defer(() -> {
+            Mp3StreamParser parser = new Mp3StreamParser();
+            byte[] scratch = new byte[PARSE_BUFFER_SIZE];
+            return blobStore.put(audioData.doOnNext(buffer -> parse(parser, buffer, scratch)))
+                    .flatMap(blob -> {
+                        if (blob.size() == 0) {
+                            return blobStore.delete(blob.key())
+                                    .then(Mono.error(new InvalidRequestException("MP3 file is empty")));
+                        }
+                        return save(blob, parser)
+                                .onErrorResume(e -> blobStore.delete(blob.key()).then(Mono.error(e)))
+                                .flatMap(saved -> saved.storageKey().equals(blob.key())
+                                        ? Mono.just(saved)
+                                        // The content was already stored; this copy was only needed to compute the checksum
+                                        : blobStore.delete(blob.key()).thenReturn(saved));
+                    })
+                    .map(saved -> new ResourceIdResponseDto(saved.id()));
+        });
+    }
+
+    /**
+     * Retrieves the metadata processing state of a resource.
+     *
+     * @param id Resource ID.
+     * @return DTO containing the metadata state.
+     */
+    public Mono<MetadataStatusResponseDto> getMetadataStatus(String id) {
+        return Mono.fromCallable(() -> validateResourceId(id))
+                .flatMap(repository::findById)
+                // Resources uploaded before the state was tracked were propagated synchronously
+                .map(resource -> new MetadataStatusResponseDto(resource.id(),
+                        resource.metadataStatus() == null ? MetadataStatus.DONE.name() : resource.metadataStatus()))
+                .switchIfEmpty(Mono.error(() -> new ResourceNotFoundException("Resource with ID=" + id + " not found")));
+    }
+
+    /**
+     * Lists resources in ID order using keyset pagination, so every page costs one index range scan
+     * regardless of its depth. Only ID, size and checksum are read.
+     *
+     * @param cursor ID after which the page starts, or null for the first page.
+     * @param limit Maximum number of resources, or null for the default page size.
+     * @return DTO containing the page and the cursor of the next page.
+     */
+    public Mono<ResourceListResponseDto> listResources(String cursor, String limit) {
+        return Mono.defer(() -> {
+            int validatedCursor = parseListParameter("cursor", cursor, 0, 0, Integer.MAX_VALUE);
+            int validatedLimit = parseListParameter("limit", limit, defaultListLimit, 1, maxListLimit);
+
+            return repository.findByIdGreaterThanOrderById(validatedCursor, validatedLimit)
+                    .map(r -> new ResourceSummaryDto(r.id(), r.size(), r.checksum()))
+                    .collectList()
+                    .map(resources -> new ResourceListResponseDto(resources,
+                            resources.size() < validatedLimit ? null : resources.getLast().getId()));
+        });
+    }
+
+    /**
+     * Retrieves the audio file of a resource. Only the resource row is read; the file is streamed
+     * to the client when the response is written.
+     *
+     * @param id Resource ID.
+     * @return Description of the stored MP3 file.
+     */
+    public Mono<AudioFile> getResourceById(String id) {
+        return Mono.fromCallable(() -> validateResourceId(id))
+                .flatMap(repository::findById)
+                .map(resource -> new AudioFile(resource.id(), resource.checksum(), blobStore.path(resource.storageKey())))
+                .switchIfEmpty(Mono.error(() -> new ResourceNotFoundException("Resource with ID=" + id + " not found")));
+    }
+
+    /**
+     * Deletes resources by IDs.
+     * The rows are removed, their metadata deletion queued and their blob references released
+     * with a constant number of SQL statements, regardless of the number of IDs.
+     * Blobs are deleted from the blob store once their last reference is gone.
+     *
+     * @param resourceIds Comma-separated string of resource IDs to delete.
+     * @return DTO containing the IDs of successfully deleted resources.
+     */
+    public Mono<DeleteResourcesResponseDto> deleteResources(String resourceIds) {
+        return Mono.defer(() -> {
+            validateCsvLength(resourceIds);
+            List<Integer> ids = parseCsvIds(resourceIds);
+
+            // One statement removes the rows, queues their Song Service deletion and releases their blobs
+            Mono<DeleteResult> deletion = repository.deleteAllByIdReturning(new LinkedHashSet<>(ids), Instant.now())
+                    .collectList()
+                    .flatMap(rows -> {
+                        Set<String> released = rows.stream().filter(DeletedResource::shared)
+                                .map(DeletedResource::storageKey).collect(Collectors.toSet());
+                        // Blobs stored before deduplication belong to a single resource
+                        List<String> unshared = rows.stream().filter(row -> !row.shared())
+                                .map(DeletedResource::storageKey).toList();
+                        Mono<List<String>> unreferenced = released.isEmpty() ? Mono.just(List.of())
+                                : repository.deleteUnreferencedBlobs(released).collectList();
+                        return unreferenced.map(keys -> new DeleteResult(rows,
+                                Stream.concat(keys.stream(), unshared.stream()).toList()));
+                    })
+                    .as(transactionalOperator::transactional);
+
+            return deletion.flatMap(result -> Flux.fromIterable(result.unreferencedKeys())
+                    .concatMap(blobStore::delete)
+                    .then(Mono.fromSupplier(() -> {
+                        Set<Integer> deletedIdSet = result.rows().stream().map(DeletedResource::id)
+                                .collect(Collectors.toSet());
+                        return new DeleteResourcesResponseDto(ids.stream().distinct()
+                                .filter(deletedIdSet::contains).toList());
+                    })));
+        });
+    }
+
+    /**
+     * Saves the resource and its metadata event to the database in one transaction,
+     * sharing the blob of identical content.
+     *
+     * @param blob Newly written blob.
+     * @param parser Parser that has been fed the complete MP3 data.
+     * @return ID of the new resource and the storage key it references.
+     */
+    private Mono<SavedResource> save(StoredBlob blob, Mp3StreamParser parser) {
+        return repository.acquireBlob(blob.checksum(), blob.key(), blob.size())
+                .flatMap(storageKey -> repository.insert(storageKey, blob.size(), blob.checksum(), MetadataStatus.PENDING)
+                        .flatMap(id -> {
+                            Map<String, String> metadata = metadataExtractor.extractMetadata(id, parser);
+                            Mono<Void> recorded = metadata.isEmpty()
+                                    ? repository.updateStatus(id, MetadataStatus.FAILED)
+                                    : repository.insertEvent(id, MetadataEventType.CREATE, jsonMapper.writeValueAsString(metadata));
+                            return recorded.thenReturn(new SavedResource(id, storageKey));
+                        }))
+                .as(transactionalOperator::transactional);
+    }
+
+    /**
+     * Feeds the readable bytes of a buffer to the MP3 parser without consuming them.
+     *
+     * @param parser Parser of the uploaded file.
+     * @param buffer Buffer of the request body.
+     * @param scratch Buffer used to copy bytes that are not backed by an accessible array.
+     */
+    private void parse(Mp3StreamParser parser, DataBuffer buffer, byte[] scratch) {
+        try (DataBuffer.ByteBufferIterator iterator = buffer.readableByteBuffers()) {
+            while (iterator.hasNext()) {
+                ByteBuffer chunk = iterator.next();
+                if (chunk.hasArray()) {
+                    parser.update(chunk.array(), chunk.arrayOffset() + chunk.position(), chunk.remaining());
+                    continue;
+                }
+                while (chunk.hasRemaining()) {
+                    int length = Math.min(chunk.remaining(), scratch.length);
+                    chunk.get(scratch, 0, length);
+                    parser.update(scratch, 0, length);
+                }
+            }
+        }
+    }
+
+    /**
+     * Validates if the CSV string length is within acceptable limits.
+     *
+     * @param resourceIds CSV string of IDs.
+     * @throws InvalidRequestException if CSV string is too long.
+     */
+    private void validateCsvLength(String resourceIds) {
+        if (resourceIds == null || resourceIds.isEmpty()) {
+            throw new InvalidRequestException("CSV string cannot be empty");
+        }
+        if (resourceIds.length() > 200) {
+            throw new InvalidRequestException("CSV string is too long: received " + resourceIds.length() + " characters, maximum allowed is 200");
+        }
+    }
+
+    /**
+     * Parses comma-separated string of IDs into a list of Longs.
+     *
+     * @param resourceIds CSV string of IDs.
+     * @return List of parsed IDs.
+     * @throws InvalidRequestException if IDs cannot be parsed.
+     */
+    private List<Integer> parseCsvIds(String resourceIds) {
+        List<String> stringIds = Arrays.stream(resourceIds.split(","))
+                .map(String::trim)
+                .toList();
+
+        try {
+            return stringIds.stream()
+                    .peek(this::validateCsvFormat)
+                    .map(Integer::parseInt)
+                    .toList();
+        } catch (NumberFormatException e) {
+            throw new InvalidRequestException("Invalid IDs in the provided CSV string");
+        }
+    }
+
+    /**
+     * Validates CSV format.
+     *
+     * @param resourceIds CSV string of IDs.
+     * @throws InvalidRequestException if CSV format is invalid.
+     */
+    private void validateCsvFormat(String resourceIds) {
+        if (!resourceIds.matches("^\\d+(?:,\\s*\\d+)*$")) {
+            throw new InvalidRequestException("Invalid ID format: '" + resourceIds + "'. Only positive integers are allowed");
+        }
+    }
+
+    /**
+     * Parses an optional integer query parameter of the listing endpoint.
+     *
+     * @param name Parameter name.
+     * @param value Parameter value, or null if absent.
+     * @param defaultValue Value used when the parameter is absent.
+     * @param min Smallest allowed value.
+     * @param max Largest allowed value.
+     * @return Parsed value.
+     * @throws InvalidRequestException if the value is not an integer within bounds.
+     */
+    private int parseListParameter(String name, String value, int defaultValue, int min, int max) {
+        if (value == null) {
+            return defaultValue;
+        }
+        try {
+            int parsed = Integer.parseInt(value);
+            if (parsed >= min && parsed <= max) {
+                return parsed;
+            }
+        } catch (NumberFormatException e) {
+            // Reported below
+        }
+        throw new InvalidRequestException("Invalid value '" + value + "' for " + name
+                + ". Must be an integer between " + min + " and " + max);
+    }
+
+    /**
+     * Validates if the provided ID is a positive number.
+     *
+     * @param id Resource ID to validate.
+     * @throws InvalidRequestException if ID is invalid.
+     */
+    private int validateResourceId(String id) {
+        int parsedId;
+        try {
+            parsedId = Integer.parseInt(id);
+            if (parsedId <= 0) {
+                throw new InvalidRequestException("Invalid value '" + id + "' for ID. Must be a positive integer");
+            }
+            return parsedId;
+        } catch (NumberFormatException e) {
+            throw new InvalidRequestException("Invalid value '" + id + "' for ID. Must be a positive integer");
+        }
+    }
+
+    /**
+     * Audio file of a resource.
+     *
+     * @param id Resource ID.
+     * @param checksum Hex-encoded SHA-256 checksum of the audio data.
+     * @param file Path of the blob file.
+     */
+    public record AudioFile(int id, String checksum, Path file) {
+    }
+
+    /**
+     * Saved resource and the storage key of the blob it references.
+     */
+    private record SavedResource(int id, String storageKey) {
+    }
+
+    /**
+     * Rows removed by a deletion and the blobs left without references.
+     */
+    private record DeleteResult(List<DeletedResource> rows, List<String> unreferencedKeys) {
+    }
+}
@@ -0,0 +1,117 @@
+package com.microservice.resource.reactive.service;
+
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.http.MediaType;
+import org.springframework.stereotype.Service;
+import org.springframework.web.reactive.function.client.WebClient;
+import org.springframework.web.reactive.function.client.WebClientException;
+import reactor.core.publisher.Flux;
+import reactor.core.publisher.Mono;
+
+import java.util.ArrayList;
+import java.util.List;
+
+/**
+ * Non-blocking client for communicating with Song Service to save MP3 metadata.
+ * Failures are reported to the caller as {@link WebClientException} so that delivery can be retried;
+ * both operations are idempotent.
+ */
+@Slf4j
+@Service
+public class SongServiceClient {
+
+    // Song Service rejects longer CSV strings
+    private static final int MAX_CSV_LENGTH = 200;
+
+    private final WebClient webClient;
+
+    public SongServiceClient(WebClient songServiceWebClient) {
+        this.webClient = songServiceWebClient;
+    }
+
+    /**
+     * Sends extracted MP3 metadata of several resources to Song Service in a single batch request.
+     *
+     * @param metadataJson JSON objects of extracted metadata.
+     * @return Outcome of each item, in order: CREATED, CONFLICT if Song Service already holds it, or INVALID.
+     */
+    public Mono<List<String>> sendMetadata(List<String> metadataJson) {
+        // The payloads are already serialized, so the array is assembled as text
+        String body = "[" + String.join(",", metadataJson) + "]";
+        return webClient.post()
+                .uri("/songs/batch")
+                .contentType(MediaType.APPLICATION_JSON)
+                .bodyValue(body)
+                .retrieve()
+                .bodyToMono(BatchResponse.class)
+                .flatMap(response -> {
+                    if (response.results() == null || response.results().size() != metadataJson.size()) {
+                        return Mono.error(new UnexpectedResponseException("Unexpected batch response from Song Service"));
+                    }
+                    log.info("Metadata of {} resources sent to Song Service", metadataJson.size());
+                    return Mono.just(response.results().stream().map(BatchItemResult::status).toList());
+                })
+                .switchIfEmpty(Mono.error(new UnexpectedResponseException("Empty batch response from Song Service")));
+    }
+
+    /**
+     * Deletes metadata from Song Service by resource IDs.
+     * IDs are sent in as few requests as the Song Service CSV limit allows, one request at a time.
+     *
+     * @param ids The IDs of the metadata to delete.
+     * @return Completion signal.
+     */
+    public Mono<Void> deleteMetadata(List<Integer> ids) {
+        List<String> chunks = new ArrayList<>();
+        StringBuilder csv = new StringBuilder();
+        for (Integer id : ids) {
+            String value = String.valueOf(id);
+            if (!csv.isEmpty() && csv.length() + 1 + value.length() > MAX_CSV_LENGTH) {
+                chunks.add(csv.toString());
+                csv.setLength(0);
+            }
+            if (!csv.isEmpty()) csv.append(',');
+            csv.append(value);
+        }
+        if (!csv.isEmpty()) {
+            chunks.add(csv.toString());
+        }
+        return Flux.fromIterable(chunks).concatMap(this::delete).then();
+    }
+
+    /**
+     * Sends a single delete request.
+     *
+     * @param csv Comma-separated IDs within the Song Service length limit.
+     * @return Completion signal.
+     */
+    private Mono<Void> delete(String csv) {
+        return webClient.delete()
+                .uri(uriBuilder -> uriBuilder.path("/songs").queryParam("id", csv).build())
+                .retrieve()
+                .toBodilessEntity()
+                .doOnSuccess(response -> log.info("Metadata with ID={} successfully deleted from Song Service", csv))
+                .then();
+    }
+
+    /**
+     * Song Service answered with a body that does not match the request.
+     */
+    static class UnexpectedResponseException extends WebClientException {
+        UnexpectedResponseException(String message) {
+            super(message);
+        }
+    }
+
+    /**
+     * Body of a Song Service batch response.
+     */
+    record BatchResponse(List<BatchItemResult> results) {
+    }
+
+    /**
+     * Outcome of a single item of a Song Service batch request.
+     */
+    record BatchItemResult(int id, String status) {
+    }
+}
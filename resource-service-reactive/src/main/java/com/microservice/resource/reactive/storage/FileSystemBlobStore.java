@@ -0,0 +1,144 @@
+package com.microservice.resource.reactive.storage;
+
+import com.microservice.resource.storage.StoredBlob;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.core.io.buffer.DataBuffer;
+import org.springframework.core.io.buffer.DataBufferUtils;
+import org.springframework.stereotype.Component;
+import reactor.core.publisher.Flux;
+import reactor.core.publisher.Mono;
+import reactor.core.scheduler.Schedulers;
+
+import java.io.IOException;
+import java.io.UncheckedIOException;
+import java.nio.channels.FileChannel;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.Paths;
+import java.nio.file.StandardOpenOption;
+import java.security.MessageDigest;
+import java.security.NoSuchAlgorithmException;
+import java.util.HexFormat;
+import java.util.UUID;
+import java.util.regex.Pattern;
+
+/**
+ * Non-blocking access to blobs kept as files on the local filesystem.
+ * Uses the same layout as the servlet implementation's file system blob store, so both can serve the same blobs:
+ * files are sharded into sub-directories by the first two characters of their key.
+ * Data is written with asynchronous file channels; directory creation, fsync and deletion run on the
+ * bounded elastic scheduler so they never block an event-loop thread.
+ */
+@Slf4j
+@Component
+public class FileSystemBlobStore {
+
+    private static final Pattern KEY_PATTERN = Pattern.compile("^[0-9a-f]{32}$");
+
+    private final Path root;
+    private final boolean fsync;
+
+    public FileSystemBlobStore(@Value("${resource.storage.filesystem.root:data/blobs}") String root,
+                               @Value("${resource.storage.filesystem.fsync:true}") boolean fsync) throws IOException {
+        this.root = Paths.get(root).toAbsolutePath().normalize();
+        this.fsync = fsync;
+        Files.createDirectories(this.root);
+    }
+
+    /**
+     * Writes a stream of buffers to a new blob chunk by chunk, computing its size and SHA-256 checksum.
+     * Each buffer is released once written, so memory use is bounded by the buffers in flight.
+     * The partially written blob is removed if writing fails or is cancelled.
+     *
+     * @param data Blob content.
+     * @return Description of the stored blob.
+     */
+    public Mono<StoredBlob> put(Flux<DataBuffer> data) {
+        return Mono.defer(() -> {
+            String key = UUID.randomUUID().toString().replace("-", "");
+            Path path = resolve(key);
+            MessageDigest digest = sha256();
+            long[] size = new long[1];
+
+            Flux<DataBuffer> digested = data.doOnNext(buffer -> {
+                size[0] += buffer.readableByteCount();
+                try (DataBuffer.ByteBufferIterator iterator = buffer.readableByteBuffers()) {
+                    while (iterator.hasNext()) {
+                        digest.update(iterator.next());
+                    }
+                }
+            });
+            return Mono.fromCallable(() -> Files.createDirectories(path.getParent()))
+                    .subscribeOn(Schedulers.boundedElastic())
+                    .then(DataBufferUtils.write(digested, path, StandardOpenOption.CREATE_NEW, StandardOpenOption.WRITE))
+                    .then(fsync ? force(path) : Mono.empty())
+                    .then(Mono.fromSupplier(() -> new StoredBlob(key, size[0], HexFormat.of().formatHex(digest.digest()))))
+                    .onErrorResume(e -> delete(key).then(Mono.error(e)))
+                    .doOnCancel(() -> delete(key).subscribe());
+        });
+    }
+
+    /**
+     * Resolves the file of an existing blob, for transfer to the client with zero-copy where supported.
+     *
+     * @param key Storage key of the blob.
+     * @return Absolute path of the blob file.
+     */
+    public Path path(String key) {
+        return resolve(key);
+    }
+
+    /**
+     * Deletes a blob, logging instead of failing if it cannot be removed. Does nothing if the blob does not exist.
+     *
+     * @param key Storage key of the blob.
+     * @return Completion signal.
+     */
+    public Mono<Void> delete(String key) {
+        if (key == null) return Mono.empty();
+
+        return Mono.fromCallable(() -> Files.deleteIfExists(resolve(key)))
+                .subscribeOn(Schedulers.boundedElastic())
+                .doOnError(e -> log.warn("Failed to delete blob {}: {}", key, e.getMessage()))
+                .onErrorComplete()
+                .then();
+    }
+
+    /**
+     * Flushes a written blob to disk, so it is durable before its key is recorded in the database.
+     *
+     * @param path Path of the blob file.
+     * @return Completion signal.
+     */
+    private Mono<Void> force(Path path) {
+        return Mono.<Void>fromRunnable(() -> {
+            try (FileChannel channel = FileChannel.open(path, StandardOpenOption.WRITE)) {
+                channel.force(true);
+            } catch (IOException e) {
+                throw new UncheckedIOException(e);
+            }
+        }).subscribeOn(Schedulers.boundedElastic());
+    }
+
+    /**
+     * Resolves the file path of a blob.
+     *
+     * @param key Storage key of the blob.
+     * @return Absolute path of the blob file.
+     */
+    private Path resolve(String key) {
+        if (key == null || !KEY_PATTERN.matcher(key).matches()) {
+            throw new IllegalArgumentException("Invalid storage key: " + key);
+        }
+        return root.resolve(key.substring(0, 2)).resolve(key);
+    }
+
+    private static MessageDigest sha256() {
+        try {
+            return MessageDigest.getInstance("SHA-256");
+        } catch (NoSuchAlgorithmException e) {
+            throw new IllegalStateException("SHA-256 is not available", e);
+        }
+    }
+}
@@ -1,18 +1,104 @@
 package com.microservice.resource.config;
 
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.binder.httpcomponents.hc5.PoolingHttpClientConnectionManagerMetricsBinder;
+import org.apache.hc.client5.http.config.ConnectionConfig;
+import org.apache.hc.client5.http.config.RequestConfig;
+import org.apache.hc.client5.http.impl.classic.CloseableHttpClient;
+import org.apache.hc.client5.http.impl.classic.HttpClients;
+import org.apache.hc.client5.http.impl.io.PoolingHttpClientConnectionManager;
+import org.apache.hc.client5.http.impl.io.PoolingHttpClientConnectionManagerBuilder;
+import org.apache.hc.core5.util.TimeValue;
+import org.apache.hc.core5.util.Timeout;
+import org.springframework.beans.factory.annotation.Value;
 import org.springframework.context.annotation.Bean;
 import org.springframework.context.annotation.Configuration;
+import org.springframework.http.client.HttpComponentsClientHttpRequestFactory;
+import org.springframework.scheduling.annotation.EnableScheduling;
 import org.springframework.web.client.RestTemplate;
 
+import java.time.Duration;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+
 /**
  * Configuration for Spring application.
  */
 @Configuration
+@EnableScheduling
 public class AppConfig {
 
     @Bean
-    public RestTemplate restTemplate() {
-        return new RestTemplate();
+    public RestTemplate restTemplate(CloseableHttpClient songServiceHttpClient) {
+        return new RestTemplate(new HttpComponentsClientHttpRequestFactory(songServiceHttpClient));
+    }
+
+    /**
+     * Connection pool for calls to Song Service. Pool usage is published as
+     * {@code httpcomponents.httpclient.pool.*} metrics.
+     *
+     * @param maxConnections Maximum number of open connections.
+     * @param maxConnectionsPerRoute Maximum number of open connections to a single host.
+     * @param connectTimeout Time allowed to establish a TCP connection.
+     * @param validateAfterInactivity Idle time after which a pooled connection is checked before reuse.
+     * @param registry Registry the pool metrics are bound to.
+     * @return Pooling connection manager.
+     */
+    @Bean(destroyMethod = "close")
+    public PoolingHttpClientConnectionManager songServiceConnectionManager(
+            @Value("${song-service.http.max-connections:50}") int maxConnections,
+            @Value("${song-service.http.max-connections-per-route:50}") int maxConnectionsPerRoute,
+            @Value("${song-service.http.connect-timeout:2s}") Duration connectTimeout,
+            @Value("${song-service.http.validate-after-inactivity:2s}") Duration validateAfterInactivity,
+            MeterRegistry registry) {
+        PoolingHttpClientConnectionManager connectionManager = PoolingHttpClientConnectionManagerBuilder.create()
+                .setMaxConnTotal(maxConnections)
+                .setMaxConnPerRoute(maxConnectionsPerRoute)
+                .setDefaultConnectionConfig(ConnectionConfig.custom()
+                        .setConnectTimeout(Timeout.of(connectTimeout))
+                        .setValidateAfterInactivity(TimeValue.of(validateAfterInactivity))
+                        .build())
+                .build();
+        new PoolingHttpClientConnectionManagerMetricsBinder(connectionManager, "song-service").bindTo(registry);
+        return connectionManager;
     }
-}
 
+    /**
+     * HTTP client for calls to Song Service, keeping connections alive between requests.
+     *
+     * @param connectionManager Pool the connections are leased from.
+     * @param connectionRequestTimeout Time allowed to wait for a connection from an exhausted pool.
+     * @param responseTimeout Time allowed between packets of a response.
+     * @param keepAlive Time an idle connection is kept when the server does not specify one; idle connections are evicted after it.
+     * @return HTTP client.
+     */
+    @Bean(destroyMethod = "close")
+    public CloseableHttpClient songServiceHttpClient(
+            PoolingHttpClientConnectionManager connectionManager,
+            @Value("${song-service.http.connection-request-timeout:2s}") Duration connectionRequestTimeout,
+            @Value("${song-service.http.response-timeout:5s}") Duration responseTimeout,
+            @Value("${song-service.http.keep-alive:30s}") Duration keepAlive) {
+        return HttpClients.custom()
+                .setConnectionManager(connectionManager)
+                .setDefaultRequestConfig(RequestConfig.custom()
+                        .setConnectionRequestTimeout(Timeout.of(connectionRequestTimeout))
+                        .setResponseTimeout(Timeout.of(responseTimeout))
+                        .setConnectionKeepAlive(TimeValue.of(keepAlive))
+                        .build())
+                .evictIdleConnections(TimeValue.of(keepAlive))
+                .build();
+    }
+
+    /**
+     * Worker pool storing and parsing the files of bulk uploads in parallel.
+     * Its size bounds the number of files in flight, and with it the heap used for upload buffers.
+     *
+     * @param parallelism Number of workers; 0 uses one worker per available processor.
+     * @return Fixed-size executor.
+     */
+    @Bean(destroyMethod = "shutdown")
+    public ExecutorService bulkUploadExecutor(@Value("${resource.bulk.parallelism:0}") int parallelism) {
+        int threads = parallelism > 0 ? parallelism : Runtime.getRuntime().availableProcessors();
+        return Executors.newFixedThreadPool(threads, Thread.ofPlatform().name("bulk-upload-", 0).factory());
+    }
+}
@@ -0,0 +1,165 @@
+package com.microservice.resource.config;
+
+import com.microservice.resource.entity.MetadataEventType;
+import com.microservice.resource.entity.MetadataOutboxEvent;
+import com.microservice.resource.entity.MetadataStatus;
+import com.microservice.resource.entity.Resource;
+import com.microservice.resource.repository.BlobRepository;
+import com.microservice.resource.repository.MetadataOutboxRepository;
+import com.microservice.resource.repository.ResourceRepository;
+import com.microservice.resource.service.Mp3MetadataExtractor;
+import com.microservice.resource.storage.BlobStore;
+import com.microservice.resource.storage.StoredBlob;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.ApplicationArguments;
+import org.springframework.boot.ApplicationRunner;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.core.Ordered;
+import org.springframework.core.annotation.Order;
+import org.springframework.data.domain.Limit;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.support.TransactionTemplate;
+import tools.jackson.databind.json.JsonMapper;
+
+import javax.sql.DataSource;
+import java.io.ByteArrayInputStream;
+import java.io.ByteArrayOutputStream;
+import java.io.IOException;
+import java.nio.charset.StandardCharsets;
+import java.sql.Connection;
+import java.sql.SQLException;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Map;
+
+/**
+ * Exercises the upload and download paths on startup, so the first requests after a scale-out
+ * do not pay for class loading, JIT compilation and opening database connections.
+ * The upload path is run against the blob store and the database without leaving a resource behind:
+ * the sample blob is deleted and the inserts are rolled back, which only uses up a resource ID.
+ * Runs after the other startup runners; the readiness state only switches to ACCEPTING_TRAFFIC once
+ * all runners have completed, so instances behind /actuator/health/readiness receive traffic warm.
+ */
+@Slf4j
+@Component
+@Order(Ordered.LOWEST_PRECEDENCE)
+@ConditionalOnProperty(name = "resource.warmup.enabled", havingValue = "true", matchIfMissing = true)
+public class StartupWarmup implements ApplicationRunner {
+
+    // MPEG-1 Layer III, 128 kbit/s, 44.1 kHz frame header; the frame body is silence
+    private static final byte[] FRAME_HEADER = {(byte) 0xFF, (byte) 0xFB, (byte) 0x90, (byte) 0x44};
+    private static final int FRAME_LENGTH = 417;
+    private static final int FRAME_COUNT = 64;
+
+    private final Mp3MetadataExtractor metadataExtractor;
+    private final ResourceRepository repository;
+    private final BlobRepository blobRepository;
+    private final MetadataOutboxRepository outboxRepository;
+    private final BlobStore blobStore;
+    private final TransactionTemplate transactionTemplate;
+    private final DataSource dataSource;
+    private final JsonMapper jsonMapper;
+
+    @Value("${resource.upload.buffer-size:65536}")
+    private int uploadBufferSize;
+
+    @Value("${resource.warmup.iterations:200}")
+    private int iterations;
+
+    @Value("${resource.warmup.connections:10}")
+    private int connections;
+
+    public StartupWarmup(Mp3MetadataExtractor metadataExtractor,
+                         ResourceRepository repository,
+                         BlobRepository blobRepository,
+                         MetadataOutboxRepository outboxRepository,
+                         BlobStore blobStore,
+                         TransactionTemplate transactionTemplate,
+                         DataSource dataSource,
+                         JsonMapper jsonMapper) {
+        this.metadataExtractor = metadataExtractor;
+        this.repository = repository;
+        this.blobRepository = blobRepository;
+        this.outboxRepository = outboxRepository;
+        this.blobStore = blobStore;
+        this.transactionTemplate = transactionTemplate;
+        this.dataSource = dataSource;
+        this.jsonMapper = jsonMapper;
+    }
+
+    @Override
+    public void run(ApplicationArguments args) {
+        long start = System.nanoTime();
+        try {
+            warmUp();
+            log.info("Warmed up {} database connections, {} metadata extractions and the upload path in {} ms",
+                    connections, iterations, (System.nanoTime() - start) / 1_000_000);
+        } catch (SQLException | IOException | RuntimeException e) {
+            // Only the first requests are slower without it
+            log.warn("Warm-up failed after {} ms: {}", (System.nanoTime() - start) / 1_000_000, e.getMessage());
+        }
+    }
+
+    private void warmUp() throws SQLException, IOException {
+        // Hold several connections at once so the pool opens them now rather than under the first load
+        List<Connection> opened = new ArrayList<>(connections);
+        try {
+            for (int i = 0; i < connections; i++) {
+                opened.add(dataSource.getConnection());
+            }
+        } finally {
+            for (Connection connection : opened) {
+                connection.close();
+            }
+        }
+
+        byte[] sample = sampleMp3();
+        Map<String, String> metadata = Map.of();
+        for (int i = 0; i < iterations; i++) {
+            metadata = metadataExtractor.extractMetadata(0, new ByteArrayInputStream(sample));
+            jsonMapper.writeValueAsString(metadata);
+        }
+
+        String payload = jsonMapper.writeValueAsString(metadata);
+        StoredBlob blob = blobStore.put(new ByteArrayInputStream(sample), uploadBufferSize);
+        try {
+            transactionTemplate.executeWithoutResult(status -> {
+                String storageKey = blobRepository.acquire(blob.checksum(), blob.key(), blob.size());
+                Resource saved = repository.saveAndFlush(
+                        new Resource(storageKey, blob.size(), blob.checksum(), MetadataStatus.PENDING));
+                outboxRepository.saveAndFlush(new MetadataOutboxEvent(saved.getId(), MetadataEventType.CREATE, payload));
+                status.setRollbackOnly();
+            });
+        } finally {
+            blobStore.delete(blob.key());
+        }
+
+        // Builds the Hibernate query plans used by downloads and listings
+        repository.findById(0);
+        repository.findByIdGreaterThanOrderById(0, Limit.of(1));
+    }
+
+    /**
+     * Builds a small MP3 file with an ID3v2.3 title tag followed by silent audio frames.
+     */
+    private static byte[] sampleMp3() {
+        byte[] title = "Warm-up".getBytes(StandardCharsets.ISO_8859_1);
+        int frameSize = 1 + title.length;
+        int tagSize = 10 + frameSize;
+
+        ByteArrayOutputStream out = new ByteArrayOutputStream(10 + tagSize + FRAME_COUNT * FRAME_LENGTH);
+        // Tag header; the size fits into the lowest byte of the sync-safe size
+        out.writeBytes(new byte[]{'I', 'D', '3', 3, 0, 0, 0, 0, 0, (byte) tagSize});
+        out.writeBytes("TIT2".getBytes(StandardCharsets.ISO_8859_1));
+        out.writeBytes(new byte[]{0, 0, 0, (byte) frameSize, 0, 0, 0});
+        out.writeBytes(title);
+
+        byte[] frame = new byte[FRAME_LENGTH];
+        System.arraycopy(FRAME_HEADER, 0, frame, 0, FRAME_HEADER.length);
+        for (int i = 0; i < FRAME_COUNT; i++) {
+            out.writeBytes(frame);
+        }
+        return out.toByteArray();
+    }
+}
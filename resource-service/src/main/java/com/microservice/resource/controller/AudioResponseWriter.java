@@ -0,0 +1,278 @@
+package com.microservice.resource.controller;
+
+import com.microservice.resource.dto.ResourceDataResponseDto;
+import com.microservice.resource.storage.BlobContent;
+import io.micrometer.core.instrument.DistributionSummary;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.Timer;
+import jakarta.servlet.ServletOutputStream;
+import jakarta.servlet.http.HttpServletRequest;
+import jakarta.servlet.http.HttpServletResponse;
+import org.springframework.http.CacheControl;
+import org.springframework.http.HttpHeaders;
+import org.springframework.http.HttpRange;
+import org.springframework.http.HttpStatus;
+import org.springframework.stereotype.Component;
+import org.springframework.util.MimeTypeUtils;
+import org.springframework.web.context.request.ServletWebRequest;
+
+import java.io.IOException;
+import java.nio.channels.Channels;
+import java.nio.channels.WritableByteChannel;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Path;
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Writes stored audio content to the HTTP response without copying the payload onto the heap.
+ * File-backed content is handed to the servlet container's sendfile support when the connector offers it,
+ * otherwise it is transferred from the file channel to the response channel.
+ * Byte range requests are answered with 206 Partial Content, reading only the requested slices from storage.
+ * Stored audio never changes, so responses carry the checksum as a strong ETag and may be cached as immutable.
+ * The body bytes of every response are recorded as resource.download.bytes, and the time from the start
+ * of request handling until the body is handed to the container as resource.download.first-byte.
+ */
+@Component
+public class AudioResponseWriter {
+
+    // Request attributes of Tomcat's sendfile support (see org.apache.catalina.Globals)
+    private static final String SENDFILE_SUPPORTED_ATTR = "org.apache.tomcat.sendfile.support";
+    private static final String SENDFILE_FILENAME_ATTR = "org.apache.tomcat.sendfile.filename";
+    private static final String SENDFILE_START_ATTR = "org.apache.tomcat.sendfile.start";
+    private static final String SENDFILE_END_ATTR = "org.apache.tomcat.sendfile.end";
+
+    private static final String CRLF = "\r\n";
+
+    // Shared caches may keep audio for a year without revalidating it
+    private static final String CACHE_CONTROL = CacheControl.maxAge(Duration.ofDays(365))
+            .cachePublic().immutable().getHeaderValue();
+
+    private final DistributionSummary fullBytes;
+    private final DistributionSummary partialBytes;
+    private final Timer firstByteTimer;
+
+    public AudioResponseWriter(MeterRegistry registry) {
+        this.fullBytes = DistributionSummary.builder("resource.download.bytes").tag("range", "full")
+                .baseUnit("bytes").description("Audio bytes served per download").register(registry);
+        this.partialBytes = DistributionSummary.builder("resource.download.bytes").tag("range", "partial")
+                .baseUnit("bytes").description("Audio bytes served per download").register(registry);
+        this.firstByteTimer = Timer.builder("resource.download.first-byte")
+                .description("Time from the start of handling a download until its body is handed to the container")
+                .register(registry);
+    }
+
+    /**
+     * Writes the audio content of a resource as the response body,
+     * honoring the Range and If-Range headers of the request.
+     *
+     * @param data Resource audio data to send.
+     * @param request Current HTTP request.
+     * @param response Current HTTP response.
+     * @param startNanos {@link System#nanoTime()} when handling of the request began.
+     */
+    public void write(ResourceDataResponseDto data, HttpServletRequest request, HttpServletResponse response,
+                      long startNanos) throws IOException {
+        long size = data.getSize();
+        String etag = data.getChecksum() != null ? "\"" + data.getChecksum() + "\"" : null;
+
+        response.setHeader(HttpHeaders.ACCEPT_RANGES, "bytes");
+        if (etag != null) {
+            response.setHeader(HttpHeaders.ETAG, etag);
+        }
+
+        List<HttpRange> ranges = requestedRanges(request, etag);
+        if (ranges.isEmpty()) {
+            response.setStatus(HttpStatus.OK.value());
+            response.setHeader(HttpHeaders.CACHE_CONTROL, CACHE_CONTROL);
+            response.setContentLengthLong(size);
+            bodyStarted(fullBytes, size, startNanos);
+            transfer(data.getContent(), 0, size, request, response);
+            return;
+        }
+
+        List<Region> regions;
+        try {
+            regions = toRegions(ranges, size);
+        } catch (IllegalArgumentException e) {
+            response.setStatus(HttpStatus.REQUESTED_RANGE_NOT_SATISFIABLE.value());
+            response.setHeader(HttpHeaders.CONTENT_RANGE, "bytes */" + size);
+            response.setContentLength(0);
+            return;
+        }
+
+        response.setStatus(HttpStatus.PARTIAL_CONTENT.value());
+        response.setHeader(HttpHeaders.CACHE_CONTROL, CACHE_CONTROL);
+        if (regions.size() == 1) {
+            Region region = regions.getFirst();
+            response.setHeader(HttpHeaders.CONTENT_RANGE, region.contentRange(size));
+            response.setContentLengthLong(region.length());
+            bodyStarted(partialBytes, region.length(), startNanos);
+            transfer(data.getContent(), region.start(), region.length(), request, response);
+        } else {
+            writeMultipart(data.getContent(), regions, size, response, startNanos);
+        }
+    }
+
+    /**
+     * Records a response body about to be sent.
+     */
+    private void bodyStarted(DistributionSummary bytes, long length, long startNanos) {
+        bytes.record(length);
+        firstByteTimer.record(System.nanoTime() - startNanos, TimeUnit.NANOSECONDS);
+    }
+
+    /**
+     * Answers a GET or HEAD request with 304 Not Modified if its If-None-Match header matches
+     * the entity tag of the content. Other methods are answered with 412 Precondition Failed if their
+     * If-Match header does not match; only the 304 response is cacheable, so only it carries Cache-Control.
+     *
+     * @param checksum Checksum of the content, or null if it is unknown.
+     * @param request Current HTTP request.
+     * @param response Current HTTP response.
+     * @return true if the response was completed as 304 Not Modified or 412 Precondition Failed.
+     */
+    public boolean notModified(String checksum, HttpServletRequest request, HttpServletResponse response) {
+        if (checksum == null || !new ServletWebRequest(request, response).checkNotModified("\"" + checksum + "\"")) {
+            return false;
+        }
+        if (response.getStatus() == HttpServletResponse.SC_NOT_MODIFIED) {
+            response.setHeader(HttpHeaders.CACHE_CONTROL, CACHE_CONTROL);
+        }
+        return true;
+    }
+
+    /**
+     * Writes the headers a GET of the full content would carry, without a body.
+     *
+     * @param size Content size in bytes.
+     * @param checksum Checksum of the content, or null if it is unknown.
+     * @param response Current HTTP response.
+     */
+    public void writeHead(long size, String checksum, HttpServletResponse response) {
+        response.setStatus(HttpStatus.OK.value());
+        response.setHeader(HttpHeaders.ACCEPT_RANGES, "bytes");
+        if (checksum != null) {
+            response.setHeader(HttpHeaders.ETAG, "\"" + checksum + "\"");
+        }
+        response.setHeader(HttpHeaders.CACHE_CONTROL, CACHE_CONTROL);
+        response.setContentLengthLong(size);
+    }
+
+    /**
+     * Determines the byte ranges to serve. A Range header that cannot be parsed, or whose If-Range
+     * validator does not match the current entity tag, is ignored and the full content is served.
+     *
+     * @return Requested ranges, or an empty list to serve the full content.
+     */
+    private List<HttpRange> requestedRanges(HttpServletRequest request, String etag) {
+        String rangeHeader = request.getHeader(HttpHeaders.RANGE);
+        if (rangeHeader == null) {
+            return List.of();
+        }
+
+        // Only strong entity tags are valid If-Range validators; dates never match as no Last-Modified is sent
+        String ifRange = request.getHeader(HttpHeaders.IF_RANGE);
+        if (ifRange != null && (etag == null || !etag.equals(ifRange.trim()))) {
+            return List.of();
+        }
+
+        try {
+            return HttpRange.parseRanges(rangeHeader);
+        } catch (IllegalArgumentException e) {
+            return List.of();
+        }
+    }
+
+    /**
+     * Resolves requested ranges against the content size.
+     *
+     * @throws IllegalArgumentException if a range is not satisfiable, or multiple ranges
+     *                                  together request more bytes than the content holds.
+     */
+    private List<Region> toRegions(List<HttpRange> ranges, long size) {
+        List<Region> regions = new ArrayList<>(ranges.size());
+        long total = 0;
+        for (HttpRange range : ranges) {
+            long start = range.getRangeStart(size);
+            long end = range.getRangeEnd(size);
+            if (start > end) {
+                throw new IllegalArgumentException("Range start exceeds range end");
+            }
+            regions.add(new Region(start, end - start + 1));
+            total += end - start + 1;
+        }
+        if (regions.size() > 1 && total > size) {
+            throw new IllegalArgumentException("Requested ranges exceed the content length");
+        }
+        return regions;
+    }
+
+    /**
+     * Writes multiple ranges as a multipart/byteranges body.
+     */
+    private void writeMultipart(BlobContent content, List<Region> regions, long size,
+                                HttpServletResponse response, long startNanos) throws IOException {
+        String boundary = MimeTypeUtils.generateMultipartBoundaryString();
+        String partContentType = response.getContentType();
+
+        List<byte[]> partHeaders = new ArrayList<>(regions.size());
+        long contentLength = 0;
+        for (Region region : regions) {
+            byte[] header = (CRLF + "--" + boundary + CRLF
+                    + HttpHeaders.CONTENT_TYPE + ": " + partContentType + CRLF
+                    + HttpHeaders.CONTENT_RANGE + ": " + region.contentRange(size) + CRLF + CRLF)
+                    .getBytes(StandardCharsets.US_ASCII);
+            partHeaders.add(header);
+            contentLength += header.length + region.length();
+        }
+        byte[] closing = (CRLF + "--" + boundary + "--" + CRLF).getBytes(StandardCharsets.US_ASCII);
+        contentLength += closing.length;
+
+        response.setContentType("multipart/byteranges; boundary=" + boundary);
+        response.setContentLengthLong(contentLength);
+        bodyStarted(partialBytes, contentLength, startNanos);
+
+        ServletOutputStream out = response.getOutputStream();
+        WritableByteChannel target = Channels.newChannel(out);
+        for (int i = 0; i < regions.size(); i++) {
+            Region region = regions.get(i);
+            out.write(partHeaders.get(i));
+            content.transferTo(region.start(), region.length(), target);
+        }
+        out.write(closing);
+    }
+
+    /**
+     * Transfers a range of the content, preferring container sendfile over an in-process channel transfer.
+     */
+    private void transfer(BlobContent content, long position, long count,
+                          HttpServletRequest request, HttpServletResponse response) throws IOException {
+        Path file = content.file();
+        if (file != null && Boolean.TRUE.equals(request.getAttribute(SENDFILE_SUPPORTED_ATTR))) {
+            // The container streams the file after the handler returns
+            request.setAttribute(SENDFILE_FILENAME_ATTR, file.toString());
+            request.setAttribute(SENDFILE_START_ATTR, position);
+            request.setAttribute(SENDFILE_END_ATTR, position + count);
+            return;
+        }
+
+        WritableByteChannel target = Channels.newChannel(response.getOutputStream());
+        content.transferTo(position, count, target);
+    }
+
+    /**
+     * Resolved byte range of the content.
+     *
+     * @param start Offset of the first byte.
+     * @param length Number of bytes.
+     */
+    private record Region(long start, long length) {
+
+        String contentRange(long size) {
+            return "bytes " + start + "-" + (start + length - 1) + "/" + size;
+        }
+    }
+}
@@ -0,0 +1,52 @@
+package com.microservice.resource.controller;
+
+import com.microservice.resource.dto.MetadataBackfillResponseDto;
+import com.microservice.resource.service.MetadataBackfillService;
+import org.springframework.http.ResponseEntity;
+import org.springframework.web.bind.annotation.*;
+
+/**
+ * Admin REST controller for re-extracting the metadata of all stored resources into Song Service.
+ */
+@RestController
+@RequestMapping("/admin/metadata-backfill")
+public class MetadataBackfillController {
+
+    private final MetadataBackfillService backfillService;
+
+    public MetadataBackfillController(MetadataBackfillService backfillService) {
+        this.backfillService = backfillService;
+    }
+
+    /**
+     * Starts the backfill job in the background, resuming the latest job from its checkpoint
+     * unless it completed or a restart is requested.
+     *
+     * @param restart Whether to start over with a new job
+     * @return ResponseEntity with the state of the job and 200 OK status
+     */
+    @PostMapping(produces = "application/json")
+    public ResponseEntity<MetadataBackfillResponseDto> start(@RequestParam(defaultValue = "false") boolean restart) {
+        return ResponseEntity.ok().body(backfillService.start(restart));
+    }
+
+    /**
+     * Retrieves the state, progress and throughput of the latest backfill job.
+     *
+     * @return ResponseEntity with the state of the job and 200 OK status
+     */
+    @GetMapping(produces = "application/json")
+    public ResponseEntity<MetadataBackfillResponseDto> getProgress() {
+        return ResponseEntity.ok().body(backfillService.getProgress());
+    }
+
+    /**
+     * Pauses the running backfill job after its current page; starting it again resumes it.
+     *
+     * @return ResponseEntity with the state of the job and 200 OK status
+     */
+    @DeleteMapping(produces = "application/json")
+    public ResponseEntity<MetadataBackfillResponseDto> pause() {
+        return ResponseEntity.ok().body(backfillService.pause());
+    }
+}
@@ -1,14 +1,25 @@
 package com.microservice.resource.controller;
 
+import com.microservice.resource.dto.BulkUploadResponseDto;
 import com.microservice.resource.dto.DeleteResourcesResponseDto;
+import com.microservice.resource.dto.MetadataStatusResponseDto;
 import com.microservice.resource.dto.ResourceDataResponseDto;
 import com.microservice.resource.dto.ResourceIdResponseDto;
+import com.microservice.resource.dto.ResourceListResponseDto;
+import com.microservice.resource.dto.ResourceSummaryDto;
+import com.microservice.resource.service.BulkUploadService;
 import com.microservice.resource.service.ResourceService;
+import jakarta.servlet.http.HttpServletRequest;
+import jakarta.servlet.http.HttpServletResponse;
 import org.springframework.http.HttpHeaders;
 import org.springframework.http.HttpStatus;
-import org.springframework.http.MediaType;
 import org.springframework.http.ResponseEntity;
 import org.springframework.web.bind.annotation.*;
+import org.springframework.web.multipart.MultipartFile;
+
+import java.io.IOException;
+import java.io.InputStream;
+import java.util.List;
 
 /**
  * REST controller for managing MP3 resources.
@@ -19,36 +30,112 @@ import org.springframework.web.bind.annotation.*;
 public class ResourceController {
 
     private final ResourceService resourceService;
+    private final BulkUploadService bulkUploadService;
+    private final AudioResponseWriter audioResponseWriter;
 
-    public ResourceController(ResourceService resourceService) {
+    public ResourceController(ResourceService resourceService,
+                              BulkUploadService bulkUploadService,
+                              AudioResponseWriter audioResponseWriter) {
         this.resourceService = resourceService;
+        this.bulkUploadService = bulkUploadService;
+        this.audioResponseWriter = audioResponseWriter;
     }
 
     /**
      * Uploads a new MP3 resource.
+     * The request body is consumed as a stream and never materialized as a byte array.
      *
-     * @param audioData Binary MP3 audio data
+     * @param audioStream Binary MP3 audio data stream
      * @return ResponseEntity with resource ID and 200 OK status
      */
     @PostMapping(consumes = "audio/mpeg", produces = "application/json")
-    public ResponseEntity<ResourceIdResponseDto> uploadResource(@RequestBody byte[] audioData) {
-        ResourceIdResponseDto resourceId = resourceService.uploadResource(audioData);
+    public ResponseEntity<ResourceIdResponseDto> uploadResource(InputStream audioStream) {
+        ResourceIdResponseDto resourceId = resourceService.uploadResource(audioStream);
         return ResponseEntity.status(HttpStatus.OK).body(resourceId);
     }
 
+    /**
+     * Uploads many MP3 resources at once, sent as multipart/form-data parts named "files".
+     * Each part must have the Content-Type audio/mpeg. Rejected files do not prevent the others from being created.
+     *
+     * @param files MP3 files to upload
+     * @return ResponseEntity with the resource ID or error of each file, in request order, and 200 OK status
+     */
+    @PostMapping(value = "/bulk", consumes = "multipart/form-data", produces = "application/json")
+    public ResponseEntity<BulkUploadResponseDto> uploadResources(@RequestParam("files") List<MultipartFile> files) {
+        return ResponseEntity.ok().body(bulkUploadService.uploadResources(files));
+    }
+
+    /**
+     * Lists resources in ID order, one page at a time.
+     * Pass the returned next cursor to fetch the following page; it is null on the last page.
+     *
+     * @param cursor ID after which the page starts; the first page is returned if absent
+     * @param limit Maximum number of resources in the page
+     * @return ResponseEntity with the ID, size and checksum of each resource and 200 OK status
+     */
+    @GetMapping(produces = "application/json")
+    public ResponseEntity<ResourceListResponseDto> listResources(@RequestParam(required = false) String cursor,
+                                                                 @RequestParam(required = false) String limit) {
+        return ResponseEntity.ok().body(resourceService.listResources(cursor, limit));
+    }
+
     /**
      * Retrieves the binary audio data of a resource.
+     * The payload is streamed from storage to the client without being loaded into memory.
+     * Supports single and multiple byte ranges, answered with 206 Partial Content.
+     * A request whose If-None-Match header matches the ETag is answered with 304 Not Modified
+     * after reading only the resource row.
      *
      * @param id The ID of the resource to retrieve
-     * @return ResponseEntity with audio bytes and appropriate status code
+     * @param request Current HTTP request
+     * @param response Current HTTP response the audio bytes are written to
      */
     @GetMapping(value = "/{id}", produces = "audio/mpeg")
-    public ResponseEntity<byte[]> getResourceById(@PathVariable String id) {
+    public void getResourceById(@PathVariable String id, HttpServletRequest request, HttpServletResponse response)
+            throws IOException {
+        long start = System.nanoTime();
+        if (request.getHeader(HttpHeaders.IF_NONE_MATCH) != null
+                && audioResponseWriter.notModified(resourceService.getResourceSummary(id).getChecksum(), request, response)) {
+            return;
+        }
         ResourceDataResponseDto data = resourceService.getResourceById(id);
-        return ResponseEntity.ok()
-                .contentType(MediaType.valueOf("audio/mpeg"))
-                .header(HttpHeaders.CONTENT_DISPOSITION, "attachment; filename=\"resource_" + id + ".mp3\"")
-                .body(data.getAudioData());
+        setAudioHeaders(id, response);
+        audioResponseWriter.write(data, request, response, start);
+    }
+
+    /**
+     * Retrieves the headers of the binary audio data of a resource: length, ETag and caching policy.
+     * Only the resource row is read; the stored audio is never opened.
+     *
+     * @param id The ID of the resource
+     * @param request Current HTTP request
+     * @param response Current HTTP response
+     */
+    @RequestMapping(value = "/{id}", method = RequestMethod.HEAD, produces = "audio/mpeg")
+    public void headResource(@PathVariable String id, HttpServletRequest request, HttpServletResponse response) {
+        ResourceSummaryDto summary = resourceService.getResourceSummary(id);
+        if (audioResponseWriter.notModified(summary.getChecksum(), request, response)) {
+            return;
+        }
+        setAudioHeaders(id, response);
+        audioResponseWriter.writeHead(summary.getSize(), summary.getChecksum(), response);
+    }
+
+    private static void setAudioHeaders(String id, HttpServletResponse response) {
+        response.setContentType("audio/mpeg");
+        response.setHeader(HttpHeaders.CONTENT_DISPOSITION, "attachment; filename=\"resource_" + id + ".mp3\"");
+    }
+
+    /**
+     * Retrieves the metadata processing state of a resource: PENDING, DONE or FAILED.
+     *
+     * @param id The ID of the resource
+     * @return ResponseEntity with the metadata state and 200 OK status
+     */
+    @GetMapping(value = "/{id}/metadata-status", produces = "application/json")
+    public ResponseEntity<MetadataStatusResponseDto> getMetadataStatus(@PathVariable String id) {
+        return ResponseEntity.ok().body(resourceService.getMetadataStatus(id));
     }
 
     /**
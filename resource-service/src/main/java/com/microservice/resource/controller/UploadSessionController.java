@@ -0,0 +1,86 @@
+package com.microservice.resource.controller;
+
+import com.microservice.resource.dto.ResourceIdResponseDto;
+import com.microservice.resource.dto.UploadSessionResponseDto;
+import com.microservice.resource.service.UploadSessionService;
+import org.springframework.http.ResponseEntity;
+import org.springframework.web.bind.annotation.*;
+
+import java.io.InputStream;
+
+/**
+ * REST controller for resumable uploads of large MP3 files.
+ * A session is created, the file is uploaded in chunks at byte offsets, in any order and possibly in parallel,
+ * and the session is completed, which creates the resource. After an interruption, the session reports
+ * the offset up to which the file was received, so the upload is resumed from there.
+ */
+@RestController
+@RequestMapping("/resources/uploads")
+public class UploadSessionController {
+
+    private final UploadSessionService uploadSessionService;
+
+    public UploadSessionController(UploadSessionService uploadSessionService) {
+        this.uploadSessionService = uploadSessionService;
+    }
+
+    /**
+     * Creates an upload session.
+     *
+     * @return ResponseEntity with the session ID and 200 OK status
+     */
+    @PostMapping(produces = "application/json")
+    public ResponseEntity<UploadSessionResponseDto> createSession() {
+        return ResponseEntity.ok().body(uploadSessionService.createSession());
+    }
+
+    /**
+     * Retrieves the progress of an upload session.
+     *
+     * @param id The ID of the upload session
+     * @return ResponseEntity with the offset to resume at, the received bytes and 200 OK status
+     */
+    @GetMapping(value = "/{id}", produces = "application/json")
+    public ResponseEntity<UploadSessionResponseDto> getSession(@PathVariable String id) {
+        return ResponseEntity.ok().body(uploadSessionService.getSession(id));
+    }
+
+    /**
+     * Uploads a chunk of the file. The request body is consumed as a stream.
+     * A chunk uploaded again at the same offset replaces the earlier one.
+     *
+     * @param id The ID of the upload session
+     * @param offset Position of the first byte of the chunk within the file
+     * @param data Binary chunk data stream
+     * @return ResponseEntity with the progress of the session and 200 OK status
+     */
+    @PutMapping(value = "/{id}", consumes = {"application/octet-stream", "audio/mpeg"}, produces = "application/json")
+    public ResponseEntity<UploadSessionResponseDto> uploadChunk(@PathVariable String id,
+                                                                @RequestParam String offset,
+                                                                InputStream data) {
+        return ResponseEntity.ok().body(uploadSessionService.uploadChunk(id, offset, data));
+    }
+
+    /**
+     * Completes an upload session, creating the resource from its chunks.
+     *
+     * @param id The ID of the upload session
+     * @return ResponseEntity with resource ID and 200 OK status
+     */
+    @PostMapping(value = "/{id}/complete", produces = "application/json")
+    public ResponseEntity<ResourceIdResponseDto> completeSession(@PathVariable String id) {
+        return ResponseEntity.ok().body(uploadSessionService.completeSession(id));
+    }
+
+    /**
+     * Cancels an upload session, deleting the uploaded chunks.
+     *
+     * @param id The ID of the upload session
+     * @return ResponseEntity with 204 No Content status
+     */
+    @DeleteMapping("/{id}")
+    public ResponseEntity<Void> cancelSession(@PathVariable String id) {
+        uploadSessionService.cancelSession(id);
+        return ResponseEntity.noContent().build();
+    }
+}
@@ -0,0 +1,19 @@
+package com.microservice.resource.dto;
+
+import lombok.Getter;
+import lombok.Setter;
+
+import java.util.List;
+
+/**
+ * DTO for responding with the outcome of each file of a bulk upload, in request order.
+ */
+@Getter
+@Setter
+public class BulkUploadResponseDto {
+    private List<BulkUploadResultDto> results;
+
+    public BulkUploadResponseDto(List<BulkUploadResultDto> results) {
+        this.results = results;
+    }
+}
@@ -0,0 +1,22 @@
+package com.microservice.resource.dto;
+
+import lombok.Getter;
+import lombok.Setter;
+
+/**
+ * DTO for the outcome of one file of a bulk upload: the ID of the created resource,
+ * or the reason the file was rejected.
+ */
+@Getter
+@Setter
+public class BulkUploadResultDto {
+    private String fileName;
+    private Integer id;
+    private String error;
+
+    public BulkUploadResultDto(String fileName, Integer id, String error) {
+        this.fileName = fileName;
+        this.id = id;
+        this.error = error;
+    }
+}
@@ -0,0 +1,47 @@
+package com.microservice.resource.dto;
+
+import lombok.Getter;
+import lombok.Setter;
+
+import java.time.Instant;
+
+/**
+ * DTO for reporting the state, progress and throughput of a metadata backfill job.
+ */
+@Getter
+@Setter
+public class MetadataBackfillResponseDto {
+    private long id;
+    private String status;
+    // ID of the last processed resource and the largest ID the job covers
+    private int checkpoint;
+    private int maxResourceId;
+    private long total;
+    private long processed;
+    private long saved;
+    private long unchanged;
+    private long failed;
+    private double percentComplete;
+    // Resources per second since the job was last started
+    private double throughput;
+    private Instant createdAt;
+    private Instant updatedAt;
+
+    public MetadataBackfillResponseDto(long id, String status, int checkpoint, int maxResourceId, long total,
+                                       long processed, long saved, long unchanged, long failed,
+                                       double percentComplete, double throughput, Instant createdAt, Instant updatedAt) {
+        this.id = id;
+        this.status = status;
+        this.checkpoint = checkpoint;
+        this.maxResourceId = maxResourceId;
+        this.total = total;
+        this.processed = processed;
+        this.saved = saved;
+        this.unchanged = unchanged;
+        this.failed = failed;
+        this.percentComplete = percentComplete;
+        this.throughput = throughput;
+        this.createdAt = createdAt;
+        this.updatedAt = updatedAt;
+    }
+}
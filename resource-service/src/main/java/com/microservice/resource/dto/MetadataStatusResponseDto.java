@@ -0,0 +1,19 @@
+package com.microservice.resource.dto;
+
+import lombok.Getter;
+import lombok.Setter;
+
+/**
+ * DTO for responding with the metadata processing state of a resource.
+ */
+@Getter
+@Setter
+public class MetadataStatusResponseDto {
+    private int id;
+    private String status;
+
+    public MetadataStatusResponseDto(int id, String status) {
+        this.id = id;
+        this.status = status;
+    }
+}
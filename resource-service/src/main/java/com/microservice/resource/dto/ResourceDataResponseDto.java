@@ -1,17 +1,25 @@
 package com.microservice.resource.dto;
 
+import com.microservice.resource.storage.BlobContent;
 import lombok.Getter;
 import lombok.Setter;
 
 /**
- * DTO for responding with the binary audio data of a resource.
+ * DTO for responding with the audio data of a resource.
+ * Holds a handle to the stored content instead of the bytes, so it can be streamed to the client.
  */
 @Getter
 @Setter
 public class ResourceDataResponseDto {
-    private byte[] audioData;
+    private int id;
+    private long size;
+    private String checksum;
+    private BlobContent content;
 
-    public ResourceDataResponseDto(byte[] audioData) {
-        this.audioData = audioData;
+    public ResourceDataResponseDto(int id, long size, String checksum, BlobContent content) {
+        this.id = id;
+        this.size = size;
+        this.checksum = checksum;
+        this.content = content;
     }
 }
@@ -0,0 +1,22 @@
+package com.microservice.resource.dto;
+
+import lombok.Getter;
+import lombok.Setter;
+
+import java.util.List;
+
+/**
+ * DTO for responding with a page of resources.
+ */
+@Getter
+@Setter
+public class ResourceListResponseDto {
+    private List<ResourceSummaryDto> resources;
+    // Cursor of the next page, null on the last page
+    private Integer nextCursor;
+
+    public ResourceListResponseDto(List<ResourceSummaryDto> resources, Integer nextCursor) {
+        this.resources = resources;
+        this.nextCursor = nextCursor;
+    }
+}
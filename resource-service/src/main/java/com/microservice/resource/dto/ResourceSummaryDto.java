@@ -0,0 +1,21 @@
+package com.microservice.resource.dto;
+
+import lombok.Getter;
+import lombok.Setter;
+
+/**
+ * DTO for listing a resource without its audio data.
+ */
+@Getter
+@Setter
+public class ResourceSummaryDto {
+    private int id;
+    private Long size;
+    private String checksum;
+
+    public ResourceSummaryDto(int id, Long size, String checksum) {
+        this.id = id;
+        this.size = size;
+        this.checksum = checksum;
+    }
+}
@@ -0,0 +1,23 @@
+package com.microservice.resource.dto;
+
+import lombok.Getter;
+import lombok.Setter;
+
+/**
+ * DTO for responding with the progress of a resumable upload session.
+ * {@code offset} is the number of bytes received without gaps from the start of the file,
+ * at which the upload is resumed; {@code size} counts all received bytes, including chunks beyond a gap.
+ */
+@Getter
+@Setter
+public class UploadSessionResponseDto {
+    private String id;
+    private long offset;
+    private long size;
+
+    public UploadSessionResponseDto(String id, long offset, long size) {
+        this.id = id;
+        this.offset = offset;
+        this.size = size;
+    }
+}
@@ -0,0 +1,30 @@
+package com.microservice.resource.entity;
+
+import jakarta.persistence.*;
+import lombok.Getter;
+import lombok.NoArgsConstructor;
+import lombok.Setter;
+
+/**
+ * Audio content shared by all resources with the same SHA-256 checksum.
+ * The blob is removed from the blob store once no resource references it any more.
+ */
+@Entity
+@Table(name = "blobs")
+@Getter
+@Setter
+@NoArgsConstructor
+public class Blob {
+    @Id
+    @Column(name = "checksum", length = 64)
+    private String checksum;
+
+    @Column(name = "storage_key", nullable = false, unique = true, length = 64)
+    private String storageKey;
+
+    @Column(name = "size", nullable = false)
+    private long size;
+
+    @Column(name = "ref_count", nullable = false)
+    private int refCount;
+}
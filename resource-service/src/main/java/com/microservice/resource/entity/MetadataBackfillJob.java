@@ -0,0 +1,77 @@
+package com.microservice.resource.entity;
+
+import jakarta.persistence.*;
+import lombok.Getter;
+import lombok.NoArgsConstructor;
+import lombok.Setter;
+
+import java.time.Instant;
+
+/**
+ * Re-extraction of the metadata of all stored resources, pushed to Song Service.
+ * Resources are processed in ID order, and the ID of the last processed resource is kept as checkpoint,
+ * so an interrupted job resumes where it stopped.
+ */
+@Entity
+@Table(name = "metadata_backfill_jobs")
+@Getter
+@Setter
+@NoArgsConstructor
+public class MetadataBackfillJob {
+    @Id
+    @GeneratedValue(strategy = GenerationType.IDENTITY)
+    private long id;
+
+    @Enumerated(EnumType.STRING)
+    @Column(name = "status", nullable = false, length = 16)
+    private MetadataBackfillStatus status;
+
+    // Random token of the run currently processing the job; checkpoints of other runs are ignored
+    @Column(name = "owner", length = 32)
+    private String owner;
+
+    // ID of the last processed resource
+    @Column(name = "checkpoint", nullable = false)
+    private int checkpoint;
+
+    // Largest resource ID when the job was created; later uploads are propagated through the outbox anyway
+    @Column(name = "max_resource_id", nullable = false)
+    private int maxResourceId;
+
+    @Column(name = "total", nullable = false)
+    private long total;
+
+    @Column(name = "processed", nullable = false)
+    private long processed;
+
+    @Column(name = "saved", nullable = false)
+    private long saved;
+
+    @Column(name = "unchanged", nullable = false)
+    private long unchanged;
+
+    @Column(name = "failed", nullable = false)
+    private long failed;
+
+    @Column(name = "created_at", nullable = false)
+    private Instant createdAt;
+
+    // Start of the current or last run, and the number of resources processed before it
+    @Column(name = "resumed_at")
+    private Instant resumedAt;
+
+    @Column(name = "processed_at_resume", nullable = false)
+    private long processedAtResume;
+
+    // Time of the last checkpoint; a RUNNING job without a recent checkpoint was abandoned by its instance
+    @Column(name = "updated_at", nullable = false)
+    private Instant updatedAt;
+
+    public MetadataBackfillJob(int maxResourceId, long total) {
+        this.status = MetadataBackfillStatus.PAUSED;
+        this.maxResourceId = maxResourceId;
+        this.total = total;
+        this.createdAt = Instant.now();
+        this.updatedAt = this.createdAt;
+    }
+}
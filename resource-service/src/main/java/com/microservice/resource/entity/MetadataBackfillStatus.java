@@ -0,0 +1,15 @@
+package com.microservice.resource.entity;
+
+/**
+ * State of a metadata backfill job.
+ */
+public enum MetadataBackfillStatus {
+    /** The job is processing resources; its checkpoint is advanced after every page. */
+    RUNNING,
+    /** The job was paused and resumes from its checkpoint when started again. */
+    PAUSED,
+    /** The job stopped on an error and resumes from its checkpoint when started again. */
+    FAILED,
+    /** All resources up to the job's upper bound were processed. */
+    COMPLETED
+}
@@ -0,0 +1,11 @@
+package com.microservice.resource.entity;
+
+/**
+ * Kind of change to propagate to Song Service through the metadata outbox.
+ */
+public enum MetadataEventType {
+    /** Metadata of a new resource has to be created. */
+    CREATE,
+    /** Metadata of a deleted resource has to be removed. */
+    DELETE
+}
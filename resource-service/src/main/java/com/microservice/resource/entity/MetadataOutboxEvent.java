@@ -0,0 +1,54 @@
+package com.microservice.resource.entity;
+
+import jakarta.persistence.*;
+import lombok.Getter;
+import lombok.NoArgsConstructor;
+import lombok.Setter;
+
+import java.time.Instant;
+
+/**
+ * Pending change to Song Service metadata, written in the same transaction as the resource change
+ * and removed once it has been delivered.
+ */
+@Entity
+@Table(name = "metadata_outbox", indexes = {
+        @Index(name = "idx_metadata_outbox_next_attempt", columnList = "next_attempt_at"),
+        @Index(name = "idx_metadata_outbox_resource", columnList = "resource_id")
+})
+@Getter
+@Setter
+@NoArgsConstructor
+public class MetadataOutboxEvent {
+    @Id
+    @GeneratedValue(strategy = GenerationType.IDENTITY)
+    private long id;
+
+    @Column(name = "resource_id", nullable = false)
+    private int resourceId;
+
+    @Enumerated(EnumType.STRING)
+    @Column(name = "type", nullable = false, length = 16)
+    private MetadataEventType type;
+
+    // JSON body of the Song Service request, null for deletions
+    @Column(name = "payload", columnDefinition = "text")
+    private String payload;
+
+    @Column(name = "created_at", nullable = false)
+    private Instant createdAt;
+
+    @Column(name = "attempts", nullable = false)
+    private int attempts;
+
+    @Column(name = "next_attempt_at", nullable = false)
+    private Instant nextAttemptAt;
+
+    public MetadataOutboxEvent(int resourceId, MetadataEventType type, String payload) {
+        this.resourceId = resourceId;
+        this.type = type;
+        this.payload = payload;
+        this.createdAt = Instant.now();
+        this.nextAttemptAt = this.createdAt;
+    }
+}
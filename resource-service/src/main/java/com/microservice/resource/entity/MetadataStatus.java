@@ -0,0 +1,13 @@
+package com.microservice.resource.entity;
+
+/**
+ * State of the metadata extraction and propagation to Song Service for a resource.
+ */
+public enum MetadataStatus {
+    /** Metadata is queued for extraction and propagation. */
+    PENDING,
+    /** Metadata was delivered to Song Service. */
+    DONE,
+    /** Metadata could not be extracted or delivered. */
+    FAILED
+}
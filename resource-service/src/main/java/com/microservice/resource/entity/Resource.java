@@ -8,6 +8,7 @@ import lombok.Setter;
 
 /**
  * Represents an MP3 resource stored in the database.
+ * The audio data itself lives in the blob store under {@code storageKey}.
  */
 @Entity
 @Table(name = "resources")
@@ -20,10 +21,25 @@ public class Resource {
     @GeneratedValue(strategy = GenerationType.IDENTITY)
     private int id;
 
-    @Column(name = "audio_data", nullable = false, columnDefinition = "BYTEA")
-    private byte[] audioData;
+    // Nullable at the schema level so the columns can be added to tables holding legacy rows
+    @Column(name = "storage_key", length = 64)
+    private String storageKey;
 
-    public Resource(byte[] audioData) {
-        this.audioData = audioData;
+    @Column(name = "size")
+    private Long size;
+
+    @Column(name = "checksum", length = 64)
+    private String checksum;
+
+    // Null for resources uploaded before the state was tracked
+    @Enumerated(EnumType.STRING)
+    @Column(name = "metadata_status", length = 16)
+    private MetadataStatus metadataStatus;
+
+    public Resource(String storageKey, long size, String checksum, MetadataStatus metadataStatus) {
+        this.storageKey = storageKey;
+        this.size = size;
+        this.checksum = checksum;
+        this.metadataStatus = metadataStatus;
     }
 }
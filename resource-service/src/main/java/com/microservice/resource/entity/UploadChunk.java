@@ -0,0 +1,49 @@
+package com.microservice.resource.entity;
+
+import jakarta.persistence.*;
+import lombok.Getter;
+import lombok.NoArgsConstructor;
+import lombok.Setter;
+
+import java.time.Instant;
+
+/**
+ * Chunk of a resumable upload, kept in the blob store under {@code storageKey}
+ * until the upload is completed or abandoned.
+ */
+@Entity
+@Table(name = "upload_chunks", uniqueConstraints = {
+        @UniqueConstraint(name = "uk_upload_chunks_session_offset", columnNames = {"session_id", "chunk_offset"})
+})
+@Getter
+@Setter
+@NoArgsConstructor
+public class UploadChunk {
+    @Id
+    @GeneratedValue(strategy = GenerationType.IDENTITY)
+    private long id;
+
+    @Column(name = "session_id", nullable = false, length = 32)
+    private String sessionId;
+
+    // Position of the first byte of the chunk within the uploaded file
+    @Column(name = "chunk_offset", nullable = false)
+    private long offset;
+
+    @Column(name = "size", nullable = false)
+    private long size;
+
+    @Column(name = "storage_key", nullable = false, length = 64)
+    private String storageKey;
+
+    @Column(name = "created_at", nullable = false)
+    private Instant createdAt;
+
+    public UploadChunk(String sessionId, long offset, long size, String storageKey) {
+        this.sessionId = sessionId;
+        this.offset = offset;
+        this.size = size;
+        this.storageKey = storageKey;
+        this.createdAt = Instant.now();
+    }
+}
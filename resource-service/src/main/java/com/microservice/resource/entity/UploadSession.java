@@ -0,0 +1,58 @@
+package com.microservice.resource.entity;
+
+import jakarta.persistence.*;
+import lombok.Getter;
+import lombok.NoArgsConstructor;
+import lombok.Setter;
+import org.hibernate.annotations.ColumnDefault;
+
+import java.time.Instant;
+
+/**
+ * Resumable upload of a large MP3 file, whose chunks are stored as they arrive
+ * and assembled into a resource once the upload is completed.
+ */
+@Entity
+@Table(name = "upload_sessions", indexes = {
+        @Index(name = "idx_upload_sessions_updated_at", columnList = "updated_at")
+})
+@Getter
+@Setter
+@NoArgsConstructor
+public class UploadSession {
+    @Id
+    @Column(name = "id", length = 32)
+    private String id;
+
+    @Enumerated(EnumType.STRING)
+    @Column(name = "status", nullable = false, length = 16)
+    private UploadSessionStatus status;
+
+    @Column(name = "created_at", nullable = false)
+    private Instant createdAt;
+
+    // Time of creation or of the last completion attempt; chunk uploads are tracked on the chunks
+    @Column(name = "updated_at", nullable = false)
+    private Instant updatedAt;
+
+    // Progress kept up to date as chunks are recorded, so it is reported without reading the chunks
+    @ColumnDefault("0")
+    @Column(name = "chunk_count", nullable = false)
+    private int chunkCount;
+
+    @ColumnDefault("0")
+    @Column(name = "received_bytes", nullable = false)
+    private long receivedBytes;
+
+    // Number of bytes received without gaps from the start of the file
+    @ColumnDefault("0")
+    @Column(name = "resume_offset", nullable = false)
+    private long resumeOffset;
+
+    public UploadSession(String id) {
+        this.id = id;
+        this.status = UploadSessionStatus.OPEN;
+        this.createdAt = Instant.now();
+        this.updatedAt = this.createdAt;
+    }
+}
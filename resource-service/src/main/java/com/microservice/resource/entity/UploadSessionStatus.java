@@ -0,0 +1,11 @@
+package com.microservice.resource.entity;
+
+/**
+ * State of a resumable upload session.
+ */
+public enum UploadSessionStatus {
+    /** Chunks are being uploaded. */
+    OPEN,
+    /** The chunks are being assembled into a resource; no more chunks are accepted. */
+    COMPLETING
+}
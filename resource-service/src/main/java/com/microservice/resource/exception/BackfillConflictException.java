@@ -0,0 +1,11 @@
+package com.microservice.resource.exception;
+
+/**
+ * Custom exception thrown when a request conflicts with the state of a metadata backfill job,
+ * such as starting a job that is already running.
+ */
+public class BackfillConflictException extends RuntimeException {
+    public BackfillConflictException(String message) {
+        super(message);
+    }
+}
@@ -7,6 +7,7 @@ import org.springframework.http.ResponseEntity;
 import org.springframework.web.HttpMediaTypeNotSupportedException;
 import org.springframework.web.bind.annotation.ExceptionHandler;
 import org.springframework.web.bind.annotation.RestControllerAdvice;
+import org.springframework.web.multipart.MaxUploadSizeExceededException;
 
 /**
  * Global exception handler for resource service exceptions.
@@ -34,6 +35,15 @@ public class GlobalExceptionHandler {
                 .body(new ErrorResponseDto(String.valueOf(HttpStatus.BAD_REQUEST.value()), ex.getMessage()));
     }
 
+    /**
+     * Handles requests that conflict with the state of an upload session or a backfill job.
+     */
+    @ExceptionHandler({UploadConflictException.class, BackfillConflictException.class})
+    public ResponseEntity<ErrorResponseDto> handleConflict(RuntimeException ex) {
+        return ResponseEntity.status(HttpStatus.CONFLICT)
+                .body(new ErrorResponseDto(String.valueOf(HttpStatus.CONFLICT.value()), ex.getMessage()));
+    }
+
     /**
      * Handles any unexpected exceptions that occur during request processing.
      */
@@ -54,4 +64,14 @@ public class GlobalExceptionHandler {
                 .body(new ErrorResponseDto(String.valueOf(HttpStatus.BAD_REQUEST.value()),
                         "Invalid file format: " + ex.getContentType() + ". Only MP3 files are allowed"));
     }
+
+    /**
+     * Handles multipart uploads exceeding the configured file or request size.
+     */
+    @ExceptionHandler(MaxUploadSizeExceededException.class)
+    public ResponseEntity<ErrorResponseDto> handleUploadTooLarge(MaxUploadSizeExceededException ex) {
+        return ResponseEntity.status(HttpStatus.CONTENT_TOO_LARGE)
+                .body(new ErrorResponseDto(String.valueOf(HttpStatus.CONTENT_TOO_LARGE.value()),
+                        "Upload exceeds the maximum file or request size"));
+    }
 }
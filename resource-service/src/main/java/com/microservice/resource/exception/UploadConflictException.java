@@ -0,0 +1,11 @@
+package com.microservice.resource.exception;
+
+/**
+ * Custom exception thrown when a request conflicts with the state of an upload session,
+ * such as uploading a chunk while the upload is being completed.
+ */
+public class UploadConflictException extends RuntimeException {
+    public UploadConflictException(String message) {
+        super(message);
+    }
+}
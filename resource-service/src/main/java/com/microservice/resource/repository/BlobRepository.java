@@ -0,0 +1,43 @@
+package com.microservice.resource.repository;
+
+import com.microservice.resource.entity.Blob;
+import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.repository.query.Param;
+import org.springframework.stereotype.Repository;
+import org.springframework.transaction.annotation.Transactional;
+
+import java.util.Collection;
+import java.util.List;
+
+/**
+ * Repository for reference-counted, content-addressed blobs.
+ */
+@Repository
+public interface BlobRepository extends JpaRepository<Blob, String> {
+
+    /**
+     * Adds a reference to the blob with the given checksum, registering the given blob if the content is new.
+     *
+     * @param checksum SHA-256 checksum of the content.
+     * @param storageKey Storage key of the freshly stored copy of the content.
+     * @param size Size of the content in bytes.
+     * @return Storage key of the shared blob; differs from {@code storageKey} if the content was already stored.
+     */
+    @Transactional
+    @Query(value = "INSERT INTO blobs (checksum, storage_key, size, ref_count) VALUES (:checksum, :storageKey, :size, 1) "
+            + "ON CONFLICT (checksum) DO UPDATE SET ref_count = blobs.ref_count + 1 "
+            + "RETURNING storage_key", nativeQuery = true)
+    String acquire(@Param("checksum") String checksum, @Param("storageKey") String storageKey, @Param("size") long size);
+
+    /**
+     * Removes blobs that are no longer referenced.
+     *
+     * @param storageKeys Storage keys of blobs whose references were released.
+     * @return Storage keys of the removed blobs, whose content can be deleted from the blob store.
+     */
+    @Transactional
+    @Query(value = "DELETE FROM blobs WHERE storage_key IN (:storageKeys) AND ref_count <= 0 "
+            + "RETURNING storage_key", nativeQuery = true)
+    List<String> deleteUnreferenced(@Param("storageKeys") Collection<String> storageKeys);
+}
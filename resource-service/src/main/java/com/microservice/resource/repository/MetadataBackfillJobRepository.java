@@ -0,0 +1,97 @@
+package com.microservice.resource.repository;
+
+import com.microservice.resource.entity.MetadataBackfillJob;
+import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Modifying;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.repository.query.Param;
+import org.springframework.stereotype.Repository;
+import org.springframework.transaction.annotation.Transactional;
+
+import java.time.Instant;
+import java.util.Optional;
+
+/**
+ * Repository for metadata backfill jobs.
+ * State changes of a job are conditional updates, so several instances can share the table
+ * and only one of them processes a job at a time.
+ */
+@Repository
+public interface MetadataBackfillJobRepository extends JpaRepository<MetadataBackfillJob, Long> {
+
+    /**
+     * Finds the most recently created job.
+     *
+     * @return The latest job, if any job was created.
+     */
+    Optional<MetadataBackfillJob> findFirstByOrderByIdDesc();
+
+    /**
+     * Takes over a job that is paused, failed, or running without a checkpoint since the given time.
+     *
+     * @param id Job ID.
+     * @param owner Token of the run taking over the job.
+     * @param now Start time of the run.
+     * @param staleBefore Time before which the last checkpoint of a running job must lie.
+     * @return 1 if the job was taken over, 0 otherwise.
+     */
+    @Modifying(clearAutomatically = true)
+    @Transactional
+    @Query(value = "UPDATE metadata_backfill_jobs SET status = 'RUNNING', owner = :owner, resumed_at = :now, "
+            + "processed_at_resume = processed, updated_at = :now WHERE id = :id "
+            + "AND (status IN ('PAUSED', 'FAILED') OR (status = 'RUNNING' AND updated_at < :staleBefore))",
+            nativeQuery = true)
+    int claim(@Param("id") long id, @Param("owner") String owner, @Param("now") Instant now,
+              @Param("staleBefore") Instant staleBefore);
+
+    /**
+     * Advances the checkpoint of a job and adds the outcomes of a processed page.
+     *
+     * @param id Job ID.
+     * @param owner Token of the run processing the job.
+     * @param checkpoint ID of the last processed resource.
+     * @param processed Number of processed resources.
+     * @param saved Number of resources whose metadata Song Service created or changed.
+     * @param unchanged Number of resources whose metadata Song Service already held.
+     * @param failed Number of resources whose metadata could not be extracted or was rejected.
+     * @param now Time of the checkpoint.
+     * @return 1 if the run still owns the running job, 0 if the job was paused or taken over.
+     */
+    @Modifying(clearAutomatically = true)
+    @Transactional
+    @Query(value = "UPDATE metadata_backfill_jobs SET checkpoint = :checkpoint, processed = processed + :processed, "
+            + "saved = saved + :saved, unchanged = unchanged + :unchanged, failed = failed + :failed, "
+            + "updated_at = :now WHERE id = :id AND owner = :owner AND status = 'RUNNING'", nativeQuery = true)
+    int checkpoint(@Param("id") long id, @Param("owner") String owner, @Param("checkpoint") int checkpoint,
+                   @Param("processed") long processed, @Param("saved") long saved,
+                   @Param("unchanged") long unchanged, @Param("failed") long failed, @Param("now") Instant now);
+
+    /**
+     * Ends the run of a job.
+     *
+     * @param id Job ID.
+     * @param owner Token of the run processing the job.
+     * @param status PAUSED, FAILED or COMPLETED.
+     * @param now Time the run ended.
+     * @return 1 if the run still owned the running job, 0 otherwise.
+     */
+    @Modifying(clearAutomatically = true)
+    @Transactional
+    @Query(value = "UPDATE metadata_backfill_jobs SET status = :status, updated_at = :now "
+            + "WHERE id = :id AND owner = :owner AND status = 'RUNNING'", nativeQuery = true)
+    int finish(@Param("id") long id, @Param("owner") String owner, @Param("status") String status,
+               @Param("now") Instant now);
+
+    /**
+     * Pauses a running job, whichever instance runs it. The run stops at its next checkpoint.
+     *
+     * @param id Job ID.
+     * @param now Time of the request.
+     * @return 1 if the job was running, 0 otherwise.
+     */
+    @Modifying(clearAutomatically = true)
+    @Transactional
+    @Query(value = "UPDATE metadata_backfill_jobs SET status = 'PAUSED', updated_at = :now "
+            + "WHERE id = :id AND status = 'RUNNING'", nativeQuery = true)
+    int pause(@Param("id") long id, @Param("now") Instant now);
+}
@@ -0,0 +1,13 @@
+package com.microservice.resource.repository;
+
+import com.microservice.resource.entity.MetadataOutboxEvent;
+import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.stereotype.Repository;
+
+/**
+ * Repository for writing Song Service metadata changes to the outbox.
+ * Delivery is handled by {@link com.microservice.resource.service.MetadataOutboxRelay}.
+ */
+@Repository
+public interface MetadataOutboxRepository extends JpaRepository<MetadataOutboxEvent, Long> {
+}
@@ -1,12 +1,74 @@
 package com.microservice.resource.repository;
 
 import com.microservice.resource.entity.Resource;
+import org.springframework.data.domain.Limit;
 import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.repository.query.Param;
 import org.springframework.stereotype.Repository;
+import org.springframework.transaction.annotation.Transactional;
+
+import java.time.Instant;
+import java.util.Collection;
+import java.util.List;
 
 /**
  * Repository for managing MP3 resources in the database.
  */
 @Repository
 public interface ResourceRepository extends JpaRepository<Resource, Integer> {
-}
\ No newline at end of file
+
+    /**
+     * Lists resources by keyset pagination over the primary key, reading only the summary columns.
+     *
+     * @param cursor ID after which the page starts.
+     * @param limit Maximum number of resources.
+     * @return Resources with an ID greater than the cursor, in ID order.
+     */
+    List<ResourceSummary> findByIdGreaterThanOrderById(int cursor, Limit limit);
+
+    /**
+     * Deletes resources, writes a DELETE event to the metadata outbox for each of them
+     * and releases their references to shared blobs, in a single statement.
+     *
+     * @param ids IDs of the resources to delete.
+     * @param now Creation time of the outbox events.
+     * @return Resources that existed and were deleted.
+     */
+    @Transactional
+    @Query(value = "WITH deleted AS (DELETE FROM resources WHERE id IN (:ids) RETURNING id, storage_key), "
+            + "events AS (INSERT INTO metadata_outbox (resource_id, type, created_at, attempts, next_attempt_at) "
+            + "SELECT id, 'DELETE', :now, 0, :now FROM deleted ORDER BY id), "
+            + "released AS (UPDATE blobs b SET ref_count = b.ref_count - c.n "
+            + "FROM (SELECT storage_key, count(*) AS n FROM deleted GROUP BY storage_key) c "
+            + "WHERE b.storage_key = c.storage_key RETURNING b.storage_key) "
+            + "SELECT d.id AS \"id\", d.storage_key AS \"storageKey\", r.storage_key IS NOT NULL AS \"shared\" "
+            + "FROM deleted d LEFT JOIN released r ON r.storage_key = d.storage_key", nativeQuery = true)
+    List<DeletedResource> deleteAllByIdReturning(@Param("ids") Collection<Integer> ids, @Param("now") Instant now);
+
+    /**
+     * Resource listed by {@link #findByIdGreaterThanOrderById}.
+     */
+    interface ResourceSummary {
+        int getId();
+
+        Long getSize();
+
+        String getChecksum();
+    }
+
+    /**
+     * Resource removed by {@link #deleteAllByIdReturning}.
+     */
+    interface DeletedResource {
+        int getId();
+
+        String getStorageKey();
+
+        /**
+         * @return true if the audio data is a shared blob, false if the resource owned it alone
+         * because it was stored before content deduplication.
+         */
+        boolean isShared();
+    }
+}
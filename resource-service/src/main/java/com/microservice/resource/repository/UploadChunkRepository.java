@@ -0,0 +1,68 @@
+package com.microservice.resource.repository;
+
+import com.microservice.resource.entity.UploadChunk;
+import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.repository.query.Param;
+import org.springframework.stereotype.Repository;
+import org.springframework.transaction.annotation.Transactional;
+
+import java.util.Collection;
+import java.util.List;
+import java.util.Optional;
+
+/**
+ * Repository for the chunks of resumable upload sessions.
+ */
+@Repository
+public interface UploadChunkRepository extends JpaRepository<UploadChunk, Long> {
+
+    /**
+     * Lists the chunks of a session in file order.
+     *
+     * @param sessionId Session ID.
+     * @return Chunks of the session, ordered by offset.
+     */
+    List<UploadChunk> findBySessionIdOrderByOffset(String sessionId);
+
+    /**
+     * Finds the chunk of a session starting at the given offset.
+     *
+     * @param sessionId Session ID.
+     * @param offset Offset of the chunk.
+     * @return The chunk, if it was uploaded.
+     */
+    Optional<UploadChunk> findBySessionIdAndOffset(String sessionId, long offset);
+
+    /**
+     * Lists the chunks of a session starting at or after the given offset, in file order.
+     *
+     * @param sessionId Session ID.
+     * @param offset Offset of the first chunk to list.
+     * @return Chunks of the session, ordered by offset.
+     */
+    List<UploadChunk> findBySessionIdAndOffsetGreaterThanEqualOrderByOffset(String sessionId, long offset);
+
+    /**
+     * Checks whether a chunk at another offset covers any byte of the given range.
+     *
+     * @param sessionId Session ID.
+     * @param offset Offset of the first byte of the range.
+     * @param end Offset after the last byte of the range.
+     * @return true if the range overlaps a chunk that does not start at {@code offset}.
+     */
+    @Query("SELECT count(c) > 0 FROM UploadChunk c WHERE c.sessionId = :sessionId AND c.offset <> :offset "
+            + "AND c.offset < :end AND c.offset + c.size > :offset")
+    boolean existsOverlapping(@Param("sessionId") String sessionId, @Param("offset") long offset,
+                              @Param("end") long end);
+
+    /**
+     * Deletes the chunks of the given sessions.
+     *
+     * @param sessionIds Session IDs.
+     * @return Storage keys of the deleted chunks, whose content can be deleted from the blob store.
+     */
+    @Transactional
+    @Query(value = "DELETE FROM upload_chunks WHERE session_id IN (:sessionIds) RETURNING storage_key", nativeQuery = true)
+    List<String> deleteBySessionIdInReturning(@Param("sessionIds") Collection<String> sessionIds);
+}
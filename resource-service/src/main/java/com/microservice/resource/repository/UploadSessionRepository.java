@@ -0,0 +1,42 @@
+package com.microservice.resource.repository;
+
+import com.microservice.resource.entity.UploadSession;
+import jakarta.persistence.LockModeType;
+import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Lock;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.repository.query.Param;
+import org.springframework.stereotype.Repository;
+
+import java.time.Instant;
+import java.util.List;
+import java.util.Optional;
+
+/**
+ * Repository for resumable upload sessions.
+ */
+@Repository
+public interface UploadSessionRepository extends JpaRepository<UploadSession, String> {
+
+    /**
+     * Loads a session under an exclusive row lock, which serializes recording the chunks of a session
+     * with each other and with completing or collecting the session.
+     *
+     * @param id Session ID.
+     * @return The session, if it exists.
+     */
+    @Lock(LockModeType.PESSIMISTIC_WRITE)
+    @Query("SELECT s FROM UploadSession s WHERE s.id = :id")
+    Optional<UploadSession> findByIdForUpdate(@Param("id") String id);
+
+    /**
+     * Locks sessions without activity since the cutoff, skipping sessions that are in use.
+     *
+     * @param cutoff Time before which the last activity must lie.
+     * @return IDs of the locked sessions.
+     */
+    @Query(value = "SELECT s.id FROM upload_sessions s WHERE s.updated_at < :cutoff AND NOT EXISTS ("
+            + "SELECT 1 FROM upload_chunks c WHERE c.session_id = s.id AND c.created_at >= :cutoff) "
+            + "FOR UPDATE SKIP LOCKED", nativeQuery = true)
+    List<String> lockAbandoned(@Param("cutoff") Instant cutoff);
+}
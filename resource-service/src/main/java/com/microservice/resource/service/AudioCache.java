@@ -0,0 +1,159 @@
+package com.microservice.resource.service;
+
+import com.github.benmanes.caffeine.cache.AsyncCache;
+import com.github.benmanes.caffeine.cache.Cache;
+import com.github.benmanes.caffeine.cache.Caffeine;
+import com.github.benmanes.caffeine.cache.Ticker;
+import com.microservice.resource.dto.ResourceDataResponseDto;
+import com.microservice.resource.entity.Resource;
+import com.microservice.resource.storage.BlobStore;
+import com.microservice.resource.storage.ByteBufferBlobContent;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.binder.cache.CaffeineCacheMetrics;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Component;
+import org.springframework.util.unit.DataSize;
+
+import java.io.EOFException;
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.UncheckedIOException;
+import java.nio.ByteBuffer;
+import java.nio.channels.Channels;
+import java.nio.channels.ReadableByteChannel;
+import java.time.Duration;
+import java.util.Collection;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CompletionException;
+import java.util.concurrent.Future;
+import java.util.concurrent.atomic.AtomicInteger;
+
+/**
+ * Optional cache of popular audio payloads, keyed by resource ID.
+ * Payloads are held in direct buffers outside the Java heap, so cached audio does not add to GC work.
+ * A resource is only loaded into the cache once it has been requested {@code min-hits} times within
+ * the hit window, and the cache itself evicts by W-TinyLFU within a total byte budget, so one-off
+ * downloads of large files neither cost a cache load nor displace frequently requested tracks.
+ * A hit is served without a database query or a blob store read. Deleting a resource invalidates its entry
+ * on the instance that deleted it only, so entries expire after a TTL, which bounds how long other instances
+ * keep serving a deleted resource.
+ * Payloads are loaded on virtual threads outside the cache's internal locks, so a blob store read
+ * never pins the carrier thread of a virtual request thread.
+ */
+@Slf4j
+@Component
+public class AudioCache {
+
+    private final BlobStore blobStore;
+    private final boolean enabled;
+    private final long maxEntrySize;
+    private final int minHits;
+    private final AsyncCache<Integer, ResourceDataResponseDto> entries;
+    private final Cache<Integer, AtomicInteger> hits;
+
+    public AudioCache(BlobStore blobStore,
+                      MeterRegistry registry,
+                      @Value("${resource.cache.audio.enabled:false}") boolean enabled,
+                      @Value("${resource.cache.audio.max-size:256MB}") DataSize maxSize,
+                      @Value("${resource.cache.audio.max-entry-size:16MB}") DataSize maxEntrySize,
+                      @Value("${resource.cache.audio.min-hits:2}") int minHits,
+                      @Value("${resource.cache.audio.hit-window:10m}") Duration hitWindow,
+                      @Value("${resource.cache.audio.ttl:1m}") Duration ttl) {
+        this(blobStore, registry, enabled, maxSize, maxEntrySize, minHits, hitWindow, ttl, Ticker.systemTicker());
+    }
+
+    AudioCache(BlobStore blobStore, MeterRegistry registry, boolean enabled, DataSize maxSize, DataSize maxEntrySize,
+               int minHits, Duration hitWindow, Duration ttl, Ticker ticker) {
+        this.blobStore = blobStore;
+        this.enabled = enabled;
+        this.maxEntrySize = maxEntrySize.toBytes();
+        this.minHits = minHits;
+        this.entries = CaffeineCacheMetrics.monitor(registry, Caffeine.newBuilder()
+                .maximumWeight(maxSize.toBytes())
+                .weigher((Integer id, ResourceDataResponseDto data) -> (int) Math.min(data.getSize(), Integer.MAX_VALUE))
+                .expireAfterWrite(ttl)
+                .ticker(ticker)
+                .executor(task -> Thread.ofVirtual().name("audio-cache-loader").start(task))
+                .recordStats()
+                .buildAsync(), "audio");
+        // Bounded by count rather than memory; each counter costs a few dozen bytes
+        this.hits = Caffeine.newBuilder()
+                .maximumSize(100_000)
+                .expireAfterWrite(hitWindow)
+                .ticker(ticker)
+                .build();
+    }
+
+    /**
+     * Returns the cached audio data of a resource.
+     *
+     * @param id Resource ID.
+     * @return Cached audio data, or null if the resource is not cached.
+     */
+    public ResourceDataResponseDto get(int id) {
+        CompletableFuture<ResourceDataResponseDto> entry = enabled ? entries.getIfPresent(id) : null;
+        // A load still in flight is joined by admit
+        return entry != null && entry.state() == Future.State.SUCCESS ? entry.resultNow() : null;
+    }
+
+    /**
+     * Records a request for a resource that was not cached, and loads it into the cache
+     * once it has been requested often enough.
+     *
+     * @param resource Requested resource.
+     * @return Cached audio data if the resource was admitted, otherwise null.
+     */
+    public ResourceDataResponseDto admit(Resource resource) {
+        if (!enabled || resource.getSize() == null || resource.getSize() > maxEntrySize) {
+            return null;
+        }
+        if (hits.get(resource.getId(), id -> new AtomicInteger()).incrementAndGet() < minHits) {
+            return null;
+        }
+
+        try {
+            return entries.get(resource.getId(), id -> load(resource)).join();
+        } catch (CompletionException e) {
+            if (!(e.getCause() instanceof UncheckedIOException)) {
+                throw e;
+            }
+            log.warn("Failed to cache audio data of resource {}: {}", resource.getId(), e.getCause().getMessage());
+            return null;
+        }
+    }
+
+    /**
+     * Removes resources from the cache.
+     * Called after their blobs were deleted, so a load that was still in flight cannot leave an entry behind.
+     *
+     * @param ids Resource IDs.
+     */
+    public void invalidate(Collection<Integer> ids) {
+        entries.synchronous().invalidateAll(ids);
+        hits.invalidateAll(ids);
+    }
+
+    /**
+     * Reads the audio data of a resource into a direct buffer.
+     *
+     * @param resource Resource to load.
+     * @return Cached audio data.
+     */
+    private ResourceDataResponseDto load(Resource resource) {
+        ByteBuffer buffer = ByteBuffer.allocateDirect(Math.toIntExact(resource.getSize()));
+        try (InputStream in = blobStore.open(resource.getStorageKey());
+             ReadableByteChannel channel = Channels.newChannel(in)) {
+            while (buffer.hasRemaining()) {
+                if (channel.read(buffer) < 0) {
+                    throw new EOFException("Blob " + resource.getStorageKey() + " is shorter than expected");
+                }
+            }
+        } catch (IOException e) {
+            throw new UncheckedIOException(e);
+        }
+        buffer.flip();
+        return new ResourceDataResponseDto(resource.getId(), resource.getSize(), resource.getChecksum(),
+                new ByteBufferBlobContent(buffer));
+    }
+}
@@ -0,0 +1,345 @@
+package com.microservice.resource.service;
+
+import com.microservice.resource.dto.BulkUploadResponseDto;
+import com.microservice.resource.dto.BulkUploadResultDto;
+import com.microservice.resource.entity.MetadataEventType;
+import com.microservice.resource.entity.MetadataStatus;
+import com.microservice.resource.exception.InvalidRequestException;
+import com.microservice.resource.storage.BlobStore;
+import com.microservice.resource.storage.StoredBlob;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.Timer;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.jdbc.core.RowCallbackHandler;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.support.TransactionTemplate;
+import org.springframework.web.multipart.MultipartFile;
+import tools.jackson.databind.json.JsonMapper;
+
+import java.io.IOException;
+import java.io.InputStream;
+import java.sql.PreparedStatement;
+import java.time.Instant;
+import java.time.OffsetDateTime;
+import java.time.ZoneOffset;
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.TreeMap;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Future;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Service for uploading many MP3 files in one request, e.g. when onboarding a catalog.
+ * Files are streamed into the blob store and parsed for metadata in parallel on a bounded worker pool.
+ * The resulting rows are then written in one transaction with a constant number of round trips:
+ * IDs for all files are taken from the resources ID sequence in one query, blob references
+ * are acquired in one statement, and resources and their outbox events are inserted in JDBC batches.
+ * The metadata reaches Song Service through {@link MetadataOutboxRelay}, which sends it in batched requests.
+ */
+@Slf4j
+@Service
+public class BulkUploadService {
+
+    private static final String AUDIO_MPEG = "audio/mpeg";
+
+    // Takes IDs from the sequence backing the identity column, so they never collide with single uploads
+    private static final String ALLOCATE_IDS_SQL = "SELECT nextval(pg_get_serial_sequence('resources', 'id')) "
+            + "FROM generate_series(1, ?)";
+    // Adds all references to each checksum at once; a checksum must occur only once per statement.
+    // Rows are upserted, and their blob rows locked, in the order of the arrays
+    private static final String ACQUIRE_BLOBS_SQL = "INSERT INTO blobs (checksum, storage_key, size, ref_count) "
+            + "SELECT * FROM unnest(?::varchar[], ?::varchar[], ?::bigint[], ?::integer[]) "
+            + "ON CONFLICT (checksum) DO UPDATE SET ref_count = blobs.ref_count + EXCLUDED.ref_count "
+            + "RETURNING checksum, storage_key";
+    private static final String INSERT_RESOURCE_SQL = "INSERT INTO resources (id, storage_key, size, checksum, metadata_status) "
+            + "VALUES (?, ?, ?, ?, ?)";
+    private static final String INSERT_EVENT_SQL = "INSERT INTO metadata_outbox "
+            + "(resource_id, type, payload, created_at, attempts, next_attempt_at) VALUES (?, ?, ?, ?, 0, ?)";
+
+    private final JdbcTemplate jdbcTemplate;
+    private final TransactionTemplate transactionTemplate;
+    private final BlobStore blobStore;
+    private final Mp3MetadataExtractor metadataExtractor;
+    private final JsonMapper jsonMapper;
+    private final ExecutorService bulkUploadExecutor;
+
+    private final Timer storeTimer;
+    private final Timer persistTimer;
+
+    @Value("${resource.upload.buffer-size:65536}")
+    private int uploadBufferSize;
+
+    @Value("${resource.bulk.max-files:200}")
+    private int maxFiles;
+
+    @Value("${resource.bulk.insert-batch-size:500}")
+    private int insertBatchSize;
+
+    public BulkUploadService(JdbcTemplate jdbcTemplate,
+                             TransactionTemplate transactionTemplate,
+                             BlobStore blobStore,
+                             Mp3MetadataExtractor metadataExtractor,
+                             JsonMapper jsonMapper,
+                             ExecutorService bulkUploadExecutor,
+                             MeterRegistry registry) {
+        this.jdbcTemplate = jdbcTemplate;
+        this.transactionTemplate = transactionTemplate;
+        this.blobStore = blobStore;
+        this.metadataExtractor = metadataExtractor;
+        this.jsonMapper = jsonMapper;
+        this.bulkUploadExecutor = bulkUploadExecutor;
+        this.storeTimer = bulkStageTimer("store", registry);
+        this.persistTimer = bulkStageTimer("persist", registry);
+    }
+
+    /**
+     * Uploads MP3 files, extracts their metadata and stores them.
+     * Files that are not MP3 files, are empty or cannot be stored are reported individually
+     * and do not prevent the other files from being created.
+     *
+     * @param files Uploaded files.
+     * @return DTO containing the resource ID or error of each file, in request order.
+     */
+    public BulkUploadResponseDto uploadResources(List<MultipartFile> files) {
+        if (files == null || files.isEmpty()) {
+            throw new InvalidRequestException("No files uploaded");
+        }
+        if (files.size() > maxFiles) {
+            throw new InvalidRequestException("Too many files: received " + files.size()
+                    + ", maximum allowed is " + maxFiles);
+        }
+
+        String[] errors = new String[files.size()];
+        List<Integer> accepted = new ArrayList<>();
+        for (int i = 0; i < files.size(); i++) {
+            MultipartFile file = files.get(i);
+            if (file.isEmpty()) {
+                errors[i] = "MP3 file is empty";
+            } else if (!AUDIO_MPEG.equals(file.getContentType())) {
+                errors[i] = "Invalid file format: " + file.getContentType() + ". Only MP3 files are allowed";
+            } else {
+                accepted.add(i);
+            }
+        }
+
+        Integer[] ids = new Integer[files.size()];
+        List<StoredFile> stored = storeAll(files, accepted, ids, errors);
+        if (!stored.isEmpty()) {
+            persist(stored);
+        }
+
+        List<BulkUploadResultDto> results = new ArrayList<>(files.size());
+        for (int i = 0; i < files.size(); i++) {
+            results.add(new BulkUploadResultDto(files.get(i).getOriginalFilename(), errors[i] == null ? ids[i] : null, errors[i]));
+        }
+        log.info("Bulk upload created {} of {} resources", stored.size(), files.size());
+        return new BulkUploadResponseDto(results);
+    }
+
+    /**
+     * Streams the accepted files into the blob store in parallel, extracting metadata in the same pass.
+     * IDs are allocated up front so the metadata can carry them; IDs of files that fail are left unused.
+     *
+     * @param files Uploaded files.
+     * @param accepted Indexes of the files to store.
+     * @param ids Receives the ID allocated to each accepted file.
+     * @param errors Receives the error of each file that could not be stored.
+     * @return Stored files in request order.
+     */
+    private List<StoredFile> storeAll(List<MultipartFile> files, List<Integer> accepted, Integer[] ids, String[] errors) {
+        if (accepted.isEmpty()) {
+            return List.of();
+        }
+        List<Integer> allocated = jdbcTemplate.queryForList(ALLOCATE_IDS_SQL, Integer.class, accepted.size());
+
+        long start = System.nanoTime();
+        List<Future<StoredFile>> futures = new ArrayList<>(accepted.size());
+        for (int i = 0; i < accepted.size(); i++) {
+            int index = accepted.get(i);
+            int id = allocated.get(i);
+            ids[index] = id;
+            futures.add(bulkUploadExecutor.submit(() -> store(id, files.get(index))));
+        }
+
+        List<StoredFile> stored = new ArrayList<>(accepted.size());
+        for (int i = 0; i < futures.size(); i++) {
+            int index = accepted.get(i);
+            try {
+                StoredFile file = futures.get(i).get();
+                if (file.blob().size() == 0) {
+                    deleteBlob(file.blob().key());
+                    errors[index] = "MP3 file is empty";
+                } else {
+                    stored.add(file);
+                }
+            } catch (ExecutionException e) {
+                log.warn("Failed to store file {} of bulk upload: {}", files.get(index).getOriginalFilename(),
+                        e.getCause().getMessage());
+                errors[index] = "Failed to store MP3 file";
+            } catch (InterruptedException e) {
+                Thread.currentThread().interrupt();
+                futures.forEach(future -> future.cancel(true));
+                stored.forEach(file -> deleteBlob(file.blob().key()));
+                throw new IllegalStateException("Bulk upload interrupted", e);
+            }
+        }
+        storeTimer.record(System.nanoTime() - start, TimeUnit.NANOSECONDS);
+        return stored;
+    }
+
+    /**
+     * Streams one file into the blob store and extracts its metadata on the way.
+     *
+     * @param id Resource ID allocated to the file.
+     * @param file Uploaded file.
+     * @return Stored blob and extracted metadata of the file.
+     */
+    private StoredFile store(int id, MultipartFile file) throws IOException {
+        Mp3StreamParser parser = new Mp3StreamParser();
+        StoredBlob blob;
+        try (InputStream in = file.getInputStream()) {
+            blob = blobStore.put(new Mp3ParsingInputStream(in, parser), uploadBufferSize);
+        }
+        Map<String, String> metadata = blob.size() == 0 ? Map.of() : metadataExtractor.extractMetadata(id, parser);
+        return new StoredFile(id, blob, metadata.isEmpty() ? null : jsonMapper.writeValueAsString(metadata));
+    }
+
+    /**
+     * Writes the resources and their metadata events in one transaction, sharing the blobs of identical content.
+     * The stored copies of content that already existed are deleted afterwards; all copies are deleted
+     * if the transaction fails.
+     *
+     * @param stored Stored files.
+     */
+    private void persist(List<StoredFile> stored) {
+        long start = System.nanoTime();
+        Map<String, String> storageKeys;
+        try {
+            storageKeys = transactionTemplate.execute(status -> {
+                Map<String, String> keys = acquireBlobs(stored);
+                insertResources(stored, keys);
+                insertEvents(stored);
+                return keys;
+            });
+        } catch (RuntimeException e) {
+            stored.forEach(file -> deleteBlob(file.blob().key()));
+            throw e;
+        } finally {
+            persistTimer.record(System.nanoTime() - start, TimeUnit.NANOSECONDS);
+        }
+
+        for (StoredFile file : stored) {
+            if (!file.blob().key().equals(storageKeys.get(file.blob().checksum()))) {
+                // The content was already stored; this copy was only needed to compute the checksum
+                deleteBlob(file.blob().key());
+            }
+        }
+    }
+
+    /**
+     * Adds one reference per file to the blob of its content, registering the blobs of new content.
+     *
+     * @param stored Stored files.
+     * @return Storage key of the shared blob for each checksum.
+     */
+    private Map<String, String> acquireBlobs(List<StoredFile> stored) {
+        // Sorted by checksum, so concurrent bulk uploads sharing content lock its blob rows in the same order
+        // instead of deadlocking on each other
+        Map<String, StoredBlob> first = new TreeMap<>();
+        Map<String, Integer> references = new HashMap<>();
+        for (StoredFile file : stored) {
+            first.putIfAbsent(file.blob().checksum(), file.blob());
+            references.merge(file.blob().checksum(), 1, Integer::sum);
+        }
+        String[] checksums = first.keySet().toArray(String[]::new);
+        String[] keys = first.values().stream().map(StoredBlob::key).toArray(String[]::new);
+        Long[] sizes = first.values().stream().map(StoredBlob::size).toArray(Long[]::new);
+        Integer[] counts = first.keySet().stream().map(references::get).toArray(Integer[]::new);
+
+        Map<String, String> storageKeys = new HashMap<>();
+        jdbcTemplate.query(con -> {
+            PreparedStatement ps = con.prepareStatement(ACQUIRE_BLOBS_SQL);
+            ps.setArray(1, con.createArrayOf("varchar", checksums));
+            ps.setArray(2, con.createArrayOf("varchar", keys));
+            ps.setArray(3, con.createArrayOf("bigint", sizes));
+            ps.setArray(4, con.createArrayOf("integer", counts));
+            return ps;
+        }, (RowCallbackHandler) rs -> storageKeys.put(rs.getString("checksum"), rs.getString("storage_key")));
+        return storageKeys;
+    }
+
+    /**
+     * Inserts the resources with their allocated IDs in JDBC batches.
+     * Resources without extractable metadata are marked FAILED, like single uploads.
+     *
+     * @param stored Stored files.
+     * @param storageKeys Storage key of the shared blob for each checksum.
+     */
+    private void insertResources(List<StoredFile> stored, Map<String, String> storageKeys) {
+        jdbcTemplate.batchUpdate(INSERT_RESOURCE_SQL, stored, insertBatchSize, (ps, file) -> {
+            ps.setInt(1, file.id());
+            ps.setString(2, storageKeys.get(file.blob().checksum()));
+            ps.setLong(3, file.blob().size());
+            ps.setString(4, file.blob().checksum());
+            ps.setString(5, (file.payload() == null ? MetadataStatus.FAILED : MetadataStatus.PENDING).name());
+        });
+    }
+
+    /**
+     * Inserts a CREATE outbox event in JDBC batches for each resource with extracted metadata.
+     *
+     * @param stored Stored files.
+     */
+    private void insertEvents(List<StoredFile> stored) {
+        List<StoredFile> withMetadata = stored.stream().filter(file -> file.payload() != null).toList();
+        OffsetDateTime now = Instant.now().atOffset(ZoneOffset.UTC);
+        jdbcTemplate.batchUpdate(INSERT_EVENT_SQL, withMetadata, insertBatchSize, (ps, file) -> {
+            ps.setInt(1, file.id());
+            ps.setString(2, MetadataEventType.CREATE.name());
+            ps.setString(3, file.payload());
+            ps.setObject(4, now);
+            ps.setObject(5, now);
+        });
+    }
+
+    /**
+     * Removes a blob from the blob store, logging instead of failing if it cannot be removed.
+     *
+     * @param storageKey Storage key of the blob.
+     */
+    private void deleteBlob(String storageKey) {
+        try {
+            blobStore.delete(storageKey);
+        } catch (IOException e) {
+            log.warn("Failed to delete blob {}: {}", storageKey, e.getMessage());
+        }
+    }
+
+    /**
+     * Registers the timer of a bulk upload stage.
+     *
+     * @param stage store (streaming and parsing all files) or persist (the database transaction).
+     * @param registry Registry to register the timer with.
+     * @return Registered timer.
+     */
+    private static Timer bulkStageTimer(String stage, MeterRegistry registry) {
+        return Timer.builder("resource.bulk-upload.stage").tag("stage", stage)
+                .description("Time spent in a stage of a bulk upload").register(registry);
+    }
+
+    /**
+     * File of a bulk upload that has been written to the blob store.
+     *
+     * @param id Resource ID allocated to the file.
+     * @param blob Stored blob.
+     * @param payload JSON metadata for Song Service, or null if none could be extracted.
+     */
+    private record StoredFile(int id, StoredBlob blob, String payload) {
+    }
+}
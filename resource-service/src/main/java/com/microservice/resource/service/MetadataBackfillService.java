@@ -0,0 +1,352 @@
+package com.microservice.resource.service;
+
+import com.microservice.resource.dto.MetadataBackfillResponseDto;
+import com.microservice.resource.entity.MetadataBackfillJob;
+import com.microservice.resource.entity.MetadataBackfillStatus;
+import com.microservice.resource.entity.MetadataStatus;
+import com.microservice.resource.exception.BackfillConflictException;
+import com.microservice.resource.exception.ResourceNotFoundException;
+import com.microservice.resource.repository.MetadataBackfillJobRepository;
+import com.microservice.resource.storage.BlobStore;
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.MeterRegistry;
+import jakarta.annotation.PreDestroy;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.stereotype.Service;
+import tools.jackson.databind.json.JsonMapper;
+
+import java.io.IOException;
+import java.io.InputStream;
+import java.time.Duration;
+import java.time.Instant;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.UUID;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.concurrent.TimeUnit;
+import java.util.stream.Collectors;
+
+/**
+ * Re-extracts the metadata of all stored resources and saves it in Song Service, overwriting what it holds.
+ * Used after the extractor improved, or to restore metadata Song Service lost.
+ * <p>
+ * The job walks the resources table in ID order one page at a time by keyset, so each page is an index
+ * range scan in its own short statement, and only IDs and storage keys are read; the audio of each resource
+ * is streamed from the blob store by a bounded pool of workers. The metadata of a page is sent to Song Service
+ * in one batch request, after which the ID of the last resource of the page is stored as checkpoint.
+ * A paused, failed or abandoned job resumes from its checkpoint. Pages are paced so the job processes at most
+ * the configured number of resources per second, leaving database, disk and Song Service capacity to live traffic.
+ */
+@Slf4j
+@Service
+public class MetadataBackfillService {
+
+    private static final String MAX_ID_SQL = "SELECT coalesce(max(id), 0) FROM resources";
+    private static final String COUNT_SQL = "SELECT count(*) FROM resources WHERE id <= ? AND storage_key IS NOT NULL";
+    private static final String PAGE_SQL = "SELECT id, storage_key FROM resources "
+            + "WHERE id > ? AND id <= ? AND storage_key IS NOT NULL ORDER BY id LIMIT ?";
+    private static final String EXISTING_IDS_SQL = "SELECT id FROM resources WHERE id = ANY (?)";
+    // Resources whose metadata could not be extracted at upload are repaired; pending ones are left to the relay
+    private static final String MARK_DONE_SQL = "UPDATE resources SET metadata_status = ? "
+            + "WHERE id = ANY (?) AND metadata_status = ?";
+
+    private final MetadataBackfillJobRepository jobRepository;
+    private final JdbcTemplate jdbcTemplate;
+    private final BlobStore blobStore;
+    private final Mp3MetadataExtractor metadataExtractor;
+    private final SongServiceClient songServiceClient;
+    private final JsonMapper jsonMapper;
+
+    private final Counter savedCounter;
+    private final Counter unchangedCounter;
+    private final Counter failedCounter;
+
+    // Run of this instance, if any; stopped on shutdown
+    private volatile Thread runner;
+    private volatile boolean stopping;
+
+    @Value("${resource.backfill.page-size:100}")
+    private int pageSize;
+
+    @Value("${resource.backfill.parallelism:2}")
+    private int parallelism;
+
+    @Value("${resource.backfill.rate:50}")
+    private double rate;
+
+    @Value("${resource.backfill.lease:5m}")
+    private Duration lease;
+
+    public MetadataBackfillService(MetadataBackfillJobRepository jobRepository,
+                                   JdbcTemplate jdbcTemplate,
+                                   BlobStore blobStore,
+                                   Mp3MetadataExtractor metadataExtractor,
+                                   SongServiceClient songServiceClient,
+                                   JsonMapper jsonMapper,
+                                   MeterRegistry registry) {
+        this.jobRepository = jobRepository;
+        this.jdbcTemplate = jdbcTemplate;
+        this.blobStore = blobStore;
+        this.metadataExtractor = metadataExtractor;
+        this.songServiceClient = songServiceClient;
+        this.jsonMapper = jsonMapper;
+        this.savedCounter = processedCounter("saved", registry);
+        this.unchangedCounter = processedCounter("unchanged", registry);
+        this.failedCounter = processedCounter("failed", registry);
+    }
+
+    /**
+     * Starts a backfill job on this instance. The latest job is resumed from its checkpoint unless it completed;
+     * otherwise, or if a restart is requested, a new job covering all current resources is created.
+     *
+     * @param restart Whether to start over instead of resuming the latest job.
+     * @return DTO containing the state of the started job.
+     * @throws BackfillConflictException if the job is already running.
+     */
+    public synchronized MetadataBackfillResponseDto start(boolean restart) {
+        if (runner != null && runner.isAlive()) {
+            throw new BackfillConflictException("A metadata backfill job is already running on this instance");
+        }
+        MetadataBackfillJob job = jobRepository.findFirstByOrderByIdDesc()
+                .filter(latest -> !restart || latest.getStatus() == MetadataBackfillStatus.RUNNING)
+                .filter(latest -> latest.getStatus() != MetadataBackfillStatus.COMPLETED)
+                .orElseGet(this::createJob);
+
+        String owner = UUID.randomUUID().toString().replace("-", "");
+        Instant now = Instant.now();
+        if (jobRepository.claim(job.getId(), owner, now, now.minus(lease)) == 0) {
+            throw new BackfillConflictException("Metadata backfill job " + job.getId() + " is already running");
+        }
+        long jobId = job.getId();
+        log.info("Metadata backfill job {} started at resource ID {}", jobId, job.getCheckpoint());
+
+        stopping = false;
+        runner = Thread.ofPlatform().name("metadata-backfill").daemon().start(() -> run(jobId, owner));
+        return getProgress();
+    }
+
+    /**
+     * Reports the state, progress and throughput of the latest backfill job.
+     *
+     * @return DTO containing the state of the job.
+     */
+    public MetadataBackfillResponseDto getProgress() {
+        MetadataBackfillJob job = jobRepository.findFirstByOrderByIdDesc()
+                .orElseThrow(() -> new ResourceNotFoundException("No metadata backfill job found"));
+        double percent = job.getStatus() == MetadataBackfillStatus.COMPLETED || job.getTotal() == 0
+                ? 100 : Math.min(100, 100.0 * job.getProcessed() / job.getTotal());
+        double throughput = 0;
+        if (job.getResumedAt() != null) {
+            Instant end = job.getStatus() == MetadataBackfillStatus.RUNNING ? Instant.now() : job.getUpdatedAt();
+            long millis = Duration.between(job.getResumedAt(), end).toMillis();
+            if (millis > 0) {
+                throughput = (job.getProcessed() - job.getProcessedAtResume()) * 1000.0 / millis;
+            }
+        }
+        return new MetadataBackfillResponseDto(job.getId(), job.getStatus().name(), job.getCheckpoint(),
+                job.getMaxResourceId(), job.getTotal(), job.getProcessed(), job.getSaved(), job.getUnchanged(),
+                job.getFailed(), percent, throughput, job.getCreatedAt(), job.getUpdatedAt());
+    }
+
+    /**
+     * Pauses the latest backfill job, on whichever instance it runs. It stops after its current page.
+     *
+     * @return DTO containing the state of the job.
+     * @throws BackfillConflictException if the job is not running.
+     */
+    public MetadataBackfillResponseDto pause() {
+        MetadataBackfillJob job = jobRepository.findFirstByOrderByIdDesc()
+                .orElseThrow(() -> new ResourceNotFoundException("No metadata backfill job found"));
+        if (jobRepository.pause(job.getId(), Instant.now()) == 0) {
+            throw new BackfillConflictException("Metadata backfill job " + job.getId() + " is not running");
+        }
+        return getProgress();
+    }
+
+    /**
+     * Pauses the run of this instance at its next checkpoint on shutdown, so it can be resumed right away.
+     */
+    @PreDestroy
+    public void stop() throws InterruptedException {
+        stopping = true;
+        Thread current = runner;
+        if (current != null) {
+            current.join(Duration.ofSeconds(30));
+        }
+    }
+
+    private MetadataBackfillJob createJob() {
+        Integer maxId = jdbcTemplate.queryForObject(MAX_ID_SQL, Integer.class);
+        Long total = jdbcTemplate.queryForObject(COUNT_SQL, Long.class, maxId);
+        return jobRepository.save(new MetadataBackfillJob(maxId, total));
+    }
+
+    /**
+     * Processes a job page by page until all resources are processed, the job is paused or taken over,
+     * or an error occurs. Pages whose checkpoint was not stored are processed again on resume,
+     * which is safe because saving metadata in Song Service is idempotent.
+     *
+     * @param jobId Job ID.
+     * @param owner Token of this run.
+     */
+    private void run(long jobId, String owner) {
+        ExecutorService workers = Executors.newFixedThreadPool(parallelism,
+                Thread.ofPlatform().name("metadata-backfill-worker-", 0).factory());
+        MetadataBackfillStatus outcome = MetadataBackfillStatus.PAUSED;
+        try {
+            MetadataBackfillJob job = jobRepository.findById(jobId).orElseThrow();
+            int checkpoint = job.getCheckpoint();
+            long minPageNanos = rate > 0 ? (long) (pageSize * 1_000_000_000L / rate) : 0;
+            while (!stopping) {
+                long start = System.nanoTime();
+                List<Candidate> page = jdbcTemplate.query(PAGE_SQL,
+                        (rs, rowNum) -> new Candidate(rs.getInt("id"), rs.getString("storage_key")),
+                        checkpoint, job.getMaxResourceId(), pageSize);
+                if (page.isEmpty()) {
+                    outcome = MetadataBackfillStatus.COMPLETED;
+                    break;
+                }
+
+                PageResult result = process(page, workers);
+                checkpoint = page.getLast().id();
+                if (jobRepository.checkpoint(jobId, owner, checkpoint, page.size(), result.saved(),
+                        result.unchanged(), result.failed(), Instant.now()) == 0) {
+                    log.info("Metadata backfill job {} paused at resource ID {}", jobId, checkpoint);
+                    return;
+                }
+                savedCounter.increment(result.saved());
+                unchangedCounter.increment(result.unchanged());
+                failedCounter.increment(result.failed());
+
+                // Paces the job to the configured rate
+                long remainingNanos = minPageNanos - (System.nanoTime() - start);
+                if (remainingNanos > 0 && !stopping) {
+                    TimeUnit.NANOSECONDS.sleep(remainingNanos);
+                }
+            }
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+        } catch (RuntimeException e) {
+            log.error("Metadata backfill job {} failed: {}", jobId, e.getMessage(), e);
+            outcome = MetadataBackfillStatus.FAILED;
+        } finally {
+            workers.shutdownNow();
+            jobRepository.finish(jobId, owner, outcome.name(), Instant.now());
+            log.info("Metadata backfill job {} ended as {}", jobId, outcome);
+        }
+    }
+
+    /**
+     * Re-extracts the metadata of a page of resources on the worker pool and saves it in Song Service
+     * with one batch request. Songs of resources deleted meanwhile are removed again, since their deletion
+     * may have reached Song Service before the saved metadata did.
+     *
+     * @param page Resources in ID order.
+     * @param workers Pool extracting the metadata.
+     * @return Outcome counts of the page.
+     */
+    private PageResult process(List<Candidate> page, ExecutorService workers) throws InterruptedException {
+        List<Future<Map<String, String>>> futures = new ArrayList<>(page.size());
+        for (Candidate candidate : page) {
+            futures.add(workers.submit(() -> extract(candidate)));
+        }
+
+        List<Integer> ids = new ArrayList<>(page.size());
+        List<String> payloads = new ArrayList<>(page.size());
+        int failed = 0;
+        for (int i = 0; i < page.size(); i++) {
+            Map<String, String> metadata;
+            try {
+                metadata = futures.get(i).get();
+            } catch (ExecutionException e) {
+                log.warn("Failed to read resource {}: {}", page.get(i).id(), e.getCause().getMessage());
+                metadata = Map.of();
+            }
+            if (metadata.isEmpty()) {
+                failed++;
+            } else {
+                ids.add(page.get(i).id());
+                payloads.add(jsonMapper.writeValueAsString(metadata));
+            }
+        }
+        if (payloads.isEmpty()) {
+            return new PageResult(0, 0, failed);
+        }
+
+        List<String> statuses = songServiceClient.saveMetadata(payloads);
+        int saved = 0;
+        int unchanged = 0;
+        List<Integer> accepted = new ArrayList<>(ids.size());
+        for (int i = 0; i < statuses.size(); i++) {
+            switch (statuses.get(i)) {
+                case "SAVED" -> saved++;
+                case "UNCHANGED" -> unchanged++;
+                default -> {
+                    failed++;
+                    continue;
+                }
+            }
+            accepted.add(ids.get(i));
+        }
+
+        if (!accepted.isEmpty()) {
+            Integer[] acceptedIds = accepted.toArray(Integer[]::new);
+            Set<Integer> existing = jdbcTemplate.query(EXISTING_IDS_SQL,
+                    ps -> ps.setArray(1, ps.getConnection().createArrayOf("integer", acceptedIds)),
+                    (rs, rowNum) -> rs.getInt(1)).stream().collect(Collectors.toSet());
+            List<Integer> deleted = accepted.stream().filter(id -> !existing.contains(id)).toList();
+            if (!deleted.isEmpty()) {
+                songServiceClient.deleteMetadata(deleted);
+            }
+            jdbcTemplate.update(MARK_DONE_SQL, ps -> {
+                ps.setString(1, MetadataStatus.DONE.name());
+                ps.setArray(2, ps.getConnection().createArrayOf("integer", acceptedIds));
+                ps.setString(3, MetadataStatus.FAILED.name());
+            });
+        }
+        return new PageResult(saved, unchanged, failed);
+    }
+
+    /**
+     * Streams the audio of a resource from the blob store through the metadata extractor.
+     *
+     * @param candidate Resource to process.
+     * @return Extracted metadata, empty if none could be extracted.
+     */
+    private Map<String, String> extract(Candidate candidate) throws IOException {
+        try (InputStream in = blobStore.open(candidate.storageKey())) {
+            return metadataExtractor.extractMetadata(candidate.id(), in);
+        }
+    }
+
+    private static Counter processedCounter(String outcome, MeterRegistry registry) {
+        return Counter.builder("resource.backfill.processed").tag("outcome", outcome)
+                .description("Resources processed by metadata backfill jobs").register(registry);
+    }
+
+    /**
+     * Resource read from a page of the resources table.
+     *
+     * @param id Resource ID.
+     * @param storageKey Storage key of the audio data.
+     */
+    private record Candidate(int id, String storageKey) {
+    }
+
+    /**
+     * Outcome counts of a processed page.
+     *
+     * @param saved Resources whose metadata Song Service created or changed.
+     * @param unchanged Resources whose metadata Song Service already held.
+     * @param failed Resources whose metadata could not be extracted or was rejected.
+     */
+    private record PageResult(int saved, int unchanged, int failed) {
+    }
+}
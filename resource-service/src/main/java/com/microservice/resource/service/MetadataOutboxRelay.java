@@ -0,0 +1,313 @@
+package com.microservice.resource.service;
+
+import com.microservice.resource.entity.MetadataEventType;
+import com.microservice.resource.entity.MetadataStatus;
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.Gauge;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.Timer;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Component;
+import org.springframework.web.client.HttpClientErrorException;
+import org.springframework.web.client.RestClientException;
+
+import java.sql.Timestamp;
+import java.time.Duration;
+import java.time.Instant;
+import java.time.OffsetDateTime;
+import java.time.ZoneOffset;
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.Comparator;
+import java.util.List;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicLong;
+
+/**
+ * Delivers metadata changes recorded in the outbox to Song Service.
+ * Events are claimed in batches under a lease, so several instances can relay concurrently,
+ * and are removed only after Song Service acknowledged them, which gives at-least-once delivery.
+ * Events of a resource are delivered in the order they were written; failed deliveries
+ * are retried with exponential backoff. Only an event Song Service reports as invalid is dropped:
+ * a client error for the whole request, e.g. a batch larger than Song Service accepts, is retried
+ * like any other failure and counted as resource.outbox.refused, since it says nothing about the events.
+ * The time from writing a creation event to its acknowledgment by Song Service is recorded
+ * as resource.metadata.propagation; the relay's own statements are timed as resource.db.query.
+ */
+@Slf4j
+@Component
+public class MetadataOutboxRelay {
+
+    // Claims due events whose resource has no older event left, pushing them out of reach for the lease
+    private static final String CLAIM_SQL = "UPDATE metadata_outbox SET next_attempt_at = ? WHERE id IN ("
+            + "SELECT o.id FROM metadata_outbox o WHERE o.next_attempt_at <= ? AND NOT EXISTS ("
+            + "SELECT 1 FROM metadata_outbox p WHERE p.resource_id = o.resource_id AND p.id < o.id) "
+            + "ORDER BY o.id LIMIT ? FOR UPDATE SKIP LOCKED) "
+            + "RETURNING id, resource_id, type, payload, attempts, created_at";
+    private static final String DELETE_EVENTS_SQL = "DELETE FROM metadata_outbox WHERE id = ANY (?)";
+    private static final String RESCHEDULE_EVENT_SQL = "UPDATE metadata_outbox "
+            + "SET attempts = ?, next_attempt_at = ? WHERE id = ?";
+    private static final String UPDATE_STATUS_SQL = "UPDATE resources SET metadata_status = ? WHERE id = ANY (?)";
+    private static final String STATS_SQL = "SELECT count(*), min(created_at) FROM metadata_outbox";
+
+    private final JdbcTemplate jdbcTemplate;
+    private final SongServiceClient songServiceClient;
+
+    private final Counter createdCounter;
+    private final Counter deletedCounter;
+    private final Counter retriedCounter;
+    private final Counter rejectedCounter;
+    private final Counter refusedCounter;
+    private final Timer propagationTimer;
+    private final Timer claimTimer;
+    private final Timer deleteTimer;
+    private final Timer rescheduleTimer;
+    private final Timer updateStatusTimer;
+    private final AtomicLong pendingEvents = new AtomicLong();
+    private final AtomicLong oldestEventMillis = new AtomicLong();
+
+    @Value("${resource.outbox.batch-size:50}")
+    private int batchSize;
+
+    @Value("${resource.outbox.lease:30s}")
+    private Duration lease;
+
+    @Value("${resource.outbox.initial-backoff:1s}")
+    private Duration initialBackoff;
+
+    @Value("${resource.outbox.max-backoff:5m}")
+    private Duration maxBackoff;
+
+    public MetadataOutboxRelay(JdbcTemplate jdbcTemplate, SongServiceClient songServiceClient, MeterRegistry registry) {
+        this.jdbcTemplate = jdbcTemplate;
+        this.songServiceClient = songServiceClient;
+        this.createdCounter = Counter.builder("resource.outbox.delivered").tag("type", "create")
+                .description("Metadata events delivered to Song Service").register(registry);
+        this.deletedCounter = Counter.builder("resource.outbox.delivered").tag("type", "delete")
+                .description("Metadata events delivered to Song Service").register(registry);
+        this.retriedCounter = Counter.builder("resource.outbox.retried")
+                .description("Failed metadata event deliveries scheduled for retry").register(registry);
+        this.rejectedCounter = Counter.builder("resource.outbox.rejected")
+                .description("Metadata events permanently rejected by Song Service").register(registry);
+        this.refusedCounter = Counter.builder("resource.outbox.refused")
+                .description("Metadata requests refused by Song Service with a client error, whose events are retried")
+                .register(registry);
+        this.propagationTimer = Timer.builder("resource.metadata.propagation")
+                .description("Time from uploading a resource until Song Service acknowledged its metadata")
+                .register(registry);
+        this.claimTimer = queryTimer("outbox-claim", registry);
+        this.deleteTimer = queryTimer("outbox-delete", registry);
+        this.rescheduleTimer = queryTimer("outbox-reschedule", registry);
+        this.updateStatusTimer = queryTimer("metadata-status-update", registry);
+        Gauge.builder("resource.outbox.pending", pendingEvents, AtomicLong::get)
+                .description("Metadata events waiting for delivery").register(registry);
+        Gauge.builder("resource.outbox.lag", this, MetadataOutboxRelay::lagSeconds).baseUnit("seconds")
+                .description("Age of the oldest metadata event waiting for delivery").register(registry);
+    }
+
+    /**
+     * Drains all due events in batches.
+     */
+    @Scheduled(fixedDelayString = "${resource.outbox.poll-interval:200ms}")
+    public void relay() {
+        try {
+            List<OutboxEvent> events;
+            do {
+                events = claim();
+                deliver(events);
+            } while (events.size() == batchSize);
+        } catch (RuntimeException e) {
+            log.error("Failed to relay metadata events: {}", e.getMessage());
+        }
+    }
+
+    /**
+     * Claims the next batch of due events for the duration of the lease.
+     *
+     * @return Claimed events in the order they were written.
+     */
+    private List<OutboxEvent> claim() {
+        Instant now = Instant.now();
+        long start = System.nanoTime();
+        List<OutboxEvent> events = new ArrayList<>(jdbcTemplate.query(CLAIM_SQL,
+                (rs, rowNum) -> new OutboxEvent(rs.getLong("id"), rs.getInt("resource_id"),
+                        MetadataEventType.valueOf(rs.getString("type")), rs.getString("payload"), rs.getInt("attempts"),
+                        rs.getTimestamp("created_at").toInstant()),
+                timestamp(now.plus(lease)), timestamp(now), batchSize));
+        record(claimTimer, start);
+        events.sort(Comparator.comparingLong(OutboxEvent::id));
+        return events;
+    }
+
+    /**
+     * Delivers a batch of events. Creations and deletions are each sent in a single request.
+     *
+     * @param events Claimed events.
+     */
+    private void deliver(List<OutboxEvent> events) {
+        List<OutboxEvent> delivered = new ArrayList<>();
+        List<OutboxEvent> creations = events.stream().filter(event -> event.type() == MetadataEventType.CREATE).toList();
+        List<OutboxEvent> deletions = events.stream().filter(event -> event.type() == MetadataEventType.DELETE).toList();
+
+        if (!creations.isEmpty()) {
+            try {
+                List<String> results = songServiceClient.sendMetadata(creations.stream().map(OutboxEvent::payload).toList());
+                for (int i = 0; i < creations.size(); i++) {
+                    // Metadata Song Service already holds was delivered by an earlier attempt
+                    if ("INVALID".equals(results.get(i))) {
+                        reject(creations.get(i), "invalid metadata");
+                    } else {
+                        delivered.add(creations.get(i));
+                        createdCounter.increment();
+                        propagationTimer.record(Duration.between(creations.get(i).createdAt(), Instant.now()));
+                    }
+                }
+            } catch (RestClientException e) {
+                failed(creations, e);
+            }
+        }
+
+        if (!deletions.isEmpty()) {
+            try {
+                songServiceClient.deleteMetadata(deletions.stream().map(OutboxEvent::resourceId).toList());
+                delivered.addAll(deletions);
+                deletedCounter.increment(deletions.size());
+            } catch (RestClientException e) {
+                failed(deletions, e);
+            }
+        }
+
+        remove(delivered);
+        updateStatus(delivered.stream().filter(event -> event.type() == MetadataEventType.CREATE).toList(),
+                MetadataStatus.DONE);
+    }
+
+    /**
+     * Schedules the events of a failed request for another attempt. A client error refusing the whole request
+     * is a configuration or compatibility problem rather than a problem of the events, so it is reported
+     * and retried instead of dropping the events.
+     *
+     * @param events Events that could not be delivered.
+     * @param e Cause of the failure.
+     */
+    private void failed(List<OutboxEvent> events, RestClientException e) {
+        if (e instanceof HttpClientErrorException clientError) {
+            log.error("Song Service refused a request with {} {} events ({}), retrying with backoff: {}",
+                    events.size(), events.getFirst().type(), clientError.getStatusCode().value(), e.getMessage());
+            refusedCounter.increment();
+        }
+        events.forEach(event -> reschedule(event, e));
+    }
+
+    /**
+     * Schedules a failed event for another attempt.
+     *
+     * @param event Event that could not be delivered.
+     * @param e Cause of the failure.
+     */
+    private void reschedule(OutboxEvent event, RestClientException e) {
+        int attempts = event.attempts() + 1;
+        Duration backoff = initialBackoff.multipliedBy(1L << Math.min(attempts - 1, 20));
+        if (backoff.compareTo(maxBackoff) > 0) {
+            backoff = maxBackoff;
+        }
+        log.warn("Failed to deliver {} event for resource {} (attempt {}), retrying in {}: {}",
+                event.type(), event.resourceId(), attempts, backoff, e.getMessage());
+        retriedCounter.increment();
+        long start = System.nanoTime();
+        jdbcTemplate.update(RESCHEDULE_EVENT_SQL, attempts, timestamp(Instant.now().plus(backoff)), event.id());
+        record(rescheduleTimer, start);
+    }
+
+    /**
+     * Drops an event Song Service will never accept.
+     *
+     * @param event Rejected event.
+     * @param reason Reason given by Song Service.
+     */
+    private void reject(OutboxEvent event, String reason) {
+        log.error("Song Service rejected {} event for resource {}: {}", event.type(), event.resourceId(), reason);
+        rejectedCounter.increment();
+        remove(List.of(event));
+        if (event.type() == MetadataEventType.CREATE) {
+            updateStatus(List.of(event), MetadataStatus.FAILED);
+        }
+    }
+
+    /**
+     * Removes events from the outbox.
+     *
+     * @param events Events to remove.
+     */
+    private void remove(Collection<OutboxEvent> events) {
+        if (events.isEmpty()) return;
+
+        Long[] ids = events.stream().map(OutboxEvent::id).toArray(Long[]::new);
+        long start = System.nanoTime();
+        jdbcTemplate.update(DELETE_EVENTS_SQL, ps -> ps.setArray(1, ps.getConnection().createArrayOf("bigint", ids)));
+        record(deleteTimer, start);
+    }
+
+    /**
+     * Records the metadata state of the resources the events belong to.
+     *
+     * @param events Events of the resources to update.
+     * @param status New metadata state.
+     */
+    private void updateStatus(Collection<OutboxEvent> events, MetadataStatus status) {
+        if (events.isEmpty()) return;
+
+        Integer[] ids = events.stream().map(OutboxEvent::resourceId).toArray(Integer[]::new);
+        long start = System.nanoTime();
+        jdbcTemplate.update(UPDATE_STATUS_SQL, ps -> {
+            ps.setString(1, status.name());
+            ps.setArray(2, ps.getConnection().createArrayOf("integer", ids));
+        });
+        record(updateStatusTimer, start);
+    }
+
+    /**
+     * Refreshes the number of pending events and the age of the oldest one. Counting scans the whole outbox,
+     * which is largest while Song Service is unavailable, so this runs far less often than the relay.
+     */
+    @Scheduled(fixedDelayString = "${resource.outbox.stats-interval:15s}")
+    public void refreshStats() {
+        try {
+            jdbcTemplate.query(STATS_SQL, rs -> {
+                pendingEvents.set(rs.getLong(1));
+                Timestamp oldest = rs.getTimestamp(2);
+                oldestEventMillis.set(oldest == null ? 0 : oldest.getTime());
+            });
+        } catch (RuntimeException e) {
+            log.warn("Failed to read metadata outbox statistics: {}", e.getMessage());
+        }
+    }
+
+    private double lagSeconds() {
+        long oldest = oldestEventMillis.get();
+        return oldest == 0 ? 0 : Math.max(0, System.currentTimeMillis() - oldest) / 1000.0;
+    }
+
+    private static Timer queryTimer(String query, MeterRegistry registry) {
+        return Timer.builder("resource.db.query").tag("query", query)
+                .description("Execution time of SQL statements issued through JdbcTemplate").register(registry);
+    }
+
+    private static void record(Timer timer, long start) {
+        timer.record(System.nanoTime() - start, TimeUnit.NANOSECONDS);
+    }
+
+    private static OffsetDateTime timestamp(Instant instant) {
+        return instant.atOffset(ZoneOffset.UTC);
+    }
+
+    /**
+     * Claimed outbox row.
+     */
+    private record OutboxEvent(long id, int resourceId, MetadataEventType type, String payload, int attempts,
+                               Instant createdAt) {
+    }
+}
@@ -0,0 +1,13 @@
+package com.microservice.resource.service;
+
+/**
+ * Metadata parsed from an MP3 stream.
+ *
+ * @param title Song title, or null if not tagged.
+ * @param artist Artist name, or null if not tagged.
+ * @param album Album name, or null if not tagged.
+ * @param year Release year, or null if not tagged.
+ * @param durationSeconds Playback duration in seconds, 0 if no audio frames were found.
+ */
+public record Mp3Metadata(String title, String artist, String album, String year, float durationSeconds) {
+}
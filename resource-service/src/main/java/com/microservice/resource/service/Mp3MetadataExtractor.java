@@ -1,56 +1,67 @@
 package com.microservice.resource.service;
 
 import lombok.extern.slf4j.Slf4j;
-import org.apache.tika.metadata.Metadata;
-import org.apache.tika.metadata.TikaCoreProperties;
-import org.apache.tika.parser.ParseContext;
-import org.apache.tika.parser.mp3.Mp3Parser;
 import org.springframework.stereotype.Component;
-import org.xml.sax.ContentHandler;
-import org.xml.sax.helpers.DefaultHandler;
 
-import java.io.ByteArrayInputStream;
+import java.io.InputStream;
 import java.util.HashMap;
 import java.util.Map;
 
 /**
  * Service for extracting MP3 metadata.
- * Uses Apache Tika to parse MP3 files and extract metadata.
+ * Uses {@link Mp3StreamParser} to read ID3 tags and the duration of MP3 files.
  */
 @Slf4j
 @Component
 public class Mp3MetadataExtractor {
 
+    private static final int BUFFER_SIZE = 8192;
 
     /**
      * Extracts metadata from MP3 audio data.
-     * Uses Apache Tika to parse MP3 files.
+     * The stream is read to its end.
      *
-     * @param audioData Binary MP3 data.
+     * @param audioStream Stream of binary MP3 data.
      * @return Map of extracted metadata.
      */
-    public Map<String, String> extractMetadata(long id, byte[] audioData) {
+    public Map<String, String> extractMetadata(long id, InputStream audioStream) {
+        try {
+            Mp3StreamParser parser = new Mp3StreamParser();
+            byte[] buffer = new byte[BUFFER_SIZE];
+            int read;
+            while ((read = audioStream.read(buffer)) != -1) {
+                parser.update(buffer, 0, read);
+            }
+            return extractMetadata(id, parser);
+        } catch (Exception e) {
+            log.error("Failed to extract metadata from MP3 file: {}", e.getMessage());
+            // Return empty metadata map on failure instead of throwing exception
+            return new HashMap<>();
+        }
+    }
+
+    /**
+     * Extracts metadata from a parser that has been fed the complete MP3 data,
+     * e.g. while the data was streamed into storage.
+     *
+     * @param parser Parser holding the parsed MP3 data.
+     * @return Map of extracted metadata.
+     */
+    public Map<String, String> extractMetadata(long id, Mp3StreamParser parser) {
         Map<String, String> extractedMetadata = new HashMap<>();
 
         try {
-            Metadata metadata = new Metadata();
-            ContentHandler handler = new DefaultHandler();
-            ParseContext context = new ParseContext();
-
-            // Parse MP3 file using Tika
-            Mp3Parser parser = new Mp3Parser();
-            ByteArrayInputStream stream = new ByteArrayInputStream(audioData);
-            parser.parse(stream, handler, metadata, context);
+            Mp3Metadata metadata = parser.finish();
 
             // Extract common metadata fields
             extractedMetadata.put("id", String.valueOf(id));
-            extractedMetadata.put("name", getMetadataValue(metadata, "dc:title", "Unknown"));
-            extractedMetadata.put("artist", getMetadataValue(metadata, "xmpDM:artist", "Unknown"));
-            extractedMetadata.put("album", getMetadataValue(metadata, "xmpDM:album", "Unknown"));
-            extractedMetadata.put("duration", convertDuration(getMetadataValue(metadata, "xmpDM:duration", "0")));
-            extractedMetadata.put("year", getMetadataValue(metadata, "xmpDM:releaseDate", "Unknown"));
+            extractedMetadata.put("name", getMetadataValue(metadata.title(), "Unknown"));
+            extractedMetadata.put("artist", getMetadataValue(metadata.artist(), "Unknown"));
+            extractedMetadata.put("album", getMetadataValue(metadata.album(), "Unknown"));
+            extractedMetadata.put("duration", convertDuration(metadata.durationSeconds()));
+            extractedMetadata.put("year", getMetadataValue(metadata.year(), "Unknown"));
 
-            log.info("Metadata extracted successfully from MP3 file using Apache Tika");
+            log.debug("Metadata extracted successfully from MP3 file");
             return extractedMetadata;
         } catch (Exception e) {
             log.error("Failed to extract metadata from MP3 file: {}", e.getMessage());
@@ -60,39 +71,27 @@ public class Mp3MetadataExtractor {
     }
 
     /**
-     * Gets metadata value from Tika Metadata object with fallback.
+     * Gets metadata value with fallback.
      *
-     * @param metadata Tika Metadata object.
-     * @param key Metadata key.
-     * @param defaultValue Default value if key not found.
+     * @param value Parsed value, possibly null or empty.
+     * @param defaultValue Default value if no value was parsed.
      * @return Metadata value or default.
      */
-    private String getMetadataValue(Metadata metadata, String key, String defaultValue) {
-        String value = metadata.get(key);
+    private String getMetadataValue(String value, String defaultValue) {
         return (value != null && !value.isEmpty()) ? value : defaultValue;
     }
 
     /**
      * Converts duration from seconds to MM:SS, with leading zeros.
-     * @param durationSeconds Duration in seconds as a string.
-     * @return Formatted duration string or null if input is invalid.
+     * @param durationSeconds Duration in seconds.
+     * @return Formatted duration string.
      */
-    private String convertDuration(String durationSeconds) {
-        if (durationSeconds == null) return null;
-
-        try {
-            double secondsDouble = Double.parseDouble(durationSeconds);
-            int totalSeconds = (int) secondsDouble;
+    private String convertDuration(float durationSeconds) {
+        int totalSeconds = (int) durationSeconds;
 
-            int minutes = totalSeconds / 60;
-            int seconds = totalSeconds % 60;
+        int minutes = totalSeconds / 60;
+        int seconds = totalSeconds % 60;
 
-            return String.format("%02d:%02d", minutes, seconds);
-
-        } catch (NumberFormatException e) {
-            return null;
-        }
+        return String.format("%02d:%02d", minutes, seconds);
     }
 }
-
-
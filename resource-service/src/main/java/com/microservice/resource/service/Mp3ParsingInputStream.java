@@ -0,0 +1,48 @@
+package com.microservice.resource.service;
+
+import java.io.FilterInputStream;
+import java.io.IOException;
+import java.io.InputStream;
+
+/**
+ * Input stream that feeds every chunk read through it to an {@link Mp3StreamParser},
+ * so metadata is extracted in the same pass that copies the data elsewhere.
+ */
+class Mp3ParsingInputStream extends FilterInputStream {
+
+    private final Mp3StreamParser parser;
+    private final byte[] single = new byte[1];
+
+    Mp3ParsingInputStream(InputStream in, Mp3StreamParser parser) {
+        super(in);
+        this.parser = parser;
+    }
+
+    @Override
+    public int read() throws IOException {
+        int read = read(single, 0, 1);
+        return read == -1 ? -1 : single[0] & 0xFF;
+    }
+
+    @Override
+    public int read(byte[] b, int off, int len) throws IOException {
+        int read = in.read(b, off, len);
+        if (read > 0) {
+            parser.update(b, off, read);
+        }
+        return read;
+    }
+
+    @Override
+    public long skip(long n) throws IOException {
+        // Skipped bytes would bypass the parser
+        byte[] buffer = new byte[(int) Math.min(n, 8192)];
+        int read = read(buffer, 0, buffer.length);
+        return Math.max(read, 0);
+    }
+
+    @Override
+    public boolean markSupported() {
+        return false;
+    }
+}
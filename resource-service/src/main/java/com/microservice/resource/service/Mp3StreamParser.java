@@ -0,0 +1,674 @@
+package com.microservice.resource.service;
+
+import java.nio.charset.Charset;
+import java.nio.charset.StandardCharsets;
+import java.util.Arrays;
+
+/**
+ * Incremental parser extracting title, artist, album, year and duration from MP3 data.
+ * Data is pushed in chunks through {@link #update(byte[], int, int)}, so the parser can run on the same
+ * buffers an upload is streamed through. It reads ID3v2.2/2.3/2.4 tags at the start of the stream,
+ * the ID3v1 tag in the last 128 bytes and the Xing/Info or VBRI header of the first MPEG frame.
+ * Audio frames are only counted when no such header exists. All state is kept in primitive fields
+ * and reused buffers, so no objects are allocated per frame.
+ * <p>
+ * Tag precedence and text decoding follow Apache Tika's Mp3Parser: ID3v2.4 is preferred over
+ * ID3v2.3, ID3v2.2 and ID3v1, and the last occurrence of a frame within a tag wins.
+ * Instances are not thread-safe and parse a single stream.
+ */
+public class Mp3StreamParser {
+
+    // Parser states
+    private static final int STATE_TAG_HEADER = 0;
+    private static final int STATE_TAG_BODY = 1;
+    private static final int STATE_SKIP = 2;
+    private static final int STATE_AUDIO = 3;
+    private static final int STATE_TAIL = 4;
+
+    // States within an ID3v2 tag body
+    private static final int FRAME_EXT_HEADER = 0;
+    private static final int FRAME_HEADER = 1;
+    private static final int FRAME_CAPTURE = 2;
+    private static final int FRAME_SKIP = 3;
+    private static final int FRAME_PADDING = 4;
+
+    // States within MPEG audio data
+    private static final int AUDIO_SYNC = 0;
+    private static final int AUDIO_CAPTURE = 1;
+    private static final int AUDIO_SKIP = 2;
+
+    // Indexes of extracted fields
+    private static final int TITLE = 0;
+    private static final int ARTIST = 1;
+    private static final int ALBUM = 2;
+    private static final int YEAR = 3;
+
+    // Tag slots in order of preference
+    private static final int SLOT_V24 = 0;
+    private static final int SLOT_V23 = 1;
+    private static final int SLOT_V22 = 2;
+    private static final int SLOT_V1 = 3;
+
+    private static final int ID3V1_SIZE = 128;
+    private static final int ID3V2_HEADER_SIZE = 10;
+    private static final int MAX_TEXT_FRAME_SIZE = 64 * 1024;
+    // Enough of the first frame to hold a Xing/Info header (offset up to 32) or a VBRI header (offset 32)
+    private static final int VBR_HEADER_CAPTURE_SIZE = 50;
+
+    private static final int[][] BIT_RATES = {
+            // MPEG 1, layers I, II, III
+            {0, 32, 64, 96, 128, 160, 192, 224, 256, 288, 320, 352, 384, 416, 448},
+            {0, 32, 48, 56, 64, 80, 96, 112, 128, 160, 192, 224, 256, 320, 384},
+            {0, 32, 40, 48, 56, 64, 80, 96, 112, 128, 160, 192, 224, 256, 320},
+            // MPEG 2 and 2.5, layer I and layers II/III
+            {0, 32, 48, 56, 64, 80, 96, 112, 128, 144, 160, 176, 192, 224, 256},
+            {0, 8, 16, 24, 32, 40, 48, 56, 64, 80, 96, 112, 128, 144, 160}
+    };
+    private static final int[][] SAMPLE_RATES = {
+            {11025, 12000, 8000},   // MPEG 2.5
+            {0, 0, 0},              // reserved
+            {22050, 24000, 16000},  // MPEG 2
+            {44100, 48000, 32000}   // MPEG 1
+    };
+    private static final Charset[] TEXT_ENCODINGS = {
+            StandardCharsets.ISO_8859_1, StandardCharsets.UTF_16, StandardCharsets.UTF_16BE, StandardCharsets.UTF_8
+    };
+
+    private final String[][] fields = new String[4][4];
+
+    private int state = STATE_TAG_HEADER;
+    private long totalBytes;
+
+    // ID3v1 tag candidate: ring buffer of the last 128 bytes
+    private final byte[] tail = new byte[ID3V1_SIZE];
+    private int tailPosition;
+
+    // ID3v2 tag state
+    private final byte[] tagHeader = new byte[ID3V2_HEADER_SIZE];
+    private int tagHeaderCount;
+    private int tagVersion;
+    private int tagSlot;
+    private boolean tagUnsynchronised;
+    private boolean lastByteWasFF;
+    private long tagRemaining;
+    private long skipRemaining;
+    private byte[] unsyncBuffer;
+
+    // ID3v2 frame state
+    private int frameState;
+    private final byte[] frameHeader = new byte[ID3V2_HEADER_SIZE];
+    private int frameHeaderCount;
+    private int frameField;
+    private int frameFlags;
+    private int frameRemaining;
+    private byte[] frameData = new byte[256];
+    private int frameDataCount;
+
+    // MPEG audio state
+    private int audioState = AUDIO_SYNC;
+    private int syncHeader;
+    private int syncCount;
+    private int audioFrameRemaining;
+    private long frameCount;
+    private float durationMillis;
+    private final byte[] firstFrame = new byte[VBR_HEADER_CAPTURE_SIZE];
+    private int firstFrameCount;
+    private int firstFrameCaptureSize;
+    private int firstFrameSideInfoSize;
+    private float firstFrameDurationMillis;
+    private long vbrFrameCount = -1;
+
+    /**
+     * Feeds the next chunk of MP3 data to the parser.
+     *
+     * @param buffer Buffer holding the data; it is not modified.
+     * @param offset Offset of the chunk in the buffer.
+     * @param length Length of the chunk.
+     */
+    public void update(byte[] buffer, int offset, int length) {
+        updateTail(buffer, offset, length);
+        totalBytes += length;
+
+        int position = offset;
+        int end = offset + length;
+        while (position < end) {
+            position = switch (state) {
+                case STATE_TAG_HEADER -> readTagHeader(buffer, position, end);
+                case STATE_TAG_BODY -> readTagBody(buffer, position, end);
+                case STATE_SKIP -> skip(position, end);
+                case STATE_AUDIO -> readAudio(buffer, position, end);
+                default -> end;
+            };
+        }
+    }
+
+    /**
+     * Completes parsing once the whole stream has been fed to the parser.
+     *
+     * @return Extracted metadata.
+     */
+    public Mp3Metadata finish() {
+        if (state == STATE_TAG_HEADER && tagHeaderCount > 0) {
+            // Stream ended before a full tag header could be read
+            startAudio(tagHeader, tagHeaderCount);
+        }
+        readId3v1();
+
+        float duration = vbrFrameCount >= 0
+                // The frame carrying the VBR header is itself a valid frame and counts towards the duration
+                ? (vbrFrameCount + 1) * firstFrameDurationMillis
+                : durationMillis;
+
+        return new Mp3Metadata(field(TITLE), field(ARTIST), field(ALBUM), field(YEAR), duration / 1000f);
+    }
+
+    /**
+     * Returns the value of a field from the most preferred tag that has it.
+     */
+    private String field(int index) {
+        for (String[] slot : fields) {
+            if (slot[index] != null) {
+                return slot[index];
+            }
+        }
+        return null;
+    }
+
+    private void updateTail(byte[] buffer, int offset, int length) {
+        if (length >= ID3V1_SIZE) {
+            System.arraycopy(buffer, offset + length - ID3V1_SIZE, tail, 0, ID3V1_SIZE);
+            tailPosition = 0;
+            return;
+        }
+        for (int i = 0; i < length; i++) {
+            tail[tailPosition] = buffer[offset + i];
+            tailPosition = (tailPosition + 1) % ID3V1_SIZE;
+        }
+    }
+
+    private int skip(int position, int end) {
+        int skipped = (int) Math.min(end - position, skipRemaining);
+        skipRemaining -= skipped;
+        if (skipRemaining == 0) {
+            state = STATE_TAG_HEADER;
+        }
+        return position + skipped;
+    }
+
+    // ---------------------------------------------------------------- ID3v2
+
+    private int readTagHeader(byte[] buffer, int position, int end) {
+        int count = Math.min(end - position, ID3V2_HEADER_SIZE - tagHeaderCount);
+        System.arraycopy(buffer, position, tagHeader, tagHeaderCount, count);
+        tagHeaderCount += count;
+        position += count;
+        if (tagHeaderCount < ID3V2_HEADER_SIZE) {
+            return position;
+        }
+
+        tagHeaderCount = 0;
+        if (tagHeader[0] != 'I' || tagHeader[1] != 'D' || tagHeader[2] != '3'
+                || (tagHeader[6] | tagHeader[7] | tagHeader[8] | tagHeader[9]) < 0) {
+            startAudio(tagHeader, ID3V2_HEADER_SIZE);
+            return position;
+        }
+
+        tagVersion = tagHeader[3];
+        int flags = tagHeader[5];
+        tagRemaining = syncSafe(tagHeader, 6);
+        if (tagVersion < 2 || tagVersion > 4) {
+            skipRemaining = tagRemaining;
+            state = STATE_SKIP;
+            return position;
+        }
+
+        tagSlot = tagVersion == 4 ? SLOT_V24 : tagVersion == 3 ? SLOT_V23 : SLOT_V22;
+        // A later tag of the same version replaces an earlier one
+        Arrays.fill(fields[tagSlot], null);
+        // ID3v2.4 marks unsynchronisation on each frame instead
+        tagUnsynchronised = tagVersion < 4 && (flags & 0x80) != 0;
+        lastByteWasFF = false;
+        frameHeaderCount = 0;
+        frameState = tagVersion > 2 && (flags & 0x40) != 0 ? FRAME_EXT_HEADER : FRAME_HEADER;
+        // ID3v2.4 footer follows the tag body
+        skipRemaining = tagVersion == 4 && (flags & 0x10) != 0 ? ID3V2_HEADER_SIZE : 0;
+        state = tagRemaining > 0 ? STATE_TAG_BODY : nextStateAfterTag();
+        return position;
+    }
+
+    private int nextStateAfterTag() {
+        return skipRemaining > 0 ? STATE_SKIP : STATE_TAG_HEADER;
+    }
+
+    private int readTagBody(byte[] buffer, int position, int end) {
+        int count = (int) Math.min(end - position, tagRemaining);
+        if (tagUnsynchronised) {
+            int length = removeUnsynchronisation(buffer, position, count);
+            readFrames(unsyncBuffer, 0, length);
+        } else {
+            readFrames(buffer, position, position + count);
+        }
+
+        tagRemaining -= count;
+        if (tagRemaining == 0) {
+            state = nextStateAfterTag();
+        }
+        return position + count;
+    }
+
+    /**
+     * Copies a chunk of an unsynchronised tag into the scratch buffer, dropping each 0x00 that follows 0xFF.
+     *
+     * @return Number of bytes in the scratch buffer.
+     */
+    private int removeUnsynchronisation(byte[] buffer, int position, int count) {
+        if (unsyncBuffer == null || unsyncBuffer.length < count) {
+            unsyncBuffer = new byte[Math.max(count, 1024)];
+        }
+        int length = 0;
+        for (int i = position; i < position + count; i++) {
+            byte b = buffer[i];
+            if (!(lastByteWasFF && b == 0)) {
+                unsyncBuffer[length++] = b;
+            }
+            lastByteWasFF = b == (byte) 0xFF;
+        }
+        return length;
+    }
+
+    private void readFrames(byte[] buffer, int position, int end) {
+        while (position < end) {
+            switch (frameState) {
+                case FRAME_EXT_HEADER -> {
+                    int count = Math.min(end - position, 4 - frameHeaderCount);
+                    System.arraycopy(buffer, position, frameHeader, frameHeaderCount, count);
+                    frameHeaderCount += count;
+                    position += count;
+                    if (frameHeaderCount == 4) {
+                        // ID3v2.3 size excludes the size field, ID3v2.4 size includes it
+                        int size = tagVersion == 4 ? syncSafe(frameHeader, 0) - 4 : int32(frameHeader, 0);
+                        frameHeaderCount = 0;
+                        frameField = -1;
+                        frameRemaining = Math.max(size, 0);
+                        frameState = frameRemaining > 0 ? FRAME_SKIP : FRAME_HEADER;
+                    }
+                }
+                case FRAME_HEADER -> {
+                    int headerSize = tagVersion == 2 ? 6 : ID3V2_HEADER_SIZE;
+                    int count = Math.min(end - position, headerSize - frameHeaderCount);
+                    System.arraycopy(buffer, position, frameHeader, frameHeaderCount, count);
+                    frameHeaderCount += count;
+                    position += count;
+                    if (frameHeader[0] == 0) {
+                        // Padding fills the rest of the tag
+                        frameState = FRAME_PADDING;
+                    } else if (frameHeaderCount == headerSize) {
+                        frameHeaderCount = 0;
+                        startFrame();
+                    }
+                }
+                case FRAME_CAPTURE -> {
+                    int count = Math.min(end - position, frameRemaining);
+                    System.arraycopy(buffer, position, frameData, frameDataCount, count);
+                    frameDataCount += count;
+                    frameRemaining -= count;
+                    position += count;
+                    if (frameRemaining == 0) {
+                        handleTextFrame();
+                        frameState = FRAME_HEADER;
+                    }
+                }
+                case FRAME_SKIP -> {
+                    int count = Math.min(end - position, frameRemaining);
+                    frameRemaining -= count;
+                    position += count;
+                    if (frameRemaining == 0) {
+                        frameState = FRAME_HEADER;
+                    }
+                }
+                default -> position = end;
+            }
+        }
+    }
+
+    private void startFrame() {
+        int id;
+        int size;
+        if (tagVersion == 2) {
+            id = (frameHeader[0] & 0xFF) << 16 | (frameHeader[1] & 0xFF) << 8 | (frameHeader[2] & 0xFF);
+            size = (frameHeader[3] & 0xFF) << 16 | (frameHeader[4] & 0xFF) << 8 | (frameHeader[5] & 0xFF);
+            frameFlags = 0;
+        } else {
+            id = int32(frameHeader, 0);
+            size = tagVersion == 4 ? syncSafe(frameHeader, 4) : int32(frameHeader, 4);
+            frameFlags = frameHeader[9] & 0xFF;
+        }
+
+        if (size <= 0) {
+            frameState = FRAME_HEADER;
+            return;
+        }
+        frameField = textFrameField(id);
+        frameRemaining = size;
+        if (frameField < 0 || size > MAX_TEXT_FRAME_SIZE || isCompressedOrEncrypted()) {
+            frameState = FRAME_SKIP;
+            return;
+        }
+        if (frameData.length < size) {
+            frameData = new byte[Math.max(size, frameData.length * 2)];
+        }
+        frameDataCount = 0;
+        frameState = FRAME_CAPTURE;
+    }
+
+    private boolean isCompressedOrEncrypted() {
+        return switch (tagVersion) {
+            case 3 -> (frameFlags & 0xC0) != 0;
+            case 4 -> (frameFlags & 0x0C) != 0;
+            default -> false;
+        };
+    }
+
+    /**
+     * Maps a frame ID to the field it holds, or -1 for frames that are not extracted.
+     */
+    private int textFrameField(int id) {
+        if (tagVersion == 2) {
+            return switch (id) {
+                case 0x545432 -> TITLE;     // TT2
+                case 0x545031 -> ARTIST;    // TP1
+                case 0x54414C -> ALBUM;     // TAL
+                case 0x545945 -> YEAR;      // TYE
+                default -> -1;
+            };
+        }
+        return switch (id) {
+            case 0x54495432 -> TITLE;       // TIT2
+            case 0x54504531 -> ARTIST;      // TPE1
+            case 0x54414C42 -> ALBUM;       // TALB
+            case 0x54594552 -> YEAR;        // TYER
+            case 0x54445243 -> tagVersion == 4 ? YEAR : -1; // TDRC
+            default -> -1;
+        };
+    }
+
+    private void handleTextFrame() {
+        int offset = 0;
+        int length = frameDataCount;
+        if (tagVersion == 3 && (frameFlags & 0x20) != 0) {
+            // Group identifier
+            offset += 1;
+        }
+        if (tagVersion == 4) {
+            if ((frameFlags & 0x40) != 0) {
+                offset += 1;
+            }
+            if ((frameFlags & 0x01) != 0) {
+                // Data length indicator
+                offset += 4;
+            }
+            if ((frameFlags & 0x02) != 0) {
+                length = offset + removeFrameUnsynchronisation(offset, length - offset);
+            }
+        }
+        if (offset > length) {
+            return;
+        }
+        fields[tagSlot][frameField] = decodeText(frameData, offset, length - offset);
+    }
+
+    private int removeFrameUnsynchronisation(int offset, int length) {
+        int out = offset;
+        for (int i = offset; i < offset + length; i++) {
+            if (!(i > offset && frameData[i - 1] == (byte) 0xFF && frameData[i] == 0)) {
+                frameData[out++] = frameData[i];
+            }
+        }
+        return out - offset;
+    }
+
+    /**
+     * Decodes an ID3v2 text frame: an optional encoding byte followed by the text,
+     * with trailing null terminators removed.
+     */
+    private static String decodeText(byte[] data, int offset, int length) {
+        if (length == 0 || (length == 1 && data[offset] == 0)) {
+            return "";
+        }
+
+        int encoding = data[offset];
+        Charset charset = TEXT_ENCODINGS[0];
+        if (encoding >= 0 && encoding < TEXT_ENCODINGS.length) {
+            charset = TEXT_ENCODINGS[encoding];
+            offset++;
+            length--;
+        } else {
+            encoding = 0;
+        }
+
+        boolean doubleByte = encoding == 1 || encoding == 2;
+        if (doubleByte) {
+            while (length >= 2 && data[offset + length - 1] == 0 && data[offset + length - 2] == 0) {
+                length -= 2;
+            }
+        } else {
+            while (length >= 1 && data[offset + length - 1] == 0) {
+                length--;
+            }
+        }
+        if (length == 0) {
+            return "";
+        }
+        if (encoding == 1 && length == 2 && isByteOrderMark(data, offset)) {
+            return "";
+        }
+        return new String(data, offset, length, charset);
+    }
+
+    private static boolean isByteOrderMark(byte[] data, int offset) {
+        return (data[offset] == (byte) 0xFF && data[offset + 1] == (byte) 0xFE)
+                || (data[offset] == (byte) 0xFE && data[offset + 1] == (byte) 0xFF);
+    }
+
+    // ---------------------------------------------------------------- ID3v1
+
+    private void readId3v1() {
+        if (totalBytes < ID3V1_SIZE) {
+            return;
+        }
+        byte[] tag = new byte[ID3V1_SIZE];
+        System.arraycopy(tail, tailPosition, tag, 0, ID3V1_SIZE - tailPosition);
+        System.arraycopy(tail, 0, tag, ID3V1_SIZE - tailPosition, tailPosition);
+        if (tag[0] != 'T' || tag[1] != 'A' || tag[2] != 'G') {
+            return;
+        }
+
+        String[] slot = fields[SLOT_V1];
+        slot[TITLE] = id3v1String(tag, 3, 33);
+        slot[ARTIST] = id3v1String(tag, 33, 63);
+        slot[ALBUM] = id3v1String(tag, 63, 93);
+        slot[YEAR] = id3v1String(tag, 93, 97);
+    }
+
+    /**
+     * Reads a fixed-width ID3v1 field, cut at the first null byte and trimmed of whitespace.
+     */
+    private static String id3v1String(byte[] tag, int start, int end) {
+        int stop = start;
+        while (stop < end && tag[stop] != 0) {
+            stop++;
+        }
+        while (stop > start && (tag[stop - 1] & 0xFF) <= ' ') {
+            stop--;
+        }
+        while (start < stop && (tag[start] & 0xFF) <= ' ') {
+            start++;
+        }
+        return new String(tag, start, stop - start, StandardCharsets.ISO_8859_1);
+    }
+
+    // ---------------------------------------------------------------- MPEG audio
+
+    private void startAudio(byte[] buffer, int length) {
+        state = STATE_AUDIO;
+        int position = 0;
+        while (position < length && state == STATE_AUDIO) {
+            position = readAudio(buffer, position, length);
+        }
+    }
+
+    private int readAudio(byte[] buffer, int position, int end) {
+        while (position < end && state == STATE_AUDIO) {
+            switch (audioState) {
+                case AUDIO_SYNC -> {
+                    if (syncCount == 0) {
+                        while (position < end && buffer[position] != (byte) 0xFF) {
+                            position++;
+                        }
+                        if (position == end) {
+                            return end;
+                        }
+                    }
+                    syncHeader = syncHeader << 8 | (buffer[position++] & 0xFF);
+                    syncCount++;
+                    if (syncCount == 4) {
+                        syncCount = 0;
+                        if (!startAudioFrame(syncHeader)) {
+                            resync();
+                        }
+                    }
+                }
+                case AUDIO_CAPTURE -> {
+                    int count = Math.min(end - position, firstFrameCaptureSize - firstFrameCount);
+                    System.arraycopy(buffer, position, firstFrame, firstFrameCount, count);
+                    firstFrameCount += count;
+                    audioFrameRemaining -= count;
+                    position += count;
+                    if (firstFrameCount == firstFrameCaptureSize) {
+                        if (readVbrHeader()) {
+                            state = STATE_TAIL;
+                            return end;
+                        }
+                        audioState = audioFrameRemaining > 0 ? AUDIO_SKIP : AUDIO_SYNC;
+                    }
+                }
+                default -> {
+                    int count = Math.min(end - position, audioFrameRemaining);
+                    audioFrameRemaining -= count;
+                    position += count;
+                    if (audioFrameRemaining == 0) {
+                        audioState = AUDIO_SYNC;
+                    }
+                }
+            }
+        }
+        return position;
+    }
+
+    /**
+     * After an invalid frame header, continues the sync search from the byte following the previous sync byte.
+     */
+    private void resync() {
+        for (int shift = 16; shift >= 0; shift -= 8) {
+            if (((syncHeader >>> shift) & 0xFF) == 0xFF) {
+                syncCount = shift / 8 + 1;
+                syncHeader &= (1 << (syncCount * 8)) - 1;
+                return;
+            }
+        }
+        syncCount = 0;
+    }
+
+    /**
+     * Validates an MPEG audio frame header and sets up reading of the frame body.
+     *
+     * @return false if the header is not a valid frame header.
+     */
+    private boolean startAudioFrame(int header) {
+        int version = (header >>> 19) & 3;
+        int layer = (header >>> 17) & 3;
+        int bitRateIndex = (header >>> 12) & 0xF;
+        int sampleRateIndex = (header >>> 10) & 3;
+        if ((header >>> 21) != 0x7FF || version == 1 || layer == 0
+                || bitRateIndex == 0 || bitRateIndex == 15 || sampleRateIndex == 3) {
+            return false;
+        }
+
+        boolean mpeg1 = version == 3;
+        boolean layer1 = layer == 3;
+        boolean layer3 = layer == 1;
+        int padding = (header >>> 9) & 1;
+        int bitRate = 1000 * BIT_RATES[mpeg1 ? 3 - layer : (layer1 ? 3 : 4)][bitRateIndex];
+        int sampleRate = SAMPLE_RATES[version][sampleRateIndex];
+
+        int samples;
+        int frameLength;
+        if (layer1) {
+            samples = 384;
+            frameLength = (12 * bitRate / sampleRate + padding) * 4;
+        } else if (layer3 && !mpeg1) {
+            samples = 576;
+            frameLength = 72 * bitRate / sampleRate + padding;
+        } else {
+            samples = 1152;
+            frameLength = 144 * bitRate / sampleRate + padding;
+        }
+        if (frameLength <= 4) {
+            return false;
+        }
+
+        float frameDuration = 1000f / sampleRate * samples;
+        durationMillis += frameDuration;
+        audioFrameRemaining = frameLength - 4;
+
+        if (frameCount++ == 0) {
+            boolean mono = ((header >>> 6) & 3) == 3;
+            firstFrameSideInfoSize = mpeg1 ? (mono ? 17 : 32) : (mono ? 9 : 17);
+            firstFrameDurationMillis = frameDuration;
+            firstFrameCaptureSize = Math.min(audioFrameRemaining, VBR_HEADER_CAPTURE_SIZE);
+            firstFrameCount = 0;
+            audioState = AUDIO_CAPTURE;
+        } else {
+            audioState = AUDIO_SKIP;
+        }
+        return true;
+    }
+
+    /**
+     * Reads the frame count from a Xing/Info or VBRI header in the first audio frame.
+     *
+     * @return true if the header holds the number of frames of the stream.
+     */
+    private boolean readVbrHeader() {
+        int xing = firstFrameSideInfoSize;
+        if (firstFrameCount >= xing + 12
+                && (matches(firstFrame, xing, 'X', 'i', 'n', 'g') || matches(firstFrame, xing, 'I', 'n', 'f', 'o'))
+                && (int32(firstFrame, xing + 4) & 1) != 0) {
+            vbrFrameCount = int32(firstFrame, xing + 8) & 0xFFFFFFFFL;
+            return true;
+        }
+
+        int vbri = 32;
+        if (firstFrameCount >= vbri + 18 && matches(firstFrame, vbri, 'V', 'B', 'R', 'I')) {
+            vbrFrameCount = int32(firstFrame, vbri + 14) & 0xFFFFFFFFL;
+            return true;
+        }
+        return false;
+    }
+
+    // ---------------------------------------------------------------- helpers
+
+    private static boolean matches(byte[] data, int offset, char a, char b, char c, char d) {
+        return data[offset] == a && data[offset + 1] == b && data[offset + 2] == c && data[offset + 3] == d;
+    }
+
+    private static int int32(byte[] data, int offset) {
+        return (data[offset] & 0xFF) << 24 | (data[offset + 1] & 0xFF) << 16
+                | (data[offset + 2] & 0xFF) << 8 | (data[offset + 3] & 0xFF);
+    }
+
+    private static int syncSafe(byte[] data, int offset) {
+        return (data[offset] & 0x7F) << 21 | (data[offset + 1] & 0x7F) << 14
+                | (data[offset + 2] & 0x7F) << 7 | (data[offset + 3] & 0x7F);
+    }
+}
@@ -1,74 +1,231 @@
 package com.microservice.resource.service;
 
 import com.microservice.resource.dto.DeleteResourcesResponseDto;
+import com.microservice.resource.dto.MetadataStatusResponseDto;
 import com.microservice.resource.dto.ResourceDataResponseDto;
 import com.microservice.resource.dto.ResourceIdResponseDto;
+import com.microservice.resource.dto.ResourceListResponseDto;
+import com.microservice.resource.dto.ResourceSummaryDto;
+import com.microservice.resource.entity.MetadataEventType;
+import com.microservice.resource.entity.MetadataOutboxEvent;
+import com.microservice.resource.entity.MetadataStatus;
 import com.microservice.resource.entity.Resource;
 import com.microservice.resource.exception.InvalidRequestException;
 import com.microservice.resource.exception.ResourceNotFoundException;
+import com.microservice.resource.repository.BlobRepository;
+import com.microservice.resource.repository.MetadataOutboxRepository;
 import com.microservice.resource.repository.ResourceRepository;
+import com.microservice.resource.repository.ResourceRepository.DeletedResource;
+import com.microservice.resource.storage.BlobStore;
+import com.microservice.resource.storage.StoredBlob;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.Timer;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.data.domain.Limit;
 import org.springframework.stereotype.Service;
+import org.springframework.transaction.support.TransactionTemplate;
+import tools.jackson.databind.json.JsonMapper;
 
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.UncheckedIOException;
+import java.time.Instant;
 import java.util.ArrayList;
 import java.util.Arrays;
+import java.util.LinkedHashSet;
 import java.util.List;
 import java.util.Map;
+import java.util.Optional;
+import java.util.Set;
+import java.util.concurrent.TimeUnit;
+import java.util.stream.Collectors;
 
 /**
  * Service for handling MP3 resource CRUD operations.
  */
+@Slf4j
 @Service
 public class ResourceService {
 
     private final ResourceRepository repository;
     private final Mp3MetadataExtractor metadataExtractor;
-    private final SongServiceClient songServiceClient;
+    private final BlobStore blobStore;
+    private final MetadataOutboxRepository outboxRepository;
+    private final BlobRepository blobRepository;
+    private final TransactionTemplate transactionTemplate;
+    private final JsonMapper jsonMapper;
+    private final AudioCache audioCache;
+
+    private final Timer storeTimer;
+    private final Timer extractTimer;
+    private final Timer persistTimer;
+
+    @Value("${resource.upload.buffer-size:65536}")
+    private int uploadBufferSize;
+
+    @Value("${resource.list.default-limit:100}")
+    private int defaultListLimit;
+
+    @Value("${resource.list.max-limit:1000}")
+    private int maxListLimit;
 
     public ResourceService(ResourceRepository repository,
                            Mp3MetadataExtractor metadataExtractor,
-                           SongServiceClient songServiceClient) {
+                           BlobStore blobStore,
+                           MetadataOutboxRepository outboxRepository,
+                           BlobRepository blobRepository,
+                           TransactionTemplate transactionTemplate,
+                           JsonMapper jsonMapper,
+                           AudioCache audioCache,
+                           MeterRegistry registry) {
         this.repository = repository;
         this.metadataExtractor = metadataExtractor;
-        this.songServiceClient = songServiceClient;
+        this.blobStore = blobStore;
+        this.outboxRepository = outboxRepository;
+        this.blobRepository = blobRepository;
+        this.transactionTemplate = transactionTemplate;
+        this.jsonMapper = jsonMapper;
+        this.audioCache = audioCache;
+        this.storeTimer = uploadStageTimer("store", registry);
+        this.extractTimer = uploadStageTimer("extract", registry);
+        this.persistTimer = uploadStageTimer("persist", registry);
     }
 
     /**
      * Uploads an MP3 file, extracts metadata, and stores it.
+     * The request body is streamed into the blob store in fixed-size chunks and parsed on the way,
+     * so heap usage per upload is bounded by the configured buffer size rather than the file size.
+     * Content that is already stored is shared with the existing resources instead of being kept twice.
+     * The metadata is written to the outbox in the same transaction as the resource and delivered
+     * to Song Service by {@link MetadataOutboxRelay}, so the ID is returned without waiting for Song Service.
      *
-     * @param audioData Binary MP3 data.
+     * @param audioStream Stream of binary MP3 data.
      * @return DTO containing the ID of the created resource.
      */
-    public ResourceIdResponseDto uploadResource(byte[] audioData) {
-        if (audioData == null || audioData.length == 0) {
+    public ResourceIdResponseDto uploadResource(InputStream audioStream) {
+        // Each chunk is parsed for metadata in the same pass that writes it to storage
+        Mp3StreamParser parser = new Mp3StreamParser();
+        long start = System.nanoTime();
+        StoredBlob blob = storeBlob(new Mp3ParsingInputStream(audioStream, parser));
+        storeTimer.record(System.nanoTime() - start, TimeUnit.NANOSECONDS);
+        if (blob.size() == 0) {
+            deleteBlob(blob.key());
             throw new InvalidRequestException("MP3 file is empty");
         }
 
-        // Save resource to database
-        Resource resource = repository.save(new Resource(audioData));
-
-        // Extract metadata from MP3 file
-        Map<String, String> metadata = metadataExtractor.extractMetadata(resource.getId(), audioData);
+        // Save resource and its metadata event to database, sharing the blob of identical content
+        Resource resource;
+        start = System.nanoTime();
+        try {
+            resource = transactionTemplate.execute(status -> {
+                String storageKey = blobRepository.acquire(blob.checksum(), blob.key(), blob.size());
+                Resource saved = repository.save(new Resource(storageKey, blob.size(), blob.checksum(), MetadataStatus.PENDING));
+                long extractStart = System.nanoTime();
+                Map<String, String> metadata = metadataExtractor.extractMetadata(saved.getId(), parser);
+                extractTimer.record(System.nanoTime() - extractStart, TimeUnit.NANOSECONDS);
+                if (metadata.isEmpty()) {
+                    saved.setMetadataStatus(MetadataStatus.FAILED);
+                } else {
+                    outboxRepository.save(new MetadataOutboxEvent(saved.getId(), MetadataEventType.CREATE,
+                            jsonMapper.writeValueAsString(metadata)));
+                }
+                return saved;
+            });
+        } catch (RuntimeException e) {
+            deleteBlob(blob.key());
+            throw e;
+        } finally {
+            persistTimer.record(System.nanoTime() - start, TimeUnit.NANOSECONDS);
+        }
 
-        // Send metadata to Song Service
-        songServiceClient.sendMetadata(metadata);
+        if (!resource.getStorageKey().equals(blob.key())) {
+            // The content was already stored; this copy was only needed to compute the checksum
+            deleteBlob(blob.key());
+        }
         return new ResourceIdResponseDto(resource.getId());
     }
 
+    /**
+     * Retrieves the metadata processing state of a resource.
+     *
+     * @param id Resource ID.
+     * @return DTO containing the metadata state.
+     */
+    public MetadataStatusResponseDto getMetadataStatus(String id) {
+        int validatedId = validateResourceId(id);
+        return repository.findById(validatedId)
+                // Resources uploaded before the state was tracked were propagated synchronously
+                .map(resource -> new MetadataStatusResponseDto(resource.getId(),
+                        Optional.ofNullable(resource.getMetadataStatus()).orElse(MetadataStatus.DONE).name()))
+                .orElseThrow(() -> new ResourceNotFoundException("Resource with ID=" + id + " not found"));
+    }
+
+    /**
+     * Lists resources in ID order using keyset pagination, so every page costs one index range scan
+     * regardless of its depth. Only ID, size and checksum are read.
+     *
+     * @param cursor ID after which the page starts, or null for the first page.
+     * @param limit Maximum number of resources, or null for the default page size.
+     * @return DTO containing the page and the cursor of the next page.
+     */
+    public ResourceListResponseDto listResources(String cursor, String limit) {
+        int validatedCursor = parseListParameter("cursor", cursor, 0, 0, Integer.MAX_VALUE);
+        int validatedLimit = parseListParameter("limit", limit, defaultListLimit, 1, maxListLimit);
+
+        List<ResourceSummaryDto> resources = repository
+                .findByIdGreaterThanOrderById(validatedCursor, Limit.of(validatedLimit)).stream()
+                .map(r -> new ResourceSummaryDto(r.getId(), r.getSize(), r.getChecksum()))
+                .toList();
+        Integer nextCursor = resources.size() < validatedLimit ? null : resources.getLast().getId();
+        return new ResourceListResponseDto(resources, nextCursor);
+    }
+
     /**
      * Retrieves the audio data for a resource.
+     * Only the resource row is loaded; the audio data is streamed from the blob store when the response is written.
+     * Popular resources are served from the audio cache when it is enabled.
      *
      * @param id Resource ID.
-     * @return Binary MP3 data.
+     * @return DTO describing the stored MP3 data.
      */
     public ResourceDataResponseDto getResourceById(String id) {
+        int validatedId = validateResourceId(id);
+        ResourceDataResponseDto cached = audioCache.get(validatedId);
+        if (cached != null) {
+            return cached;
+        }
+
+        Resource resource = repository.findById(validatedId)
+                .orElseThrow(() -> new ResourceNotFoundException("Resource with ID=" + id + " not found"));
+        cached = audioCache.admit(resource);
+        if (cached != null) {
+            return cached;
+        }
+        return new ResourceDataResponseDto(resource.getId(), resource.getSize(),
+                resource.getChecksum(), blobStore.content(resource.getStorageKey()));
+    }
+
+    /**
+     * Retrieves the size and checksum of a resource from its row alone.
+     * Neither the blob store nor the audio cache is touched, so answering HEAD requests and
+     * revalidations costs one primary key lookup and does not count towards cache admission.
+     *
+     * @param id Resource ID.
+     * @return DTO containing the ID, size and checksum of the resource.
+     */
+    public ResourceSummaryDto getResourceSummary(String id) {
         int validatedId = validateResourceId(id);
         return repository.findById(validatedId)
-                .map(resource -> new ResourceDataResponseDto(resource.getAudioData()))
+                .map(resource -> new ResourceSummaryDto(resource.getId(), resource.getSize(), resource.getChecksum()))
                 .orElseThrow(() -> new ResourceNotFoundException("Resource with ID=" + id + " not found"));
     }
 
     /**
      * Deletes resources by IDs.
+     * The rows are removed, their metadata deletion queued and their blob references released
+     * with a constant number of SQL statements, regardless of the number of IDs.
+     * Blobs are deleted from the blob store once their last reference is gone.
      *
      * @param resourceIds Comma-separated string of resource IDs to delete.
      * @return DTO containing the IDs of successfully deleted resources.
@@ -76,19 +233,59 @@ public class ResourceService {
     public DeleteResourcesResponseDto deleteResources(String resourceIds) {
         validateCsvLength(resourceIds);
         List<Integer> ids = parseCsvIds(resourceIds);
+        List<String> unreferencedKeys = new ArrayList<>();
 
-        List<Integer> deletedIds = new ArrayList<>();
-        for (Integer id : ids) {
-            if (repository.existsById(id)) {
-                repository.deleteById(id);
-                songServiceClient.deleteMetadata(id);
-                deletedIds.add(id);
+        // One statement removes the rows, queues their Song Service deletion and releases their blobs
+        List<DeletedResource> deleted = transactionTemplate.execute(status -> {
+            List<DeletedResource> rows = repository.deleteAllByIdReturning(new LinkedHashSet<>(ids), Instant.now());
+            Set<String> released = rows.stream().filter(DeletedResource::isShared)
+                    .map(DeletedResource::getStorageKey).collect(Collectors.toSet());
+            if (!released.isEmpty()) {
+                unreferencedKeys.addAll(blobRepository.deleteUnreferenced(released));
             }
-        }
+            return rows;
+        });
+        // Blobs stored before deduplication belong to a single resource
+        deleted.stream().filter(row -> !row.isShared()).map(DeletedResource::getStorageKey).forEach(unreferencedKeys::add);
+        unreferencedKeys.forEach(this::deleteBlob);
+
+        Set<Integer> deletedIdSet = deleted.stream().map(DeletedResource::getId).collect(Collectors.toSet());
+        audioCache.invalidate(deletedIdSet);
+
+        List<Integer> deletedIds = ids.stream().distinct().filter(deletedIdSet::contains).toList();
 
         return new DeleteResourcesResponseDto(deletedIds);
     }
 
+    /**
+     * Streams the uploaded data into the blob store.
+     *
+     * @param audioStream Stream of binary MP3 data.
+     * @return Description of the stored blob.
+     */
+    private StoredBlob storeBlob(InputStream audioStream) {
+        try {
+            return blobStore.put(audioStream, uploadBufferSize);
+        } catch (IOException e) {
+            throw new UncheckedIOException("Failed to store uploaded MP3 file", e);
+        }
+    }
+
+    /**
+     * Removes a blob from the blob store, logging instead of failing if it cannot be removed.
+     *
+     * @param storageKey Storage key of the blob.
+     */
+    private void deleteBlob(String storageKey) {
+        if (storageKey == null) return;
+
+        try {
+            blobStore.delete(storageKey);
+        } catch (IOException e) {
+            log.warn("Failed to delete blob {}: {}", storageKey, e.getMessage());
+        }
+    }
+
     /**
      * Validates if the CSV string length is within acceptable limits.
      *
@@ -138,6 +335,33 @@ public class ResourceService {
         }
     }
 
+    /**
+     * Parses an optional integer query parameter of the listing endpoint.
+     *
+     * @param name Parameter name.
+     * @param value Parameter value, or null if absent.
+     * @param defaultValue Value used when the parameter is absent.
+     * @param min Smallest allowed value.
+     * @param max Largest allowed value.
+     * @return Parsed value.
+     * @throws InvalidRequestException if the value is not an integer within bounds.
+     */
+    private int parseListParameter(String name, String value, int defaultValue, int min, int max) {
+        if (value == null) {
+            return defaultValue;
+        }
+        try {
+            int parsed = Integer.parseInt(value);
+            if (parsed >= min && parsed <= max) {
+                return parsed;
+            }
+        } catch (NumberFormatException e) {
+            // Reported below
+        }
+        throw new InvalidRequestException("Invalid value '" + value + "' for " + name
+                + ". Must be an integer between " + min + " and " + max);
+    }
+
     /**
      * Validates if the provided ID is a positive number.
      *
@@ -156,4 +380,18 @@ public class ResourceService {
             throw new InvalidRequestException("Invalid value '" + id + "' for ID. Must be a positive integer");
         }
     }
-}
\ No newline at end of file
+
+    /**
+     * Registers the timer of an upload stage. Stages are timed with System.nanoTime rather than
+     * Timer.Sample, so recording allocates nothing on the upload path.
+     *
+     * @param stage store (streaming to the blob store), extract (metadata extraction)
+     *              or persist (the database transaction, including extraction).
+     * @param registry Registry to register the timer with.
+     * @return Registered timer.
+     */
+    private static Timer uploadStageTimer(String stage, MeterRegistry registry) {
+        return Timer.builder("resource.upload.stage").tag("stage", stage)
+                .description("Time spent in a stage of uploading a resource").register(registry);
+    }
+}
@@ -1,59 +1,197 @@
 package com.microservice.resource.service;
 
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.Timer;
 import lombok.extern.slf4j.Slf4j;
+import org.springframework.aot.hint.annotation.RegisterReflectionForBinding;
 import org.springframework.beans.factory.annotation.Value;
+import org.springframework.http.HttpEntity;
+import org.springframework.http.HttpHeaders;
+import org.springframework.http.HttpMethod;
+import org.springframework.http.MediaType;
 import org.springframework.stereotype.Service;
+import org.springframework.web.client.HttpClientErrorException;
+import org.springframework.web.client.HttpServerErrorException;
+import org.springframework.web.client.ResourceAccessException;
 import org.springframework.web.client.RestClientException;
 import org.springframework.web.client.RestTemplate;
 
+import java.util.EnumMap;
+import java.util.List;
 import java.util.Map;
+import java.util.concurrent.TimeUnit;
 
 /**
  * Client for communicating with Song Service to save MP3 metadata.
+ * Failures are reported to the caller so that delivery can be retried;
+ * both operations are idempotent.
+ * The latency of every request is recorded as resource.song-service.requests, tagged by operation and outcome.
  */
 @Slf4j
 @Service
+// Batch responses are bound outside of a controller, so native images need their binding hints
+@RegisterReflectionForBinding({SongServiceClient.BatchResponse.class, SongServiceClient.BatchItemResult.class})
 public class SongServiceClient {
 
+    // Song Service rejects longer CSV strings
+    private static final int MAX_CSV_LENGTH = 200;
+
     private final RestTemplate restTemplate;
 
+    private final Map<Outcome, Timer> createTimers;
+    private final Map<Outcome, Timer> saveTimers;
+    private final Map<Outcome, Timer> deleteTimers;
+
     @Value("${song-service.url}")
     private String songServiceUrl;
 
-    public SongServiceClient(RestTemplate restTemplate) {
+    public SongServiceClient(RestTemplate restTemplate, MeterRegistry registry) {
         this.restTemplate = restTemplate;
+        this.createTimers = requestTimers("create", registry);
+        this.saveTimers = requestTimers("save", registry);
+        this.deleteTimers = requestTimers("delete", registry);
     }
 
     /**
-     * Sends extracted MP3 metadata to Song Service.
+     * Sends extracted MP3 metadata of several resources to Song Service in a single batch request.
      *
-     * @param metadata Map of extracted metadata.
+     * @param metadataJson JSON objects of extracted metadata.
+     * @return Outcome of each item, in order: CREATED, CONFLICT if Song Service already holds it, or INVALID.
+     * @throws RestClientException if Song Service could not be reached or rejected the request.
      */
-    public void sendMetadata(Map<String, String> metadata) {
-        try {
-            String url = songServiceUrl + "/songs";
+    public List<String> sendMetadata(List<String> metadataJson) {
+        return batch(HttpMethod.POST, metadataJson, createTimers);
+    }
+
+    /**
+     * Sends extracted MP3 metadata of several resources to Song Service in a single batch request,
+     * overwriting metadata Song Service already holds.
+     *
+     * @param metadataJson JSON objects of extracted metadata.
+     * @return Outcome of each item, in order: SAVED, UNCHANGED if Song Service already holds the same metadata, or INVALID.
+     * @throws RestClientException if Song Service could not be reached or rejected the request.
+     */
+    public List<String> saveMetadata(List<String> metadataJson) {
+        return batch(HttpMethod.PUT, metadataJson, saveTimers);
+    }
 
-            restTemplate.postForObject(url, metadata, Void.class);
-            log.info("Metadata successfully sent to Song Service");
+    /**
+     * Sends a batch request with already serialized metadata.
+     *
+     * @param method POST to create, PUT to create or overwrite.
+     * @param metadataJson JSON objects of extracted metadata.
+     * @param timers Timers of the operation by outcome.
+     * @return Outcome of each item, in order.
+     */
+    private List<String> batch(HttpMethod method, List<String> metadataJson, Map<Outcome, Timer> timers) {
+        String url = songServiceUrl + "/songs/batch";
+        HttpHeaders headers = new HttpHeaders();
+        headers.setContentType(MediaType.APPLICATION_JSON);
+
+        // The payloads are already serialized, so the array is assembled as text
+        String body = "[" + String.join(",", metadataJson) + "]";
+        long start = System.nanoTime();
+        BatchResponse response;
+        try {
+            response = restTemplate.exchange(url, method, new HttpEntity<>(body, headers), BatchResponse.class).getBody();
+            if (response == null || response.results() == null || response.results().size() != metadataJson.size()) {
+                throw new RestClientException("Unexpected batch response from Song Service");
+            }
         } catch (RestClientException e) {
-            log.error("Failed to send metadata to Song Service: {}", e.getMessage());
+            record(timers, Outcome.of(e), start);
+            throw e;
         }
+        record(timers, Outcome.SUCCESS, start);
+        log.debug("Metadata of {} resources sent to Song Service", metadataJson.size());
+        return response.results().stream().map(BatchItemResult::status).toList();
     }
 
     /**
-     * Deletes metadata from Song Service by resource ID.
+     * Deletes metadata from Song Service by resource IDs.
+     * IDs are sent in as few requests as the Song Service CSV limit allows.
      *
-     * @param id The ID of the metadata to delete.
+     * @param ids The IDs of the metadata to delete.
+     * @throws RestClientException if Song Service could not be reached or rejected the request.
      */
-    public void deleteMetadata(Integer id) {
-        try {
-            String url = songServiceUrl + "/songs?id=" + id;
+    public void deleteMetadata(List<Integer> ids) {
+        StringBuilder csv = new StringBuilder();
+        for (Integer id : ids) {
+            String value = String.valueOf(id);
+            if (!csv.isEmpty() && csv.length() + 1 + value.length() > MAX_CSV_LENGTH) {
+                delete(csv.toString());
+                csv.setLength(0);
+            }
+            if (!csv.isEmpty()) csv.append(',');
+            csv.append(value);
+        }
+        if (!csv.isEmpty()) {
+            delete(csv.toString());
+        }
+    }
 
-            restTemplate.delete(url);
-            log.info("Metadata with ID={} successfully deleted from Song Service", id);
+    /**
+     * Sends a single delete request.
+     *
+     * @param csv Comma-separated IDs within the Song Service length limit.
+     */
+    private void delete(String csv) {
+        long start = System.nanoTime();
+        try {
+            restTemplate.delete(songServiceUrl + "/songs?id=" + csv);
         } catch (RestClientException e) {
-            log.error("Failed to delete metadata from Song Service: {}", e.getMessage());
+            record(deleteTimers, Outcome.of(e), start);
+            throw e;
         }
+        record(deleteTimers, Outcome.SUCCESS, start);
+        log.debug("Metadata with ID={} successfully deleted from Song Service", csv);
     }
-}
 
+    /**
+     * Registers a timer per outcome of an operation up front, so recording a request needs no registry lookup.
+     *
+     * @param operation Name of the operation.
+     * @param registry Registry to register the timers with.
+     * @return Timers by outcome.
+     */
+    private static Map<Outcome, Timer> requestTimers(String operation, MeterRegistry registry) {
+        Map<Outcome, Timer> timers = new EnumMap<>(Outcome.class);
+        for (Outcome outcome : Outcome.values()) {
+            timers.put(outcome, Timer.builder("resource.song-service.requests")
+                    .tag("operation", operation)
+                    .tag("outcome", outcome.name())
+                    .description("Latency of requests to Song Service")
+                    .register(registry));
+        }
+        return timers;
+    }
+
+    private static void record(Map<Outcome, Timer> timers, Outcome outcome, long start) {
+        timers.get(outcome).record(System.nanoTime() - start, TimeUnit.NANOSECONDS);
+    }
+
+    /**
+     * Outcome of a Song Service request.
+     */
+    private enum Outcome {
+        SUCCESS, CLIENT_ERROR, SERVER_ERROR, IO_ERROR, UNKNOWN;
+
+        static Outcome of(RestClientException e) {
+            if (e instanceof HttpClientErrorException) return CLIENT_ERROR;
+            if (e instanceof HttpServerErrorException) return SERVER_ERROR;
+            if (e instanceof ResourceAccessException) return IO_ERROR;
+            return UNKNOWN;
+        }
+    }
+
+    /**
+     * Body of a Song Service batch response.
+     */
+    record BatchResponse(List<BatchItemResult> results) {
+    }
+
+    /**
+     * Outcome of a single item of a Song Service batch request.
+     */
+    record BatchItemResult(int id, String status) {
+    }
+}
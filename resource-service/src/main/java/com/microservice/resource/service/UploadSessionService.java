@@ -0,0 +1,521 @@
+package com.microservice.resource.service;
+
+import com.microservice.resource.dto.ResourceIdResponseDto;
+import com.microservice.resource.dto.UploadSessionResponseDto;
+import com.microservice.resource.entity.UploadChunk;
+import com.microservice.resource.entity.UploadSession;
+import com.microservice.resource.entity.UploadSessionStatus;
+import com.microservice.resource.exception.InvalidRequestException;
+import com.microservice.resource.exception.ResourceNotFoundException;
+import com.microservice.resource.exception.UploadConflictException;
+import com.microservice.resource.repository.UploadChunkRepository;
+import com.microservice.resource.repository.UploadSessionRepository;
+import com.microservice.resource.storage.BlobStore;
+import com.microservice.resource.storage.StoredBlob;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.support.TransactionTemplate;
+import org.springframework.util.unit.DataSize;
+
+import java.io.FilterInputStream;
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.SequenceInputStream;
+import java.io.UncheckedIOException;
+import java.time.Duration;
+import java.time.Instant;
+import java.util.ArrayList;
+import java.util.Enumeration;
+import java.util.Iterator;
+import java.util.List;
+import java.util.UUID;
+import java.util.regex.Pattern;
+
+/**
+ * Service for resumable uploads of large MP3 files.
+ * A client creates a session, uploads the file in chunks at arbitrary offsets, possibly in parallel,
+ * and completes the session. Each chunk is streamed into the blob store as it arrives, so an interrupted
+ * upload is resumed from the offset reported for the session instead of from the start.
+ * Completing a session streams the chunks in order through {@link ResourceService#uploadResource},
+ * so metadata is extracted and queued for Song Service only once, for the whole file.
+ * A session holds at most the configured number of chunks and bytes; chunks may not overlap, so a retried
+ * chunk must be uploaded again at the offset it was first uploaded at.
+ * Sessions without activity for the configured time are deleted together with their chunks.
+ */
+@Slf4j
+@Service
+public class UploadSessionService {
+
+    private static final Pattern SESSION_ID_PATTERN = Pattern.compile("^[0-9a-f]{32}$");
+
+    private final UploadSessionRepository sessionRepository;
+    private final UploadChunkRepository chunkRepository;
+    private final ResourceService resourceService;
+    private final BlobStore blobStore;
+    private final TransactionTemplate transactionTemplate;
+
+    @Value("${resource.upload.buffer-size:65536}")
+    private int uploadBufferSize;
+
+    @Value("${resource.upload.session.ttl:24h}")
+    private Duration sessionTtl;
+
+    @Value("${resource.upload.session.max-size:2GB}")
+    private DataSize maxSessionSize;
+
+    @Value("${resource.upload.session.max-chunks:10000}")
+    private int maxChunks;
+
+    public UploadSessionService(UploadSessionRepository sessionRepository,
+                                UploadChunkRepository chunkRepository,
+                                ResourceService resourceService,
+                                BlobStore blobStore,
+                                TransactionTemplate transactionTemplate) {
+        this.sessionRepository = sessionRepository;
+        this.chunkRepository = chunkRepository;
+        this.resourceService = resourceService;
+        this.blobStore = blobStore;
+        this.transactionTemplate = transactionTemplate;
+    }
+
+    /**
+     * Creates an upload session.
+     *
+     * @return DTO containing the ID of the session and its offset, which is 0.
+     */
+    public UploadSessionResponseDto createSession() {
+        UploadSession session = sessionRepository.save(new UploadSession(UUID.randomUUID().toString().replace("-", "")));
+        return new UploadSessionResponseDto(session.getId(), 0, 0);
+    }
+
+    /**
+     * Reports the progress of an upload session.
+     *
+     * @param id Session ID.
+     * @return DTO containing the offset to resume the upload at and the number of received bytes.
+     */
+    public UploadSessionResponseDto getSession(String id) {
+        String validatedId = validateSessionId(id);
+        return progress(sessionRepository.findById(validatedId).orElseThrow(() -> sessionNotFound(id)));
+    }
+
+    /**
+     * Stores a chunk of an upload session. The chunk is streamed into the blob store in fixed-size pieces
+     * before it is recorded, so heap usage is bounded by the buffer size, and reading stops as soon as the
+     * chunk extends beyond the maximum file size. Uploading a chunk at an offset that was already uploaded
+     * replaces the earlier chunk, which makes retrying a failed chunk safe; a chunk overlapping one at
+     * another offset is rejected.
+     *
+     * @param id Session ID.
+     * @param offset Position of the first byte of the chunk within the file.
+     * @param data Stream of the chunk content.
+     * @return DTO containing the progress of the session after the chunk was stored.
+     */
+    public UploadSessionResponseDto uploadChunk(String id, String offset, InputStream data) {
+        String validatedId = validateSessionId(id);
+        long validatedOffset = validateOffset(offset);
+        long maxSize = maxSessionSize.toBytes();
+        if (validatedOffset >= maxSize) {
+            throw new InvalidRequestException("Offset " + validatedOffset + " exceeds the maximum upload size of "
+                    + maxSize + " bytes");
+        }
+        // Checked up front so that chunks for unknown sessions are not written to storage
+        UploadSession current = sessionRepository.findById(validatedId).orElseThrow(() -> sessionNotFound(id));
+        requireOpen(current);
+
+        // One byte beyond the limit is read to tell a chunk ending exactly at the limit from a larger one
+        StoredBlob blob = storeBlob(new LimitedInputStream(data, maxSize - validatedOffset + 1));
+        if (blob.size() == 0) {
+            deleteBlob(blob.key());
+            throw new InvalidRequestException("Chunk is empty");
+        }
+        if (validatedOffset + blob.size() > maxSize) {
+            deleteBlob(blob.key());
+            throw new InvalidRequestException("Chunk at offset " + validatedOffset
+                    + " exceeds the maximum upload size of " + maxSize + " bytes");
+        }
+
+        RecordedChunk recorded;
+        try {
+            recorded = transactionTemplate.execute(status -> record(id, validatedOffset, blob));
+        } catch (RuntimeException e) {
+            deleteBlob(blob.key());
+            throw e;
+        }
+        deleteBlob(recorded.replacedKey());
+        return recorded.progress();
+    }
+
+    /**
+     * Records a stored chunk and updates the progress of its session within the current transaction.
+     *
+     * @param id Validated session ID.
+     * @param offset Position of the first byte of the chunk within the file.
+     * @param blob Stored chunk content.
+     * @return Storage key of the replaced chunk, if any, and the progress of the session.
+     */
+    private RecordedChunk record(String id, long offset, StoredBlob blob) {
+        // The exclusive lock orders chunks of the session, and keeps it from being completed or collected meanwhile
+        UploadSession session = sessionRepository.findByIdForUpdate(id).orElseThrow(() -> sessionNotFound(id));
+        requireOpen(session);
+        long end = offset + blob.size();
+        if (chunkRepository.existsOverlapping(id, offset, end)) {
+            throw new UploadConflictException("Chunk at offset " + offset + " of " + blob.size()
+                    + " bytes overlaps a chunk uploaded at another offset");
+        }
+
+        String replacedKey = null;
+        UploadChunk chunk = chunkRepository.findBySessionIdAndOffset(id, offset).orElse(null);
+        if (chunk == null) {
+            if (session.getChunkCount() >= maxChunks) {
+                throw new InvalidRequestException("Upload session has reached the maximum of " + maxChunks + " chunks");
+            }
+            chunkRepository.save(new UploadChunk(id, offset, blob.size(), blob.key()));
+            session.setChunkCount(session.getChunkCount() + 1);
+            session.setReceivedBytes(session.getReceivedBytes() + blob.size());
+        } else {
+            replacedKey = chunk.getStorageKey();
+            session.setReceivedBytes(session.getReceivedBytes() - chunk.getSize() + blob.size());
+            // A shorter replacement within the gapless part of the file leaves a gap where it used to end
+            if (offset < session.getResumeOffset() && end < chunk.getOffset() + chunk.getSize()) {
+                session.setResumeOffset(end);
+            }
+            chunk.setSize(blob.size());
+            chunk.setStorageKey(blob.key());
+            chunk.setCreatedAt(Instant.now());
+        }
+
+        if (offset <= session.getResumeOffset() && end > session.getResumeOffset()) {
+            session.setResumeOffset(resumeOffset(id, end));
+        }
+        return new RecordedChunk(replacedKey, progress(session));
+    }
+
+    /**
+     * Completes an upload session: assembles its chunks into a resource, extracting metadata and queuing it
+     * for Song Service like a regular upload, and deletes the session with its chunks.
+     * The chunks must cover the file from offset 0 without gaps or overlaps. If creating the resource fails,
+     * the session is reopened, so it can be completed again.
+     *
+     * @param id Session ID.
+     * @return DTO containing the ID of the created resource.
+     */
+    public ResourceIdResponseDto completeSession(String id) {
+        String validatedId = validateSessionId(id);
+        List<UploadChunk> chunks = transactionTemplate.execute(status -> {
+            // The exclusive lock waits for chunks being recorded and keeps new ones out
+            UploadSession session = sessionRepository.findByIdForUpdate(validatedId).orElseThrow(() -> sessionNotFound(id));
+            requireOpen(session);
+            List<UploadChunk> sessionChunks = chunkRepository.findBySessionIdOrderByOffset(validatedId);
+            validateContiguous(sessionChunks);
+            session.setStatus(UploadSessionStatus.COMPLETING);
+            session.setUpdatedAt(Instant.now());
+            return sessionChunks;
+        });
+
+        ResourceIdResponseDto resource;
+        try (InputStream data = new SequenceInputStream(openChunks(chunks))) {
+            resource = resourceService.uploadResource(data);
+        } catch (IOException e) {
+            reopen(validatedId);
+            throw new UncheckedIOException("Failed to read chunks of upload session " + validatedId, e);
+        } catch (RuntimeException e) {
+            reopen(validatedId);
+            throw e;
+        }
+
+        deleteSessions(List.of(validatedId));
+        return resource;
+    }
+
+    /**
+     * Cancels an upload session, deleting it together with its chunks. A session being completed can be
+     * cancelled as well, so one left behind by an interrupted completion need not wait for collection;
+     * a completion still in progress then fails.
+     *
+     * @param id Session ID.
+     */
+    public void cancelSession(String id) {
+        String validatedId = validateSessionId(id);
+        List<String> storageKeys = transactionTemplate.execute(status -> {
+            sessionRepository.findByIdForUpdate(validatedId).orElseThrow(() -> sessionNotFound(id));
+            return deleteRows(List.of(validatedId));
+        });
+        storageKeys.forEach(this::deleteBlob);
+    }
+
+    /**
+     * Deletes sessions without activity for the configured time, including sessions whose completion
+     * was interrupted, together with their chunks. Sessions in use by a request are skipped.
+     */
+    @Scheduled(fixedDelayString = "${resource.upload.session.gc-interval:10m}")
+    public void collectAbandonedSessions() {
+        Instant cutoff = Instant.now().minus(sessionTtl);
+        int collected = deleteAbandoned(cutoff);
+        if (collected > 0) {
+            log.info("Deleted {} abandoned upload sessions", collected);
+        }
+    }
+
+    /**
+     * Deletes abandoned sessions in one transaction and removes the content of their chunks afterwards.
+     *
+     * @param cutoff Time before which the last activity of a session must lie.
+     * @return Number of deleted sessions.
+     */
+    private int deleteAbandoned(Instant cutoff) {
+        List<String> storageKeys = new ArrayList<>();
+        Integer deleted = transactionTemplate.execute(status -> {
+            List<String> ids = sessionRepository.lockAbandoned(cutoff);
+            if (!ids.isEmpty()) {
+                storageKeys.addAll(deleteRows(ids));
+            }
+            return ids.size();
+        });
+        storageKeys.forEach(this::deleteBlob);
+        return deleted;
+    }
+
+    /**
+     * Deletes sessions and their chunk rows in one transaction and removes the content of the chunks afterwards.
+     *
+     * @param ids Session IDs.
+     */
+    private void deleteSessions(List<String> ids) {
+        List<String> storageKeys = transactionTemplate.execute(status -> deleteRows(ids));
+        storageKeys.forEach(this::deleteBlob);
+    }
+
+    /**
+     * Deletes the rows of sessions and their chunks within the current transaction.
+     *
+     * @param ids Session IDs.
+     * @return Storage keys of the deleted chunks.
+     */
+    private List<String> deleteRows(List<String> ids) {
+        List<String> storageKeys = chunkRepository.deleteBySessionIdInReturning(ids);
+        sessionRepository.deleteAllByIdInBatch(ids);
+        return storageKeys;
+    }
+
+    /**
+     * Returns a session whose completion failed to the open state.
+     *
+     * @param id Session ID.
+     */
+    private void reopen(String id) {
+        transactionTemplate.executeWithoutResult(status -> sessionRepository.findByIdForUpdate(id)
+                .ifPresent(session -> session.setStatus(UploadSessionStatus.OPEN)));
+    }
+
+    /**
+     * Opens the chunks one after another as they are read, so only one chunk is open at a time.
+     *
+     * @param chunks Chunks in file order.
+     * @return Streams of the chunk contents.
+     */
+    private Enumeration<InputStream> openChunks(List<UploadChunk> chunks) {
+        Iterator<UploadChunk> remaining = chunks.iterator();
+        return new Enumeration<>() {
+            @Override
+            public boolean hasMoreElements() {
+                return remaining.hasNext();
+            }
+
+            @Override
+            public InputStream nextElement() {
+                String storageKey = remaining.next().getStorageKey();
+                try {
+                    return blobStore.open(storageKey);
+                } catch (IOException e) {
+                    throw new UncheckedIOException("Failed to open chunk " + storageKey, e);
+                }
+            }
+        };
+    }
+
+    /**
+     * Finds the end of the gapless part of the file, following the chunks that continue it.
+     *
+     * @param id Session ID.
+     * @param from Offset up to which the file is known to be received without gaps.
+     * @return Offset up to which the file was received without gaps.
+     */
+    private long resumeOffset(String id, long from) {
+        long offset = from;
+        for (UploadChunk chunk : chunkRepository.findBySessionIdAndOffsetGreaterThanEqualOrderByOffset(id, from)) {
+            if (chunk.getOffset() != offset) {
+                break;
+            }
+            offset += chunk.getSize();
+        }
+        return offset;
+    }
+
+    /**
+     * Reports the progress recorded on a session.
+     *
+     * @param session Upload session.
+     * @return DTO containing the offset up to which the file was received without gaps and the received bytes.
+     */
+    private static UploadSessionResponseDto progress(UploadSession session) {
+        return new UploadSessionResponseDto(session.getId(), session.getResumeOffset(), session.getReceivedBytes());
+    }
+
+    /**
+     * Validates that chunks cover a file from offset 0 without gaps or overlaps.
+     *
+     * @param chunks Chunks in file order.
+     * @throws InvalidRequestException if the session is empty or the chunks do not line up.
+     */
+    private static void validateContiguous(List<UploadChunk> chunks) {
+        if (chunks.isEmpty()) {
+            throw new InvalidRequestException("Upload session has no chunks");
+        }
+        long expected = 0;
+        for (UploadChunk chunk : chunks) {
+            if (chunk.getOffset() > expected) {
+                throw new InvalidRequestException("Missing bytes at offset " + expected
+                        + ", next chunk starts at offset " + chunk.getOffset());
+            }
+            if (chunk.getOffset() < expected) {
+                throw new InvalidRequestException("Chunk at offset " + chunk.getOffset()
+                        + " overlaps the previous chunk, which ends at offset " + expected);
+            }
+            expected += chunk.getSize();
+        }
+    }
+
+    /**
+     * Ensures that a session still accepts requests.
+     *
+     * @param session Upload session.
+     * @throws UploadConflictException if the session is being completed.
+     */
+    private static void requireOpen(UploadSession session) {
+        if (session.getStatus() != UploadSessionStatus.OPEN) {
+            throw new UploadConflictException("Upload session with ID=" + session.getId() + " is being completed");
+        }
+    }
+
+    /**
+     * Streams a chunk into the blob store.
+     *
+     * @param data Stream of the chunk content.
+     * @return Description of the stored blob.
+     */
+    private StoredBlob storeBlob(InputStream data) {
+        try {
+            return blobStore.put(data, uploadBufferSize);
+        } catch (IOException e) {
+            throw new UncheckedIOException("Failed to store uploaded chunk", e);
+        }
+    }
+
+    /**
+     * Removes a blob from the blob store, logging instead of failing if it cannot be removed.
+     *
+     * @param storageKey Storage key of the blob.
+     */
+    private void deleteBlob(String storageKey) {
+        if (storageKey == null) return;
+
+        try {
+            blobStore.delete(storageKey);
+        } catch (IOException e) {
+            log.warn("Failed to delete blob {}: {}", storageKey, e.getMessage());
+        }
+    }
+
+    /**
+     * Validates the format of a session ID.
+     *
+     * @param id Session ID to validate.
+     * @return The validated ID.
+     * @throws InvalidRequestException if the ID is malformed.
+     */
+    private static String validateSessionId(String id) {
+        if (id == null || !SESSION_ID_PATTERN.matcher(id).matches()) {
+            throw new InvalidRequestException("Invalid value '" + id + "' for upload session ID");
+        }
+        return id;
+    }
+
+    /**
+     * Validates that the offset of a chunk is a non-negative number.
+     *
+     * @param offset Offset to validate.
+     * @return The parsed offset.
+     * @throws InvalidRequestException if the offset is invalid.
+     */
+    private static long validateOffset(String offset) {
+        try {
+            long parsed = Long.parseLong(offset);
+            if (parsed >= 0) {
+                return parsed;
+            }
+        } catch (NumberFormatException e) {
+            // Reported below
+        }
+        throw new InvalidRequestException("Invalid value '" + offset + "' for offset. Must be a non-negative integer");
+    }
+
+    private static ResourceNotFoundException sessionNotFound(String id) {
+        return new ResourceNotFoundException("Upload session with ID=" + id + " not found");
+    }
+
+    /**
+     * Outcome of recording a chunk.
+     */
+    private record RecordedChunk(String replacedKey, UploadSessionResponseDto progress) {
+    }
+
+    /**
+     * Ends a stream after a number of bytes, so an oversized chunk is cut off instead of stored completely.
+     */
+    private static final class LimitedInputStream extends FilterInputStream {
+
+        private long remaining;
+
+        LimitedInputStream(InputStream in, long limit) {
+            super(in);
+            this.remaining = limit;
+        }
+
+        @Override
+        public int read() throws IOException {
+            if (remaining <= 0) return -1;
+
+            int b = super.read();
+            if (b >= 0) {
+                remaining--;
+            }
+            return b;
+        }
+
+        @Override
+        public int read(byte[] b, int off, int len) throws IOException {
+            if (remaining <= 0) return -1;
+
+            int read = super.read(b, off, (int) Math.min(len, remaining));
+            if (read > 0) {
+                remaining -= read;
+            }
+            return read;
+        }
+
+        @Override
+        public long skip(long n) throws IOException {
+            long skipped = super.skip(Math.min(n, remaining));
+            remaining -= skipped;
+            return skipped;
+        }
+
+        @Override
+        public int available() throws IOException {
+            return (int) Math.min(super.available(), remaining);
+        }
+    }
+}
@@ -0,0 +1,29 @@
+package com.microservice.resource.storage;
+
+import java.io.IOException;
+import java.nio.channels.WritableByteChannel;
+import java.nio.file.Path;
+
+/**
+ * Readable content of a stored blob that can be transferred to a channel without copying it onto the heap.
+ */
+public interface BlobContent {
+
+    /**
+     * Transfers a range of the blob content to the target channel.
+     *
+     * @param position Offset of the first byte to transfer.
+     * @param count Number of bytes to transfer.
+     * @param target Channel to write the content to.
+     */
+    void transferTo(long position, long count, WritableByteChannel target) throws IOException;
+
+    /**
+     * Returns the local file holding the content, allowing the servlet container to send it with sendfile.
+     *
+     * @return Path of the backing file, or null if the content is not file-backed.
+     */
+    default Path file() {
+        return null;
+    }
+}
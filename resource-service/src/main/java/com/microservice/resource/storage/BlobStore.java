@@ -0,0 +1,85 @@
+package com.microservice.resource.storage;
+
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.OutputStream;
+import java.security.DigestOutputStream;
+import java.security.MessageDigest;
+import java.security.NoSuchAlgorithmException;
+import java.util.HexFormat;
+import java.util.UUID;
+
+/**
+ * Storage backend for binary audio data of resources.
+ * The database keeps only the storage key, size and checksum of each blob.
+ */
+public interface BlobStore {
+
+    /**
+     * Opens a stream for writing a new blob under the given key.
+     * The blob is complete once the returned stream is closed.
+     *
+     * @param key Storage key of the new blob.
+     * @return Stream to write the blob content to.
+     */
+    OutputStream create(String key) throws IOException;
+
+    /**
+     * Opens a stream for reading an existing blob.
+     *
+     * @param key Storage key of the blob.
+     * @return Stream of the blob content.
+     */
+    InputStream open(String key) throws IOException;
+
+    /**
+     * Returns the content of an existing blob for transfer to a channel.
+     * No file handle is held until the content is transferred.
+     *
+     * @param key Storage key of the blob.
+     * @return Content of the blob.
+     */
+    BlobContent content(String key);
+
+    /**
+     * Deletes a blob. Does nothing if the blob does not exist.
+     *
+     * @param key Storage key of the blob.
+     */
+    void delete(String key) throws IOException;
+
+    /**
+     * Writes the given stream to a new blob in fixed-size chunks, computing its size and SHA-256 checksum.
+     * The partially written blob is removed if copying fails.
+     *
+     * @param data Stream of blob content.
+     * @param bufferSize Size of the chunk buffer in bytes.
+     * @return Description of the stored blob.
+     */
+    default StoredBlob put(InputStream data, int bufferSize) throws IOException {
+        String key = UUID.randomUUID().toString().replace("-", "");
+        MessageDigest digest = sha256();
+        byte[] buffer = new byte[bufferSize];
+        long size = 0;
+
+        try (OutputStream out = new DigestOutputStream(create(key), digest)) {
+            int read;
+            while ((read = data.read(buffer)) != -1) {
+                out.write(buffer, 0, read);
+                size += read;
+            }
+        } catch (IOException | RuntimeException e) {
+            delete(key);
+            throw e;
+        }
+        return new StoredBlob(key, size, HexFormat.of().formatHex(digest.digest()));
+    }
+
+    private static MessageDigest sha256() {
+        try {
+            return MessageDigest.getInstance("SHA-256");
+        } catch (NoSuchAlgorithmException e) {
+            throw new IllegalStateException("SHA-256 is not available", e);
+        }
+    }
+}
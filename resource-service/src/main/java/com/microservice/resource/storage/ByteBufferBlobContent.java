@@ -0,0 +1,32 @@
+package com.microservice.resource.storage;
+
+import java.io.EOFException;
+import java.io.IOException;
+import java.nio.ByteBuffer;
+import java.nio.channels.WritableByteChannel;
+
+/**
+ * Blob content held in memory, typically in a direct buffer outside the Java heap.
+ * The buffer is shared between transfers and never modified.
+ */
+public class ByteBufferBlobContent implements BlobContent {
+
+    private final ByteBuffer data;
+
+    public ByteBufferBlobContent(ByteBuffer data) {
+        this.data = data.asReadOnlyBuffer();
+    }
+
+    @Override
+    public void transferTo(long position, long count, WritableByteChannel target) throws IOException {
+        if (position + count > data.capacity()) {
+            throw new EOFException("Blob content is shorter than expected");
+        }
+        // Each transfer works on its own view, so concurrent transfers do not share a position
+        ByteBuffer view = data.duplicate();
+        view.limit((int) (position + count)).position((int) position);
+        while (view.hasRemaining()) {
+            target.write(view);
+        }
+    }
+}
@@ -0,0 +1,40 @@
+package com.microservice.resource.storage;
+
+import java.io.EOFException;
+import java.io.IOException;
+import java.nio.channels.FileChannel;
+import java.nio.channels.WritableByteChannel;
+import java.nio.file.Path;
+import java.nio.file.StandardOpenOption;
+
+/**
+ * Blob content backed by a local file.
+ * Transfers use {@link FileChannel#transferTo}, which the JDK maps to sendfile where the target allows it.
+ */
+public class FileBlobContent implements BlobContent {
+
+    private final Path file;
+
+    public FileBlobContent(Path file) {
+        this.file = file;
+    }
+
+    @Override
+    public void transferTo(long position, long count, WritableByteChannel target) throws IOException {
+        try (FileChannel channel = FileChannel.open(file, StandardOpenOption.READ)) {
+            long end = position + count;
+            while (position < end) {
+                long transferred = channel.transferTo(position, end - position, target);
+                if (transferred <= 0 && position >= channel.size()) {
+                    throw new EOFException("Blob file " + file + " is shorter than expected");
+                }
+                position += transferred;
+            }
+        }
+    }
+
+    @Override
+    public Path file() {
+        return file;
+    }
+}
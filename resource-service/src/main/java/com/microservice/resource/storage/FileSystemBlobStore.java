@@ -0,0 +1,103 @@
+package com.microservice.resource.storage;
+
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.stereotype.Component;
+
+import java.io.FilterOutputStream;
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.OutputStream;
+import java.nio.channels.Channels;
+import java.nio.channels.FileChannel;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.Paths;
+import java.nio.file.StandardOpenOption;
+import java.util.regex.Pattern;
+
+/**
+ * Blob store keeping each blob as a file on the local filesystem.
+ * Files are sharded into sub-directories by the first two characters of their key.
+ */
+@Component
+@ConditionalOnProperty(name = "resource.storage.type", havingValue = "filesystem", matchIfMissing = true)
+public class FileSystemBlobStore implements BlobStore {
+
+    private static final Pattern KEY_PATTERN = Pattern.compile("^[0-9a-f]{32}$");
+
+    private final Path root;
+    private final boolean fsync;
+
+    public FileSystemBlobStore(@Value("${resource.storage.filesystem.root:data/blobs}") String root,
+                               @Value("${resource.storage.filesystem.fsync:true}") boolean fsync) throws IOException {
+        this.root = Paths.get(root).toAbsolutePath().normalize();
+        this.fsync = fsync;
+        Files.createDirectories(this.root);
+    }
+
+    @Override
+    public OutputStream create(String key) throws IOException {
+        Path path = resolve(key);
+        Files.createDirectories(path.getParent());
+        FileChannel channel = FileChannel.open(path, StandardOpenOption.CREATE_NEW, StandardOpenOption.WRITE);
+        return new SyncingOutputStream(channel, fsync);
+    }
+
+    @Override
+    public InputStream open(String key) throws IOException {
+        return Files.newInputStream(resolve(key));
+    }
+
+    @Override
+    public BlobContent content(String key) {
+        return new FileBlobContent(resolve(key));
+    }
+
+    @Override
+    public void delete(String key) throws IOException {
+        Files.deleteIfExists(resolve(key));
+    }
+
+    /**
+     * Resolves the file path of a blob.
+     *
+     * @param key Storage key of the blob.
+     * @return Absolute path of the blob file.
+     */
+    Path resolve(String key) {
+        if (key == null || !KEY_PATTERN.matcher(key).matches()) {
+            throw new IllegalArgumentException("Invalid storage key: " + key);
+        }
+        return root.resolve(key.substring(0, 2)).resolve(key);
+    }
+
+    /**
+     * Output stream over a file channel that optionally flushes the file to disk on close,
+     * so a blob is durable before its key is recorded in the database.
+     */
+    private static class SyncingOutputStream extends FilterOutputStream {
+        private final FileChannel channel;
+        private final boolean fsync;
+
+        SyncingOutputStream(FileChannel channel, boolean fsync) {
+            super(Channels.newOutputStream(channel));
+            this.channel = channel;
+            this.fsync = fsync;
+        }
+
+        @Override
+        public void write(byte[] b, int off, int len) throws IOException {
+            out.write(b, off, len);
+        }
+
+        @Override
+        public void close() throws IOException {
+            try (channel) {
+                if (fsync) {
+                    channel.force(true);
+                }
+            }
+        }
+    }
+}
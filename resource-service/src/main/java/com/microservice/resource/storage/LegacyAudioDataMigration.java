@@ -0,0 +1,121 @@
+package com.microservice.resource.storage;
+
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.ApplicationArguments;
+import org.springframework.boot.ApplicationRunner;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.UncheckedIOException;
+
+/**
+ * Moves audio data of resources created before the blob store was introduced
+ * from the legacy {@code audio_data} BYTEA column into the {@link BlobStore}.
+ * Runs once on startup; rows are migrated one at a time so only a single blob is held in memory.
+ * Each row is claimed with {@code FOR UPDATE SKIP LOCKED} and stays locked until its migration commits,
+ * so instances starting at the same time share the rows instead of copying each of them.
+ */
+@Slf4j
+@Component
+@ConditionalOnProperty(name = "resource.storage.migrate-legacy-data", havingValue = "true", matchIfMissing = true)
+public class LegacyAudioDataMigration implements ApplicationRunner {
+
+    private static final String LEGACY_COLUMN_EXISTS_SQL = "SELECT EXISTS (SELECT 1 FROM information_schema.columns "
+            + "WHERE table_name = 'resources' AND column_name = 'audio_data')";
+    private static final String DROP_NOT_NULL_SQL = "ALTER TABLE resources ALTER COLUMN audio_data DROP NOT NULL";
+    // Rows being migrated by another instance are skipped rather than waited for
+    private static final String CLAIM_NEXT_SQL = "SELECT id, audio_data FROM resources "
+            + "WHERE storage_key IS NULL AND audio_data IS NOT NULL ORDER BY id LIMIT 1 FOR UPDATE SKIP LOCKED";
+    private static final String UPDATE_RESOURCE_SQL = "UPDATE resources "
+            + "SET storage_key = ?, size = ?, checksum = ?, audio_data = NULL WHERE id = ?";
+
+    private final JdbcTemplate jdbcTemplate;
+    private final TransactionTemplate transactionTemplate;
+    private final BlobStore blobStore;
+
+    @Value("${resource.upload.buffer-size:65536}")
+    private int bufferSize;
+
+    public LegacyAudioDataMigration(JdbcTemplate jdbcTemplate, TransactionTemplate transactionTemplate, BlobStore blobStore) {
+        this.jdbcTemplate = jdbcTemplate;
+        this.transactionTemplate = transactionTemplate;
+        this.blobStore = blobStore;
+    }
+
+    @Override
+    public void run(ApplicationArguments args) {
+        if (!Boolean.TRUE.equals(jdbcTemplate.queryForObject(LEGACY_COLUMN_EXISTS_SQL, Boolean.class))) {
+            return;
+        }
+        // New resources no longer write the legacy column
+        jdbcTemplate.execute(DROP_NOT_NULL_SQL);
+
+        int migrated = 0;
+        while (migrateNext()) {
+            migrated++;
+        }
+
+        if (migrated > 0) {
+            log.info("Migrated audio data of {} resources from the database to the blob store", migrated);
+        }
+    }
+
+    /**
+     * Claims the next resource with legacy audio data, copies the data to the blob store and clears
+     * the legacy column, all in one transaction.
+     *
+     * @return true if a resource was migrated, false if no unclaimed resource is left.
+     */
+    private boolean migrateNext() {
+        return Boolean.TRUE.equals(transactionTemplate.execute(status -> {
+            LegacyBlob legacy = jdbcTemplate.query(CLAIM_NEXT_SQL, rs -> {
+                if (!rs.next()) return null;
+                int id = rs.getInt(1);
+                try (InputStream in = rs.getBinaryStream(2)) {
+                    return new LegacyBlob(id, blobStore.put(in, bufferSize));
+                } catch (IOException e) {
+                    throw new UncheckedIOException("Failed to migrate audio data of resource ID=" + id, e);
+                }
+            });
+            if (legacy == null) {
+                return false;
+            }
+
+            StoredBlob blob = legacy.blob();
+            try {
+                jdbcTemplate.update(UPDATE_RESOURCE_SQL, blob.key(), blob.size(), blob.checksum(), legacy.id());
+            } catch (RuntimeException e) {
+                deleteBlob(blob.key());
+                throw e;
+            }
+            return true;
+        }));
+    }
+
+    /**
+     * Removes a blob whose migration failed, logging instead of failing if it cannot be removed.
+     *
+     * @param storageKey Storage key of the blob.
+     */
+    private void deleteBlob(String storageKey) {
+        try {
+            blobStore.delete(storageKey);
+        } catch (IOException e) {
+            log.warn("Failed to delete blob {}: {}", storageKey, e.getMessage());
+        }
+    }
+
+    /**
+     * Audio data of a resource copied to the blob store.
+     *
+     * @param id Resource ID.
+     * @param blob Stored copy of the audio data.
+     */
+    private record LegacyBlob(int id, StoredBlob blob) {
+    }
+}
@@ -0,0 +1,11 @@
+package com.microservice.resource.storage;
+
+/**
+ * Describes a blob that has been written to a {@link BlobStore}.
+ *
+ * @param key Storage key of the blob.
+ * @param size Size of the blob in bytes.
+ * @param checksum Hex-encoded SHA-256 checksum of the blob content.
+ */
+public record StoredBlob(String key, long size, String checksum) {
+}
@@ -0,0 +1,236 @@
+package com.microservice.resource.controller;
+
+import com.microservice.resource.dto.ResourceDataResponseDto;
+import com.microservice.resource.storage.ByteBufferBlobContent;
+import com.microservice.resource.storage.FileBlobContent;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+import org.springframework.http.HttpHeaders;
+import org.springframework.mock.web.MockHttpServletRequest;
+import org.springframework.mock.web.MockHttpServletResponse;
+
+import java.nio.ByteBuffer;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+class AudioResponseWriterTest {
+
+    private static final String AUDIO = "0123456789";
+    private static final String CHECKSUM = "abc123";
+    private static final String ETAG = "\"" + CHECKSUM + "\"";
+
+    private final AudioResponseWriter writer = new AudioResponseWriter(new SimpleMeterRegistry());
+    private MockHttpServletRequest request;
+    private MockHttpServletResponse response;
+
+    @BeforeEach
+    void setUp() {
+        request = new MockHttpServletRequest("GET", "/resources/1");
+        response = new MockHttpServletResponse();
+        response.setContentType("audio/mpeg");
+    }
+
+    @Test
+    void writesFullContentWithoutRange() throws Exception {
+        write();
+
+        assertThat(response.getStatus()).isEqualTo(200);
+        assertThat(response.getContentAsString()).isEqualTo(AUDIO);
+        assertThat(response.getContentLengthLong()).isEqualTo(10);
+        assertThat(response.getHeader(HttpHeaders.ACCEPT_RANGES)).isEqualTo("bytes");
+        assertThat(response.getHeader(HttpHeaders.ETAG)).isEqualTo(ETAG);
+        assertThat(response.getHeader(HttpHeaders.CONTENT_RANGE)).isNull();
+    }
+
+    @Test
+    void writesSingleRange() throws Exception {
+        request.addHeader(HttpHeaders.RANGE, "bytes=2-5");
+
+        write();
+
+        assertThat(response.getStatus()).isEqualTo(206);
+        assertThat(response.getContentAsString()).isEqualTo("2345");
+        assertThat(response.getContentLengthLong()).isEqualTo(4);
+        assertThat(response.getHeader(HttpHeaders.CONTENT_RANGE)).isEqualTo("bytes 2-5/10");
+        assertThat(response.getContentType()).isEqualTo("audio/mpeg");
+    }
+
+    @Test
+    void writesOpenEndedRange() throws Exception {
+        request.addHeader(HttpHeaders.RANGE, "bytes=7-");
+
+        write();
+
+        assertThat(response.getStatus()).isEqualTo(206);
+        assertThat(response.getContentAsString()).isEqualTo("789");
+        assertThat(response.getHeader(HttpHeaders.CONTENT_RANGE)).isEqualTo("bytes 7-9/10");
+    }
+
+    @Test
+    void writesSuffixRange() throws Exception {
+        request.addHeader(HttpHeaders.RANGE, "bytes=-3");
+
+        write();
+
+        assertThat(response.getStatus()).isEqualTo(206);
+        assertThat(response.getContentAsString()).isEqualTo("789");
+        assertThat(response.getHeader(HttpHeaders.CONTENT_RANGE)).isEqualTo("bytes 7-9/10");
+    }
+
+    @Test
+    void clampsRangeEndToContentSize() throws Exception {
+        request.addHeader(HttpHeaders.RANGE, "bytes=8-100");
+
+        write();
+
+        assertThat(response.getStatus()).isEqualTo(206);
+        assertThat(response.getContentAsString()).isEqualTo("89");
+        assertThat(response.getHeader(HttpHeaders.CONTENT_RANGE)).isEqualTo("bytes 8-9/10");
+    }
+
+    @Test
+    void writesMultipleRangesAsMultipartByteranges() throws Exception {
+        request.addHeader(HttpHeaders.RANGE, "bytes=0-1,4-5");
+
+        write();
+
+        assertThat(response.getStatus()).isEqualTo(206);
+        assertThat(response.getContentType()).startsWith("multipart/byteranges; boundary=");
+        String boundary = response.getContentType().substring("multipart/byteranges; boundary=".length());
+        String body = response.getContentAsString();
+        assertThat(body).isEqualTo("\r\n--" + boundary + "\r\n"
+                + "Content-Type: audio/mpeg\r\n"
+                + "Content-Range: bytes 0-1/10\r\n\r\n"
+                + "01"
+                + "\r\n--" + boundary + "\r\n"
+                + "Content-Type: audio/mpeg\r\n"
+                + "Content-Range: bytes 4-5/10\r\n\r\n"
+                + "45"
+                + "\r\n--" + boundary + "--\r\n");
+        assertThat(response.getContentLengthLong()).isEqualTo(body.getBytes(StandardCharsets.US_ASCII).length);
+        assertThat(response.getHeader(HttpHeaders.CONTENT_RANGE)).isNull();
+    }
+
+    @Test
+    void rejectsUnsatisfiableRange() throws Exception {
+        request.addHeader(HttpHeaders.RANGE, "bytes=20-30");
+
+        write();
+
+        assertThat(response.getStatus()).isEqualTo(416);
+        assertThat(response.getHeader(HttpHeaders.CONTENT_RANGE)).isEqualTo("bytes */10");
+        assertThat(response.getContentAsByteArray()).isEmpty();
+    }
+
+    @Test
+    void rejectsMultipleRangesLargerThanContent() throws Exception {
+        request.addHeader(HttpHeaders.RANGE, "bytes=0-9,0-9");
+
+        write();
+
+        assertThat(response.getStatus()).isEqualTo(416);
+        assertThat(response.getHeader(HttpHeaders.CONTENT_RANGE)).isEqualTo("bytes */10");
+    }
+
+    @Test
+    void ignoresMalformedRange() throws Exception {
+        request.addHeader(HttpHeaders.RANGE, "lines=1-2");
+
+        write();
+
+        assertThat(response.getStatus()).isEqualTo(200);
+        assertThat(response.getContentAsString()).isEqualTo(AUDIO);
+    }
+
+    @Test
+    void writesRangeWhenIfRangeMatches() throws Exception {
+        request.addHeader(HttpHeaders.RANGE, "bytes=0-3");
+        request.addHeader(HttpHeaders.IF_RANGE, ETAG);
+
+        write();
+
+        assertThat(response.getStatus()).isEqualTo(206);
+        assertThat(response.getContentAsString()).isEqualTo("0123");
+    }
+
+    @Test
+    void writesFullContentWhenIfRangeDoesNotMatch() throws Exception {
+        request.addHeader(HttpHeaders.RANGE, "bytes=0-3");
+        request.addHeader(HttpHeaders.IF_RANGE, "\"other\"");
+
+        write();
+
+        assertThat(response.getStatus()).isEqualTo(200);
+        assertThat(response.getContentAsString()).isEqualTo(AUDIO);
+        assertThat(response.getHeader(HttpHeaders.CONTENT_RANGE)).isNull();
+    }
+
+    @Test
+    void writesFullContentWhenIfRangeIsADate() throws Exception {
+        request.addHeader(HttpHeaders.RANGE, "bytes=0-3");
+        request.addHeader(HttpHeaders.IF_RANGE, "Wed, 21 Oct 2015 07:28:00 GMT");
+
+        write();
+
+        assertThat(response.getStatus()).isEqualTo(200);
+        assertThat(response.getContentAsString()).isEqualTo(AUDIO);
+    }
+
+    @Test
+    void answersMatchingIfNoneMatchWithCacheableNotModified() {
+        request.addHeader(HttpHeaders.IF_NONE_MATCH, ETAG);
+
+        assertThat(writer.notModified(CHECKSUM, request, response)).isTrue();
+
+        assertThat(response.getStatus()).isEqualTo(304);
+        assertThat(response.getHeader(HttpHeaders.ETAG)).isEqualTo(ETAG);
+        assertThat(response.getHeader(HttpHeaders.CACHE_CONTROL)).contains("immutable");
+    }
+
+    @Test
+    void answersFailedIfMatchWithUncacheablePreconditionFailed() {
+        // If-Match is evaluated for unsafe methods only
+        request.setMethod("PUT");
+        request.addHeader(HttpHeaders.IF_MATCH, "\"other\"");
+
+        assertThat(writer.notModified(CHECKSUM, request, response)).isTrue();
+
+        assertThat(response.getStatus()).isEqualTo(412);
+        assertThat(response.getHeader(HttpHeaders.CACHE_CONTROL)).isNull();
+    }
+
+    @Test
+    void leavesResponseUntouchedWithoutPreconditions() {
+        assertThat(writer.notModified(CHECKSUM, request, response)).isFalse();
+
+        assertThat(response.getStatus()).isEqualTo(200);
+        assertThat(response.getHeader(HttpHeaders.CACHE_CONTROL)).isNull();
+    }
+
+    @Test
+    void handsFileRangeToContainerSendfile(@TempDir Path directory) throws Exception {
+        Path file = Files.writeString(directory.resolve("blob"), AUDIO);
+        request.setAttribute("org.apache.tomcat.sendfile.support", Boolean.TRUE);
+        request.addHeader(HttpHeaders.RANGE, "bytes=2-5");
+
+        writer.write(new ResourceDataResponseDto(1, AUDIO.length(), CHECKSUM, new FileBlobContent(file)),
+                request, response, System.nanoTime());
+
+        assertThat(response.getStatus()).isEqualTo(206);
+        assertThat(request.getAttribute("org.apache.tomcat.sendfile.filename")).isEqualTo(file.toString());
+        assertThat(request.getAttribute("org.apache.tomcat.sendfile.start")).isEqualTo(2L);
+        assertThat(request.getAttribute("org.apache.tomcat.sendfile.end")).isEqualTo(6L);
+        assertThat(response.getContentAsByteArray()).isEmpty();
+    }
+
+    private void write() throws Exception {
+        ByteBuffer content = ByteBuffer.wrap(AUDIO.getBytes(StandardCharsets.US_ASCII));
+        writer.write(new ResourceDataResponseDto(1, AUDIO.length(), CHECKSUM, new ByteBufferBlobContent(content)),
+                request, response, System.nanoTime());
+    }
+}
@@ -0,0 +1,120 @@
+package com.microservice.resource.controller;
+
+import com.microservice.resource.dto.BulkUploadResponseDto;
+import com.microservice.resource.exception.GlobalExceptionHandler;
+import com.microservice.resource.service.BulkUploadService;
+import com.microservice.resource.service.ResourceService;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.autoconfigure.ImportAutoConfiguration;
+import org.springframework.boot.http.converter.autoconfigure.HttpMessageConvertersAutoConfiguration;
+import org.springframework.boot.jackson.autoconfigure.JacksonAutoConfiguration;
+import org.springframework.boot.servlet.autoconfigure.MultipartAutoConfiguration;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.boot.test.web.server.LocalServerPort;
+import org.springframework.boot.tomcat.autoconfigure.servlet.TomcatServletWebServerAutoConfiguration;
+import org.springframework.boot.webmvc.autoconfigure.DispatcherServletAutoConfiguration;
+import org.springframework.boot.webmvc.autoconfigure.WebMvcAutoConfiguration;
+import org.springframework.context.annotation.Configuration;
+import org.springframework.context.annotation.Import;
+import org.springframework.test.context.bean.override.mockito.MockitoBean;
+import org.springframework.util.unit.DataSize;
+
+import java.io.BufferedReader;
+import java.io.InputStreamReader;
+import java.io.OutputStream;
+import java.net.InetAddress;
+import java.net.Socket;
+import java.nio.charset.StandardCharsets;
+import java.util.List;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.mockito.ArgumentMatchers.anyList;
+import static org.mockito.Mockito.never;
+import static org.mockito.Mockito.verify;
+import static org.mockito.Mockito.when;
+
+/**
+ * Checks the multipart limits of application.properties against POST /resources/bulk on a real Tomcat,
+ * which enforces them while parsing the request, before any part is spooled to disk.
+ */
+@SpringBootTest(webEnvironment = SpringBootTest.WebEnvironment.RANDOM_PORT, classes = BulkUploadLimitTest.WebLayer.class)
+class BulkUploadLimitTest {
+
+    private static final String BOUNDARY = "limit-test-boundary";
+    private static final String PART = "--" + BOUNDARY + "\r\n"
+            + "Content-Disposition: form-data; name=\"files\"; filename=\"a.mp3\"\r\n"
+            + "Content-Type: audio/mpeg\r\n\r\n"
+            + "ID3";
+
+    @LocalServerPort
+    private int port;
+
+    @Value("${spring.servlet.multipart.max-request-size}")
+    private DataSize maxRequestSize;
+
+    @MockitoBean
+    private ResourceService resourceService;
+
+    @MockitoBean
+    private BulkUploadService bulkUploadService;
+
+    @MockitoBean
+    private AudioResponseWriter audioResponseWriter;
+
+    @Test
+    void rejectsRequestLargerThanMaxRequestSize() throws Exception {
+        // Only the start of the body is sent: the declared length alone exceeds the limit
+        String status = post(maxRequestSize.toBytes() + 1, PART);
+
+        assertThat(status).contains(" 413 ");
+        verify(bulkUploadService, never()).uploadResources(anyList());
+    }
+
+    @Test
+    void rejectsRequestThatWouldFillTheDisk() throws Exception {
+        String status = post(DataSize.ofGigabytes(3).toBytes(), PART);
+
+        assertThat(status).contains(" 413 ");
+    }
+
+    @Test
+    void acceptsRequestWithinLimits() throws Exception {
+        when(bulkUploadService.uploadResources(anyList())).thenReturn(new BulkUploadResponseDto(List.of()));
+        String body = PART + "\r\n--" + BOUNDARY + "--\r\n";
+
+        String status = post(body.getBytes(StandardCharsets.US_ASCII).length, body);
+
+        assertThat(status).contains(" 200 ");
+    }
+
+    /**
+     * Sends a multipart request over a plain socket, so it can declare a length it never sends.
+     *
+     * @return Status line of the response.
+     */
+    private String post(long contentLength, String body) throws Exception {
+        try (Socket socket = new Socket(InetAddress.getLoopbackAddress(), port)) {
+            // A server accepting the declared length would wait for the rest of the body
+            socket.setSoTimeout(10_000);
+            OutputStream out = socket.getOutputStream();
+            out.write(("POST /resources/bulk HTTP/1.1\r\n"
+                    + "Host: localhost\r\n"
+                    + "Content-Type: multipart/form-data; boundary=" + BOUNDARY + "\r\n"
+                    + "Content-Length: " + contentLength + "\r\n"
+                    + "Connection: close\r\n\r\n"
+                    + body).getBytes(StandardCharsets.US_ASCII));
+            out.flush();
+            return new BufferedReader(new InputStreamReader(socket.getInputStream(), StandardCharsets.US_ASCII))
+                    .readLine();
+        }
+    }
+
+    @Configuration(proxyBeanMethods = false)
+    @ImportAutoConfiguration({TomcatServletWebServerAutoConfiguration.class, DispatcherServletAutoConfiguration.class,
+            WebMvcAutoConfiguration.class, MultipartAutoConfiguration.class, HttpMessageConvertersAutoConfiguration.class,
+            JacksonAutoConfiguration.class})
+    @Import({ResourceController.class, GlobalExceptionHandler.class})
+    static class WebLayer {
+    }
+}
@@ -0,0 +1,174 @@
+package com.microservice.resource.service;
+
+import java.io.ByteArrayOutputStream;
+import java.nio.charset.Charset;
+import java.nio.charset.StandardCharsets;
+
+/**
+ * Builds synthetic MP3 files for the parser tests, following the sample generator of the benchmarks module.
+ * Audio is made of silent MPEG-1 Layer III frames at 128 kbit/s and 44.1 kHz, each lasting 1152 samples.
+ */
+final class Mp3Files {
+
+    // MPEG-1 Layer III, no CRC, 128 kbit/s, 44.1 kHz, no padding, joint stereo
+    static final byte[] FRAME_HEADER = {(byte) 0xFF, (byte) 0xFB, (byte) 0x90, (byte) 0x44};
+    static final int FRAME_LENGTH = 417;
+    static final float FRAME_SECONDS = 1152 / 44100f;
+    // Side information of a stereo MPEG-1 frame precedes the Xing header; the VBRI header is always at 32
+    private static final int VBR_HEADER_OFFSET = 4 + 32;
+
+    static final int ENCODING_ISO_8859_1 = 0;
+    static final int ENCODING_UTF_16 = 1;
+    static final int ENCODING_UTF_8 = 3;
+
+    private Mp3Files() {
+    }
+
+    /**
+     * Builds silent audio frames.
+     *
+     * @param count Number of frames.
+     * @return Frame data.
+     */
+    static byte[] frames(int count) {
+        byte[] data = new byte[count * FRAME_LENGTH];
+        for (int i = 0; i < count; i++) {
+            System.arraycopy(FRAME_HEADER, 0, data, i * FRAME_LENGTH, FRAME_HEADER.length);
+        }
+        return data;
+    }
+
+    /**
+     * Builds a silent audio frame carrying a Xing or Info header.
+     *
+     * @param magic "Xing" or "Info".
+     * @param flags Flags of the header; 1 marks the frame count as present.
+     * @param frameCount Number of frames following the header frame.
+     * @return Frame data.
+     */
+    static byte[] xingFrame(String magic, int flags, int frameCount) {
+        byte[] frame = frames(1);
+        put(frame, VBR_HEADER_OFFSET, magic.getBytes(StandardCharsets.ISO_8859_1));
+        put(frame, VBR_HEADER_OFFSET + 4, int32(flags));
+        put(frame, VBR_HEADER_OFFSET + 8, int32(frameCount));
+        return frame;
+    }
+
+    /**
+     * Builds a silent audio frame carrying a VBRI header.
+     *
+     * @param frameCount Number of frames following the header frame.
+     * @return Frame data.
+     */
+    static byte[] vbriFrame(int frameCount) {
+        byte[] frame = frames(1);
+        put(frame, VBR_HEADER_OFFSET, "VBRI".getBytes(StandardCharsets.ISO_8859_1));
+        // Version, delay and quality precede the byte count and the frame count
+        put(frame, VBR_HEADER_OFFSET + 4, new byte[]{0, 1, 0, 0, 0, 75});
+        put(frame, VBR_HEADER_OFFSET + 10, int32(frameCount * FRAME_LENGTH));
+        put(frame, VBR_HEADER_OFFSET + 14, int32(frameCount));
+        return frame;
+    }
+
+    /**
+     * Builds an ID3v1 tag.
+     *
+     * @return Tag data, 128 bytes.
+     */
+    static byte[] id3v1(String title, String artist, String album, String year) {
+        byte[] tag = new byte[128];
+        put(tag, 0, "TAG".getBytes(StandardCharsets.ISO_8859_1));
+        put(tag, 3, title.getBytes(StandardCharsets.ISO_8859_1));
+        put(tag, 33, artist.getBytes(StandardCharsets.ISO_8859_1));
+        put(tag, 63, album.getBytes(StandardCharsets.ISO_8859_1));
+        put(tag, 93, year.getBytes(StandardCharsets.ISO_8859_1));
+        return tag;
+    }
+
+    /**
+     * Builds an ID3v2 tag around the given body.
+     *
+     * @param version Major version, 2 to 4.
+     * @param flags Tag header flags.
+     * @param body Frames, extended header and padding, exactly as stored.
+     * @return Tag data.
+     */
+    static byte[] id3v2(int version, int flags, byte[] body) {
+        return concat(new byte[]{'I', 'D', '3', (byte) version, 0, (byte) flags}, syncSafe(body.length), body);
+    }
+
+    /**
+     * Builds an ID3v2 frame.
+     *
+     * @param version Major version of the tag, 2 to 4.
+     * @param id Frame ID, three characters for ID3v2.2 and four otherwise.
+     * @param formatFlags Second flag byte of the frame header; ignored for ID3v2.2.
+     * @param data Frame data, exactly as stored.
+     * @return Frame data including its header.
+     */
+    static byte[] frame(int version, String id, int formatFlags, byte[] data) {
+        byte[] idBytes = id.getBytes(StandardCharsets.ISO_8859_1);
+        if (version == 2) {
+            int size = data.length;
+            return concat(idBytes, new byte[]{(byte) (size >>> 16), (byte) (size >>> 8), (byte) size}, data);
+        }
+        byte[] size = version == 4 ? syncSafe(data.length) : int32(data.length);
+        return concat(idBytes, size, new byte[]{0, (byte) formatFlags}, data);
+    }
+
+    /**
+     * Builds the data of a text frame: the encoding byte, the text and a null terminator.
+     *
+     * @param encoding ID3v2 text encoding: 0 ISO-8859-1, 1 UTF-16 with byte order mark, 3 UTF-8.
+     * @param text Text of the frame.
+     * @return Frame data.
+     */
+    static byte[] text(int encoding, String text) {
+        Charset charset = switch (encoding) {
+            case ENCODING_UTF_16 -> StandardCharsets.UTF_16;
+            case ENCODING_UTF_8 -> StandardCharsets.UTF_8;
+            default -> StandardCharsets.ISO_8859_1;
+        };
+        byte[] terminator = encoding == ENCODING_UTF_16 ? new byte[2] : new byte[1];
+        return concat(new byte[]{(byte) encoding}, text.getBytes(charset), terminator);
+    }
+
+    /**
+     * Applies the ID3v2 unsynchronisation scheme: inserts 0x00 after every 0xFF that is followed
+     * by a byte of 0xE0 or above, by 0x00, or by the end of the data.
+     *
+     * @param data Data to unsynchronise.
+     * @return Unsynchronised data.
+     */
+    static byte[] unsynchronise(byte[] data) {
+        ByteArrayOutputStream out = new ByteArrayOutputStream(data.length + 16);
+        for (int i = 0; i < data.length; i++) {
+            out.write(data[i]);
+            if (data[i] == (byte) 0xFF && (i + 1 == data.length || (data[i + 1] & 0xE0) == 0xE0 || data[i + 1] == 0)) {
+                out.write(0);
+            }
+        }
+        return out.toByteArray();
+    }
+
+    static byte[] concat(byte[]... parts) {
+        ByteArrayOutputStream out = new ByteArrayOutputStream();
+        for (byte[] part : parts) {
+            out.writeBytes(part);
+        }
+        return out.toByteArray();
+    }
+
+    static byte[] int32(int value) {
+        return new byte[]{(byte) (value >>> 24), (byte) (value >>> 16), (byte) (value >>> 8), (byte) value};
+    }
+
+    static byte[] syncSafe(int value) {
+        return new byte[]{(byte) (value >>> 21 & 0x7F), (byte) (value >>> 14 & 0x7F),
+                (byte) (value >>> 7 & 0x7F), (byte) (value & 0x7F)};
+    }
+
+    private static void put(byte[] target, int offset, byte[] value) {
+        System.arraycopy(value, 0, target, offset, value.length);
+    }
+}
@@ -0,0 +1,397 @@
+package com.microservice.resource.service;
+
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.params.ParameterizedTest;
+import org.junit.jupiter.params.provider.ValueSource;
+
+import java.util.Arrays;
+import java.util.Random;
+
+import static com.microservice.resource.service.Mp3Files.ENCODING_ISO_8859_1;
+import static com.microservice.resource.service.Mp3Files.ENCODING_UTF_16;
+import static com.microservice.resource.service.Mp3Files.ENCODING_UTF_8;
+import static com.microservice.resource.service.Mp3Files.FRAME_SECONDS;
+import static com.microservice.resource.service.Mp3Files.concat;
+import static com.microservice.resource.service.Mp3Files.frame;
+import static com.microservice.resource.service.Mp3Files.frames;
+import static com.microservice.resource.service.Mp3Files.id3v1;
+import static com.microservice.resource.service.Mp3Files.id3v2;
+import static com.microservice.resource.service.Mp3Files.int32;
+import static com.microservice.resource.service.Mp3Files.syncSafe;
+import static com.microservice.resource.service.Mp3Files.text;
+import static com.microservice.resource.service.Mp3Files.unsynchronise;
+import static com.microservice.resource.service.Mp3Files.vbriFrame;
+import static com.microservice.resource.service.Mp3Files.xingFrame;
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.within;
+
+class Mp3StreamParserTest {
+
+    // ---------------------------------------------------------------- ID3v1
+
+    @Test
+    void readsId3v1() {
+        Mp3Metadata metadata = parse(concat(frames(10), id3v1("We are the champions", "Queen", "News of the world", "1977")));
+
+        assertThat(metadata.title()).isEqualTo("We are the champions");
+        assertThat(metadata.artist()).isEqualTo("Queen");
+        assertThat(metadata.album()).isEqualTo("News of the world");
+        assertThat(metadata.year()).isEqualTo("1977");
+        assertThat(metadata.durationSeconds()).isCloseTo(10 * FRAME_SECONDS, within(0.001f));
+    }
+
+    @Test
+    void trimsId3v1Fields() {
+        Mp3Metadata metadata = parse(concat(frames(2), id3v1("  Padded title   ", "", "Album", "1977")));
+
+        assertThat(metadata.title()).isEqualTo("Padded title");
+        assertThat(metadata.artist()).isEmpty();
+    }
+
+    @Test
+    void ignoresMissingId3v1() {
+        Mp3Metadata metadata = parse(frames(10));
+
+        assertThat(metadata).isEqualTo(new Mp3Metadata(null, null, null, null, metadata.durationSeconds()));
+        assertThat(metadata.durationSeconds()).isCloseTo(10 * FRAME_SECONDS, within(0.001f));
+    }
+
+    // ---------------------------------------------------------------- ID3v2
+
+    @Test
+    void readsId3v22() {
+        byte[] tag = id3v2(2, 0, concat(
+                frame(2, "TT2", 0, text(ENCODING_ISO_8859_1, "Title")),
+                frame(2, "TP1", 0, text(ENCODING_ISO_8859_1, "Artist")),
+                frame(2, "TAL", 0, text(ENCODING_ISO_8859_1, "Album")),
+                frame(2, "TYE", 0, text(ENCODING_ISO_8859_1, "1999"))));
+
+        Mp3Metadata metadata = parse(concat(tag, frames(5)));
+
+        assertThat(metadata).isEqualTo(new Mp3Metadata("Title", "Artist", "Album", "1999", metadata.durationSeconds()));
+        assertThat(metadata.durationSeconds()).isCloseTo(5 * FRAME_SECONDS, within(0.001f));
+    }
+
+    @Test
+    void readsId3v23WithIsoAndUtf16Text() {
+        byte[] tag = id3v2(3, 0, concat(
+                frame(3, "TIT2", 0, text(ENCODING_UTF_16, "Für Elise")),
+                frame(3, "TPE1", 0, text(ENCODING_ISO_8859_1, "Beethoven")),
+                frame(3, "TALB", 0, text(ENCODING_ISO_8859_1, "Bagatelles")),
+                frame(3, "TYER", 0, text(ENCODING_ISO_8859_1, "1810")),
+                new byte[64]));
+
+        Mp3Metadata metadata = parse(concat(tag, frames(5)));
+
+        assertThat(metadata).isEqualTo(new Mp3Metadata("Für Elise", "Beethoven", "Bagatelles", "1810", metadata.durationSeconds()));
+        assertThat(metadata.durationSeconds()).isCloseTo(5 * FRAME_SECONDS, within(0.001f));
+    }
+
+    @Test
+    void readsId3v24WithUtf8TextAndRecordingTime() {
+        byte[] tag = id3v2(4, 0, concat(
+                frame(4, "TIT2", 0, text(ENCODING_UTF_8, "Ωmega")),
+                frame(4, "TPE1", 0, text(ENCODING_UTF_8, "Artist")),
+                frame(4, "TALB", 0, text(ENCODING_UTF_8, "Album")),
+                frame(4, "TDRC", 0, text(ENCODING_UTF_8, "2004"))));
+
+        Mp3Metadata metadata = parse(concat(tag, frames(5)));
+
+        assertThat(metadata).isEqualTo(new Mp3Metadata("Ωmega", "Artist", "Album", "2004", metadata.durationSeconds()));
+    }
+
+    @Test
+    void ignoresRecordingTimeInId3v23() {
+        byte[] tag = id3v2(3, 0, frame(3, "TDRC", 0, text(ENCODING_ISO_8859_1, "2004")));
+
+        assertThat(parse(concat(tag, frames(2))).year()).isNull();
+    }
+
+    @Test
+    void prefersId3v24OverId3v1AndFallsBackPerField() {
+        byte[] tag = id3v2(4, 0, frame(4, "TIT2", 0, text(ENCODING_UTF_8, "Tag title")));
+
+        Mp3Metadata metadata = parse(concat(tag, frames(2), id3v1("V1 title", "V1 artist", "V1 album", "1977")));
+
+        assertThat(metadata.title()).isEqualTo("Tag title");
+        assertThat(metadata.artist()).isEqualTo("V1 artist");
+        assertThat(metadata.year()).isEqualTo("1977");
+    }
+
+    @Test
+    void prefersId3v24OverId3v23() {
+        byte[] v23 = id3v2(3, 0, frame(3, "TIT2", 0, text(ENCODING_ISO_8859_1, "Version 3")));
+        byte[] v24 = id3v2(4, 0, frame(4, "TIT2", 0, text(ENCODING_UTF_8, "Version 4")));
+
+        assertThat(parse(concat(v23, v24, frames(2))).title()).isEqualTo("Version 4");
+    }
+
+    @Test
+    void usesLastOccurrenceOfFrame() {
+        byte[] tag = id3v2(3, 0, concat(
+                frame(3, "TIT2", 0, text(ENCODING_ISO_8859_1, "First")),
+                frame(3, "TIT2", 0, text(ENCODING_ISO_8859_1, "Second"))));
+
+        assertThat(parse(concat(tag, frames(2))).title()).isEqualTo("Second");
+    }
+
+    @Test
+    void skipsUnknownFrames() {
+        byte[] tag = id3v2(3, 0, concat(
+                frame(3, "APIC", 0, new byte[2000]),
+                frame(3, "TIT2", 0, text(ENCODING_ISO_8859_1, "Title"))));
+
+        assertThat(parse(concat(tag, frames(2))).title()).isEqualTo("Title");
+    }
+
+    @Test
+    void readsUnsynchronisedId3v23Tag() {
+        // 0xFF 0xFF followed by the null terminator needs a 0x00 inserted after each 0xFF
+        byte[] body = concat(
+                frame(3, "TIT2", 0, text(ENCODING_ISO_8859_1, "ÿÿ")),
+                frame(3, "TPE1", 0, text(ENCODING_ISO_8859_1, "Artist")));
+        byte[] stored = unsynchronise(body);
+        assertThat(stored).hasSizeGreaterThan(body.length);
+
+        Mp3Metadata metadata = parse(concat(id3v2(3, 0x80, stored), frames(3)));
+
+        assertThat(metadata.title()).isEqualTo("ÿÿ");
+        assertThat(metadata.artist()).isEqualTo("Artist");
+        assertThat(metadata.durationSeconds()).isCloseTo(3 * FRAME_SECONDS, within(0.001f));
+    }
+
+    @Test
+    void skipsId3v23ExtendedHeader() {
+        // Size excludes the size field: flags (2), padding size (4)
+        byte[] extendedHeader = concat(int32(6), new byte[6]);
+        byte[] tag = id3v2(3, 0x40, concat(extendedHeader, frame(3, "TIT2", 0, text(ENCODING_ISO_8859_1, "Title"))));
+
+        assertThat(parse(concat(tag, frames(2))).title()).isEqualTo("Title");
+    }
+
+    @Test
+    void skipsId3v24ExtendedHeader() {
+        // Size includes the size field: size (4), number of flag bytes (1), flags (1)
+        byte[] extendedHeader = concat(syncSafe(6), new byte[]{1, 0});
+        byte[] tag = id3v2(4, 0x40, concat(extendedHeader, frame(4, "TIT2", 0, text(ENCODING_UTF_8, "Title"))));
+
+        assertThat(parse(concat(tag, frames(2))).title()).isEqualTo("Title");
+    }
+
+    @Test
+    void skipsId3v24Footer() {
+        byte[] body = frame(4, "TIT2", 0, text(ENCODING_UTF_8, "Title"));
+        byte[] tag = id3v2(4, 0x10, body);
+        byte[] footer = concat(new byte[]{'3', 'D', 'I', 4, 0, 0x10}, syncSafe(body.length));
+
+        Mp3Metadata metadata = parse(concat(tag, footer, frames(4)));
+
+        assertThat(metadata.title()).isEqualTo("Title");
+        assertThat(metadata.durationSeconds()).isCloseTo(4 * FRAME_SECONDS, within(0.001f));
+    }
+
+    @Test
+    void readsId3v24FrameWithDataLengthIndicatorAndUnsynchronisation() {
+        byte[] data = text(ENCODING_ISO_8859_1, "ÿÿ");
+        byte[] stored = concat(syncSafe(data.length), unsynchronise(data));
+        byte[] tag = id3v2(4, 0, concat(
+                frame(4, "TIT2", 0x03, stored),
+                frame(4, "TPE1", 0, text(ENCODING_UTF_8, "Artist"))));
+
+        Mp3Metadata metadata = parse(concat(tag, frames(2)));
+
+        assertThat(metadata.title()).isEqualTo("ÿÿ");
+        assertThat(metadata.artist()).isEqualTo("Artist");
+    }
+
+    @Test
+    void readsId3v24FrameWithGroupingIdentity() {
+        byte[] tag = id3v2(4, 0, frame(4, "TIT2", 0x40, concat(new byte[]{7}, text(ENCODING_UTF_8, "Grouped"))));
+
+        assertThat(parse(concat(tag, frames(2))).title()).isEqualTo("Grouped");
+    }
+
+    @Test
+    void readsId3v23FrameWithGroupingIdentity() {
+        byte[] tag = id3v2(3, 0, frame(3, "TIT2", 0x20, concat(new byte[]{7}, text(ENCODING_ISO_8859_1, "Grouped"))));
+
+        assertThat(parse(concat(tag, frames(2))).title()).isEqualTo("Grouped");
+    }
+
+    @ParameterizedTest
+    @ValueSource(ints = {0x04, 0x08})
+    void skipsCompressedOrEncryptedId3v24Frames(int flags) {
+        byte[] tag = id3v2(4, 0, concat(
+                frame(4, "TIT2", flags, text(ENCODING_UTF_8, "Hidden")),
+                frame(4, "TPE1", 0, text(ENCODING_UTF_8, "Artist"))));
+
+        Mp3Metadata metadata = parse(concat(tag, frames(2)));
+
+        assertThat(metadata.title()).isNull();
+        assertThat(metadata.artist()).isEqualTo("Artist");
+    }
+
+    @ParameterizedTest
+    @ValueSource(ints = {0x40, 0x80})
+    void skipsCompressedOrEncryptedId3v23Frames(int flags) {
+        byte[] tag = id3v2(3, 0, frame(3, "TIT2", flags, text(ENCODING_ISO_8859_1, "Hidden")));
+
+        assertThat(parse(concat(tag, frames(2))).title()).isNull();
+    }
+
+    @Test
+    void skipsUnsupportedTagVersion() {
+        byte[] tag = id3v2(5, 0, frame(4, "TIT2", 0, text(ENCODING_UTF_8, "Future")));
+
+        Mp3Metadata metadata = parse(concat(tag, frames(3)));
+
+        assertThat(metadata.title()).isNull();
+        assertThat(metadata.durationSeconds()).isCloseTo(3 * FRAME_SECONDS, within(0.001f));
+    }
+
+    // ---------------------------------------------------------------- VBR headers
+
+    @ParameterizedTest
+    @ValueSource(strings = {"Xing", "Info"})
+    void takesDurationFromXingHeader(String magic) {
+        // The header announces far more frames than are present, so the duration cannot come from counting
+        Mp3Metadata metadata = parse(concat(xingFrame(magic, 1, 1000), frames(3)));
+
+        assertThat(metadata.durationSeconds()).isCloseTo(1001 * FRAME_SECONDS, within(0.01f));
+    }
+
+    @Test
+    void takesDurationFromVbriHeader() {
+        Mp3Metadata metadata = parse(concat(vbriFrame(500), frames(3)));
+
+        assertThat(metadata.durationSeconds()).isCloseTo(501 * FRAME_SECONDS, within(0.01f));
+    }
+
+    @Test
+    void countsFramesWhenXingHeaderHasNoFrameCount() {
+        Mp3Metadata metadata = parse(concat(xingFrame("Xing", 0, 1000), frames(3)));
+
+        assertThat(metadata.durationSeconds()).isCloseTo(4 * FRAME_SECONDS, within(0.001f));
+    }
+
+    @Test
+    void readsId3v1AfterVbrHeader() {
+        Mp3Metadata metadata = parse(concat(xingFrame("Xing", 1, 100), frames(3), id3v1("Title", "Artist", "Album", "2001")));
+
+        assertThat(metadata.title()).isEqualTo("Title");
+        assertThat(metadata.durationSeconds()).isCloseTo(101 * FRAME_SECONDS, within(0.01f));
+    }
+
+    // ---------------------------------------------------------------- chunking, truncated and corrupt input
+
+    @ParameterizedTest
+    @ValueSource(ints = {1, 3, 7, 128, 4096})
+    void parsesIndependentlyOfChunkSize(int chunkSize) {
+        byte[] data = text(ENCODING_ISO_8859_1, "ÿÿ");
+        byte[] file = concat(
+                id3v2(3, 0x80, unsynchronise(frame(3, "TIT2", 0, text(ENCODING_ISO_8859_1, "ÿÿ")))),
+                id3v2(4, 0, concat(
+                        frame(4, "TPE1", 0x03, concat(syncSafe(data.length), unsynchronise(data))),
+                        frame(4, "TALB", 0, text(ENCODING_UTF_8, "Album")))),
+                xingFrame("Xing", 1, 50),
+                frames(3),
+                id3v1("V1 title", "V1 artist", "V1 album", "1977"));
+
+        Mp3Metadata metadata = parse(file, chunkSize);
+
+        assertThat(metadata).isEqualTo(parse(file, file.length));
+        assertThat(metadata).isEqualTo(new Mp3Metadata("ÿÿ", "ÿÿ", "Album", "1977", metadata.durationSeconds()));
+        assertThat(metadata.durationSeconds()).isCloseTo(51 * FRAME_SECONDS, within(0.01f));
+    }
+
+    @Test
+    void parsesEmptyStream() {
+        assertThat(parse(new byte[0])).isEqualTo(new Mp3Metadata(null, null, null, null, 0));
+    }
+
+    @Test
+    void parsesStreamShorterThanTagHeader() {
+        assertThat(parse(new byte[]{'I', 'D', '3', 3, 0})).isEqualTo(new Mp3Metadata(null, null, null, null, 0));
+    }
+
+    @Test
+    void parsesStreamTruncatedInsideTextFrame() {
+        byte[] tag = id3v2(3, 0, concat(
+                frame(3, "TPE1", 0, text(ENCODING_ISO_8859_1, "Artist")),
+                frame(3, "TIT2", 0, text(ENCODING_ISO_8859_1, "A title cut short"))));
+
+        Mp3Metadata metadata = parse(Arrays.copyOf(tag, tag.length - 5));
+
+        assertThat(metadata).isEqualTo(new Mp3Metadata(null, "Artist", null, null, 0));
+    }
+
+    @Test
+    void parsesStreamTruncatedInsideAudioFrame() {
+        byte[] file = concat(frames(3), Arrays.copyOf(frames(1), 100));
+
+        assertThat(parse(file).durationSeconds()).isCloseTo(4 * FRAME_SECONDS, within(0.001f));
+    }
+
+    @Test
+    void ignoresFrameSizeBeyondTag() {
+        // The frame claims more data than the tag holds; the audio after the tag is still counted
+        byte[] body = concat(frame(3, "TIT2", 0, text(ENCODING_ISO_8859_1, "Title")), new byte[4]);
+        System.arraycopy(int32(100_000), 0, body, 4, 4);
+
+        Mp3Metadata metadata = parse(concat(id3v2(3, 0, body), frames(3)));
+
+        assertThat(metadata.title()).isNull();
+        assertThat(metadata.durationSeconds()).isCloseTo(3 * FRAME_SECONDS, within(0.001f));
+    }
+
+    @Test
+    void treatsTagHeaderWithInvalidSizeAsAudio() {
+        byte[] header = {'I', 'D', '3', 3, 0, 0, (byte) 0x80, 0, 0, 0};
+
+        Mp3Metadata metadata = parse(concat(header, frames(3)));
+
+        assertThat(metadata.title()).isNull();
+        assertThat(metadata.durationSeconds()).isCloseTo(3 * FRAME_SECONDS, within(0.001f));
+    }
+
+    @Test
+    void resynchronisesAfterGarbage() {
+        // Sync bytes inside rejected headers are tried as the start of the next header
+        byte[] garbage = {0x12, (byte) 0xFF, 0x00, (byte) 0xFF, 0x1F, 0x34, (byte) 0xFF, 0x07};
+
+        Mp3Metadata metadata = parse(concat(garbage, frames(4)));
+
+        assertThat(metadata.durationSeconds()).isCloseTo(4 * FRAME_SECONDS, within(0.001f));
+    }
+
+    @Test
+    void survivesRandomData() {
+        Random random = new Random(42);
+        for (int i = 0; i < 200; i++) {
+            byte[] data = new byte[random.nextInt(4096)];
+            random.nextBytes(data);
+            if (i % 2 == 0 && data.length >= 3) {
+                // Half of the inputs start like a tag, so random tag and frame headers are parsed too
+                data[0] = 'I';
+                data[1] = 'D';
+                data[2] = '3';
+            }
+
+            Mp3Metadata metadata = parse(data, 1 + random.nextInt(512));
+
+            assertThat(metadata.durationSeconds()).isNotNegative();
+        }
+    }
+
+    private static Mp3Metadata parse(byte[] data) {
+        return parse(data, data.length);
+    }
+
+    private static Mp3Metadata parse(byte[] data, int chunkSize) {
+        Mp3StreamParser parser = new Mp3StreamParser();
+        for (int offset = 0; offset < data.length; offset += chunkSize) {
+            parser.update(data, offset, Math.min(chunkSize, data.length - offset));
+        }
+        return parser.finish();
+    }
+}
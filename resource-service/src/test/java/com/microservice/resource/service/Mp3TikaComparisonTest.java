@@ -0,0 +1,129 @@
+package com.microservice.resource.service;
+
+import org.apache.tika.metadata.Metadata;
+import org.apache.tika.metadata.TikaCoreProperties;
+import org.apache.tika.metadata.XMPDM;
+import org.apache.tika.parser.ParseContext;
+import org.apache.tika.parser.mp3.Mp3Parser;
+import org.junit.jupiter.params.ParameterizedTest;
+import org.junit.jupiter.params.provider.Arguments;
+import org.junit.jupiter.params.provider.MethodSource;
+import org.xml.sax.helpers.DefaultHandler;
+
+import java.io.ByteArrayInputStream;
+import java.io.IOException;
+import java.io.InputStream;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.stream.Stream;
+
+import static com.microservice.resource.service.Mp3Files.ENCODING_ISO_8859_1;
+import static com.microservice.resource.service.Mp3Files.ENCODING_UTF_16;
+import static com.microservice.resource.service.Mp3Files.ENCODING_UTF_8;
+import static com.microservice.resource.service.Mp3Files.FRAME_SECONDS;
+import static com.microservice.resource.service.Mp3Files.concat;
+import static com.microservice.resource.service.Mp3Files.frame;
+import static com.microservice.resource.service.Mp3Files.frames;
+import static com.microservice.resource.service.Mp3Files.id3v1;
+import static com.microservice.resource.service.Mp3Files.id3v2;
+import static com.microservice.resource.service.Mp3Files.text;
+import static com.microservice.resource.service.Mp3Files.vbriFrame;
+import static com.microservice.resource.service.Mp3Files.xingFrame;
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.within;
+
+/**
+ * Runs Mp3StreamParser and the Tika Mp3Parser it replaced over a corpus of MP3 files and compares
+ * title, artist, album, year and duration. Empty and missing fields are treated alike, as the metadata
+ * extractor reports both as unknown. Durations may differ by one frame, as the two scans can disagree on
+ * whether a damaged frame at either end of the audio counts; the built-in corpus matches exactly.
+ * <p>
+ * The built-in corpus covers the tag versions, text encodings and VBR headers the parser handles.
+ * Two deliberate differences are left out of it and covered by Mp3StreamParserTest instead: MPEG-2 and 2.5
+ * Layer III frames hold 576 samples where Tika counts 1152, and tag-level unsynchronisation is undone.
+ * More files, e.g. a local music library, are compared by passing their directory as {@code -Dmp3.corpus=...}.
+ */
+class Mp3TikaComparisonTest {
+
+    @ParameterizedTest(name = "{0}")
+    @MethodSource("corpus")
+    void matchesTika(String name, byte[] data) throws Exception {
+        Mp3Metadata expected = parseWithTika(data);
+
+        Mp3StreamParser parser = new Mp3StreamParser();
+        parser.update(data, 0, data.length);
+        Mp3Metadata actual = parser.finish();
+
+        assertThat(normalize(actual.title())).as("title").isEqualTo(normalize(expected.title()));
+        assertThat(normalize(actual.artist())).as("artist").isEqualTo(normalize(expected.artist()));
+        assertThat(normalize(actual.album())).as("album").isEqualTo(normalize(expected.album()));
+        assertThat(normalize(actual.year())).as("year").isEqualTo(normalize(expected.year()));
+        assertThat(actual.durationSeconds()).as("duration")
+                .isCloseTo(expected.durationSeconds(), within(FRAME_SECONDS));
+    }
+
+    static Stream<Arguments> corpus() throws IOException {
+        List<Arguments> files = new ArrayList<>(List.of(
+                Arguments.of("no tags", frames(40)),
+                Arguments.of("ID3v1", concat(frames(40), id3v1("We are the champions", "Queen", "News of the world", "1977"))),
+                Arguments.of("ID3v2.2", concat(id3v2(2, 0, concat(
+                        frame(2, "TT2", 0, text(ENCODING_ISO_8859_1, "Bohemian Rhapsody")),
+                        frame(2, "TP1", 0, text(ENCODING_ISO_8859_1, "Queen")),
+                        frame(2, "TAL", 0, text(ENCODING_ISO_8859_1, "A Night at the Opera")),
+                        frame(2, "TYE", 0, text(ENCODING_ISO_8859_1, "1975")))), frames(40))),
+                Arguments.of("ID3v2.3 ISO-8859-1", concat(id3v2(3, 0, concat(
+                        frame(3, "TIT2", 0, text(ENCODING_ISO_8859_1, "Déjà vu")),
+                        frame(3, "TPE1", 0, text(ENCODING_ISO_8859_1, "Crosby, Stills, Nash & Young")),
+                        frame(3, "TALB", 0, text(ENCODING_ISO_8859_1, "Déjà Vu")),
+                        frame(3, "TYER", 0, text(ENCODING_ISO_8859_1, "1970")))), frames(40))),
+                Arguments.of("ID3v2.3 UTF-16", concat(id3v2(3, 0, concat(
+                        frame(3, "TIT2", 0, text(ENCODING_UTF_16, "Пачка сигарет")),
+                        frame(3, "TPE1", 0, text(ENCODING_UTF_16, "Кино")),
+                        frame(3, "TALB", 0, text(ENCODING_UTF_16, "Звезда по имени Солнце")),
+                        frame(3, "TYER", 0, text(ENCODING_ISO_8859_1, "1989")))), frames(40))),
+                Arguments.of("ID3v2.4 UTF-8", concat(id3v2(4, 0, concat(
+                        frame(4, "TIT2", 0, text(ENCODING_UTF_8, "夜に駆ける")),
+                        frame(4, "TPE1", 0, text(ENCODING_UTF_8, "YOASOBI")),
+                        frame(4, "TALB", 0, text(ENCODING_UTF_8, "THE BOOK")),
+                        frame(4, "TDRC", 0, text(ENCODING_UTF_8, "2021")))), frames(40))),
+                Arguments.of("ID3v2.3 and ID3v1", concat(
+                        id3v2(3, 0, frame(3, "TIT2", 0, text(ENCODING_ISO_8859_1, "Tag title"))),
+                        frames(40), id3v1("Trailer title", "Trailer artist", "Trailer album", "1999"))),
+                Arguments.of("ID3v2.3 with cover art", concat(id3v2(3, 0, concat(
+                        frame(3, "APIC", 0, new byte[300_000]),
+                        frame(3, "TIT2", 0, text(ENCODING_ISO_8859_1, "After the picture")))), frames(40))),
+                Arguments.of("Xing", concat(xingFrame("Xing", 1, 40), frames(40))),
+                Arguments.of("Info", concat(xingFrame("Info", 1, 40), frames(40),
+                        id3v1("Constant bit rate", "Encoder", "", "2010"))),
+                Arguments.of("VBRI", concat(vbriFrame(40), frames(40))),
+                Arguments.of("junk between frames", concat(frames(20), new byte[]{0x12, 0x00, 0x34}, frames(20))),
+                Arguments.of("tag without audio", id3v2(3, 0, frame(3, "TIT2", 0, text(ENCODING_ISO_8859_1, "Silence"))))));
+
+        String directory = System.getProperty("mp3.corpus");
+        if (directory != null) {
+            try (Stream<Path> paths = Files.list(Path.of(directory))) {
+                for (Path path : paths.filter(path -> path.toString().toLowerCase().endsWith(".mp3")).sorted().toList()) {
+                    files.add(Arguments.of(path.getFileName().toString(), Files.readAllBytes(path)));
+                }
+            }
+        }
+        return files.stream();
+    }
+
+    private static Mp3Metadata parseWithTika(byte[] data) throws Exception {
+        Metadata metadata = new Metadata();
+        try (InputStream in = new ByteArrayInputStream(data)) {
+            new Mp3Parser().parse(in, new DefaultHandler(), metadata, new ParseContext());
+        }
+        String duration = metadata.get(XMPDM.DURATION);
+        return new Mp3Metadata(metadata.get(TikaCoreProperties.TITLE), metadata.get(XMPDM.ARTIST),
+                metadata.get(XMPDM.ALBUM), metadata.get(XMPDM.RELEASE_DATE),
+                duration == null ? 0 : Float.parseFloat(duration));
+    }
+
+    private static String normalize(String value) {
+        return value == null || value.isEmpty() ? null : value;
+    }
+}
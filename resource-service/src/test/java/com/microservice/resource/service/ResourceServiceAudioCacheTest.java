@@ -0,0 +1,86 @@
+package com.microservice.resource.service;
+
+import com.microservice.resource.dto.ResourceDataResponseDto;
+import com.microservice.resource.entity.MetadataStatus;
+import com.microservice.resource.entity.Resource;
+import com.microservice.resource.exception.ResourceNotFoundException;
+import com.microservice.resource.repository.ResourceRepository;
+import com.microservice.resource.storage.ByteBufferBlobContent;
+import com.microservice.resource.storage.FileSystemBlobStore;
+import com.microservice.resource.storage.StoredBlob;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+import org.springframework.util.unit.DataSize;
+
+import java.io.ByteArrayInputStream;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Path;
+import java.time.Duration;
+import java.util.Optional;
+import java.util.concurrent.atomic.AtomicLong;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.assertThatThrownBy;
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.when;
+
+/**
+ * Reads of cached audio after the resource was deleted through another instance, which removes the row and
+ * the blob without invalidating this instance's cache.
+ */
+class ResourceServiceAudioCacheTest {
+
+    private static final Duration TTL = Duration.ofMinutes(1);
+
+    @TempDir
+    Path root;
+
+    private final AtomicLong nanos = new AtomicLong();
+    private final ResourceRepository repository = mock(ResourceRepository.class);
+    private FileSystemBlobStore blobStore;
+    private ResourceService resourceService;
+    private Resource resource;
+
+    @BeforeEach
+    void setUp() throws Exception {
+        blobStore = new FileSystemBlobStore(root.toString(), false);
+        StoredBlob blob = blobStore.put(new ByteArrayInputStream("0123456789".getBytes(StandardCharsets.US_ASCII)), 4096);
+        resource = new Resource(blob.key(), blob.size(), blob.checksum(), MetadataStatus.DONE);
+        resource.setId(1);
+
+        AudioCache audioCache = new AudioCache(blobStore, new SimpleMeterRegistry(), true, DataSize.ofMegabytes(1),
+                DataSize.ofMegabytes(1), 1, Duration.ofMinutes(10), TTL, nanos::get);
+        resourceService = new ResourceService(repository, null, blobStore, null, null, null, null, audioCache,
+                new SimpleMeterRegistry());
+    }
+
+    @Test
+    void servesCachedAudioOfResourceDeletedElsewhereUntilTtl() throws Exception {
+        when(repository.findById(1)).thenReturn(Optional.of(resource));
+        assertThat(resourceService.getResourceById("1").getContent()).isInstanceOf(ByteBufferBlobContent.class);
+
+        deleteElsewhere();
+        nanos.addAndGet(TTL.minusSeconds(1).toNanos());
+
+        ResourceDataResponseDto stale = resourceService.getResourceById("1");
+        assertThat(stale.getChecksum()).isEqualTo(resource.getChecksum());
+    }
+
+    @Test
+    void reportsResourceDeletedElsewhereAsNotFoundAfterTtl() throws Exception {
+        when(repository.findById(1)).thenReturn(Optional.of(resource));
+        resourceService.getResourceById("1");
+
+        deleteElsewhere();
+        nanos.addAndGet(TTL.plusSeconds(1).toNanos());
+
+        assertThatThrownBy(() -> resourceService.getResourceById("1")).isInstanceOf(ResourceNotFoundException.class);
+    }
+
+    private void deleteElsewhere() throws Exception {
+        when(repository.findById(1)).thenReturn(Optional.empty());
+        blobStore.delete(resource.getStorageKey());
+    }
+}
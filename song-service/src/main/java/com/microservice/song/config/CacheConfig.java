@@ -0,0 +1,43 @@
+package com.microservice.song.config;
+
+import com.github.benmanes.caffeine.cache.AsyncCache;
+import com.github.benmanes.caffeine.cache.Caffeine;
+import com.microservice.song.dto.SongJsonResponseDto;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.binder.cache.CaffeineCacheMetrics;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Configuration;
+import org.springframework.util.unit.DataSize;
+
+/**
+ * Configuration for in-process caches.
+ */
+@Configuration
+public class CacheConfig {
+
+    // Approximate heap cost of an entry beyond its JSON bytes: key, DTO, array header, entity tag and cache node
+    private static final int ENTRY_OVERHEAD_BYTES = 240;
+
+    /**
+     * Cache of serialized song metadata responses and their entity tags by song ID, bounded by their total size.
+     * Eviction is size-based W-TinyLFU; hit, miss and eviction counts are published as {@code cache.*} metrics.
+     * Responses are loaded on virtual threads outside the cache's internal locks, so the database query
+     * of a miss never pins the carrier thread of a virtual request thread.
+     *
+     * @param maxSize Memory budget of the cached responses.
+     * @param registry Registry the cache metrics are bound to.
+     * @return Song response cache.
+     */
+    @Bean
+    public AsyncCache<Integer, SongJsonResponseDto> songResponseCache(
+            @Value("${song.cache.max-size:16MB}") DataSize maxSize, MeterRegistry registry) {
+        AsyncCache<Integer, SongJsonResponseDto> cache = Caffeine.newBuilder()
+                .maximumWeight(maxSize.toBytes())
+                .weigher((Integer id, SongJsonResponseDto song) -> song.getJson().length + ENTRY_OVERHEAD_BYTES)
+                .executor(task -> Thread.ofVirtual().name("song-cache-loader").start(task))
+                .recordStats()
+                .buildAsync();
+        return CaffeineCacheMetrics.monitor(registry, cache, "songs");
+    }
+}
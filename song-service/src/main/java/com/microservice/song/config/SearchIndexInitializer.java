@@ -0,0 +1,124 @@
+package com.microservice.song.config;
+
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.boot.ApplicationArguments;
+import org.springframework.boot.ApplicationRunner;
+import org.springframework.dao.DataAccessException;
+import org.springframework.jdbc.core.ConnectionCallback;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.jdbc.datasource.SingleConnectionDataSource;
+import org.springframework.stereotype.Component;
+
+import java.util.LinkedHashMap;
+import java.util.Map;
+
+/**
+ * Creates the expression and GIN indexes backing song name search, which JPA index metadata cannot describe.
+ * Runs on startup after Hibernate has created the schema; existing indexes are left untouched.
+ * Indexes are built concurrently, outside a transaction, so songs stay writable during the build.
+ * Two concurrent builds on the same table wait for each other and deadlock, so instances starting together
+ * take a session advisory lock first: the instance holding it builds the indexes, the others skip them.
+ * A failed build is logged rather than failing startup, since search still works without the indexes.
+ */
+@Slf4j
+@Component
+public class SearchIndexInitializer implements ApplicationRunner {
+
+    private static final String TRY_LOCK_SQL = "SELECT pg_try_advisory_lock(hashtext('songs_search_indexes'))";
+    private static final String UNLOCK_SQL = "SELECT pg_advisory_unlock(hashtext('songs_search_indexes'))";
+    // An interrupted concurrent build leaves an invalid index behind that IF NOT EXISTS would keep forever
+    private static final String INVALID_INDEX_SQL = "SELECT count(*) > 0 FROM pg_index "
+            + "WHERE indexrelid = to_regclass(?) AND NOT indisvalid";
+    private static final String INDEX_EXISTS_SQL = "SELECT to_regclass(?) IS NOT NULL";
+    private static final String DROP_INDEX_SQL = "DROP INDEX CONCURRENTLY IF EXISTS ";
+    // btree_gin lets the year share the GIN index with the name words; a year matches too many songs
+    // for its btree index to be combined cheaply with a text match
+    private static final String CREATE_EXTENSION_SQL = "CREATE EXTENSION IF NOT EXISTS btree_gin";
+    // The planner estimates expression matches only from statistics gathered after the index exists
+    private static final String ANALYZE_SQL = "ANALYZE songs";
+    private static final Map<String, String> INDEXES = new LinkedHashMap<>();
+
+    static {
+        // Case-insensitive prefix matching: lower(name) LIKE 'abc%'
+        INDEXES.put("idx_songs_name_prefix", "CREATE INDEX CONCURRENTLY IF NOT EXISTS idx_songs_name_prefix ON songs "
+                + "(lower(name) text_pattern_ops)");
+        // Full-text matching of name words, optionally restricted to a year
+        INDEXES.put("idx_songs_name_fts", "CREATE INDEX CONCURRENTLY IF NOT EXISTS idx_songs_name_fts ON songs "
+                + "USING gin (to_tsvector('simple', name), year)");
+    }
+
+    private final JdbcTemplate jdbcTemplate;
+
+    public SearchIndexInitializer(JdbcTemplate jdbcTemplate) {
+        this.jdbcTemplate = jdbcTemplate;
+    }
+
+    @Override
+    public void run(ApplicationArguments args) {
+        try {
+            // The advisory lock belongs to the session, so all statements run on the connection that takes it
+            jdbcTemplate.execute((ConnectionCallback<Void>) connection -> {
+                createIndexes(new JdbcTemplate(new SingleConnectionDataSource(connection, true)));
+                return null;
+            });
+        } catch (DataAccessException e) {
+            log.error("Failed to create song search indexes, search runs without them: {}", e.getMessage());
+        }
+    }
+
+    /**
+     * Creates the missing indexes unless another instance is creating them.
+     *
+     * @param session Template bound to a single connection.
+     */
+    private void createIndexes(JdbcTemplate session) {
+        if (!Boolean.TRUE.equals(session.queryForObject(TRY_LOCK_SQL, Boolean.class))) {
+            log.info("Song search indexes are being created by another instance");
+            return;
+        }
+
+        try {
+            boolean created = false;
+            for (Map.Entry<String, String> index : INDEXES.entrySet()) {
+                try {
+                    created |= create(session, index.getKey(), index.getValue(), created);
+                } catch (DataAccessException e) {
+                    log.error("Failed to create song search index {}, search runs without it: {}",
+                            index.getKey(), e.getMessage());
+                }
+            }
+
+            if (created) {
+                session.execute(ANALYZE_SQL);
+            }
+        } finally {
+            session.queryForObject(UNLOCK_SQL, Boolean.class);
+        }
+    }
+
+    /**
+     * Builds an index unless it already exists, replacing one left invalid by an interrupted build.
+     *
+     * @param session Template bound to the connection holding the lock.
+     * @param name Index name.
+     * @param sql Statement creating the index.
+     * @param extensionReady Whether the extension has already been created by this run.
+     * @return true if the index was built by this instance.
+     */
+    private boolean create(JdbcTemplate session, String name, String sql, boolean extensionReady) {
+        if (Boolean.TRUE.equals(session.queryForObject(INVALID_INDEX_SQL, Boolean.class, name))) {
+            log.warn("Dropping invalid song search index {} left by an interrupted build", name);
+            session.execute(DROP_INDEX_SQL + name);
+        } else if (Boolean.TRUE.equals(session.queryForObject(INDEX_EXISTS_SQL, Boolean.class, name))) {
+            return false;
+        }
+
+        if (!extensionReady) {
+            session.execute(CREATE_EXTENSION_SQL);
+        }
+        long start = System.nanoTime();
+        session.execute(sql);
+        log.info("Created song search index {} in {} ms", name, (System.nanoTime() - start) / 1_000_000);
+        return true;
+    }
+}
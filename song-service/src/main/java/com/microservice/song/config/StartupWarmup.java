@@ -0,0 +1,98 @@
+package com.microservice.song.config;
+
+import com.microservice.song.dto.SongCreateRequestDto;
+import com.microservice.song.dto.SongResponseDto;
+import com.microservice.song.repository.SongRepository;
+import com.microservice.song.repository.SongSearchRepository;
+import jakarta.validation.Validator;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.ApplicationArguments;
+import org.springframework.boot.ApplicationRunner;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.core.Ordered;
+import org.springframework.core.annotation.Order;
+import org.springframework.stereotype.Component;
+import tools.jackson.databind.json.JsonMapper;
+
+import javax.sql.DataSource;
+import java.sql.Connection;
+import java.sql.SQLException;
+import java.util.ArrayList;
+import java.util.List;
+
+/**
+ * Exercises the song creation, lookup and search paths once on startup, so the first requests after
+ * a scale-out do not pay for class loading, JIT compilation and opening database connections.
+ * Runs after the other startup runners; the readiness state only switches to ACCEPTING_TRAFFIC once
+ * all runners have completed, so instances behind /actuator/health/readiness receive traffic warm.
+ */
+@Slf4j
+@Component
+@Order(Ordered.LOWEST_PRECEDENCE)
+@ConditionalOnProperty(name = "song.warmup.enabled", havingValue = "true", matchIfMissing = true)
+public class StartupWarmup implements ApplicationRunner {
+
+    private final SongRepository repository;
+    private final SongSearchRepository searchRepository;
+    private final DataSource dataSource;
+    private final JsonMapper jsonMapper;
+    private final Validator validator;
+
+    @Value("${song.warmup.iterations:200}")
+    private int iterations;
+
+    @Value("${song.warmup.connections:10}")
+    private int connections;
+
+    public StartupWarmup(SongRepository repository,
+                         SongSearchRepository searchRepository,
+                         DataSource dataSource,
+                         JsonMapper jsonMapper,
+                         Validator validator) {
+        this.repository = repository;
+        this.searchRepository = searchRepository;
+        this.dataSource = dataSource;
+        this.jsonMapper = jsonMapper;
+        this.validator = validator;
+    }
+
+    @Override
+    public void run(ApplicationArguments args) {
+        long start = System.nanoTime();
+        try {
+            warmUp();
+            log.info("Warmed up {} database connections and {} request bindings in {} ms",
+                    connections, iterations, (System.nanoTime() - start) / 1_000_000);
+        } catch (SQLException | RuntimeException e) {
+            // Only the first requests are slower without it
+            log.warn("Warm-up failed after {} ms: {}", (System.nanoTime() - start) / 1_000_000, e.getMessage());
+        }
+    }
+
+    private void warmUp() throws SQLException {
+        // Hold several connections at once so the pool opens them now rather than under the first load
+        List<Connection> opened = new ArrayList<>(connections);
+        try {
+            for (int i = 0; i < connections; i++) {
+                opened.add(dataSource.getConnection());
+            }
+        } finally {
+            for (Connection connection : opened) {
+                connection.close();
+            }
+        }
+
+        SongCreateRequestDto request = new SongCreateRequestDto(1, "Warm-up", "Warm-up", "Warm-up", "01:00", "2000");
+        SongResponseDto response = new SongResponseDto(1, "Warm-up", "Warm-up", "Warm-up", "01:00", "2000");
+        for (int i = 0; i < iterations; i++) {
+            validator.validate(request);
+            jsonMapper.readValue(jsonMapper.writeValueAsBytes(response), SongCreateRequestDto.class);
+        }
+
+        // Builds the query plans used by lookups and both kinds of name search
+        repository.findById(0);
+        searchRepository.search(new SongSearchRepository.Criteria(null, null, null, "warm-up", null), 0, 1);
+        searchRepository.search(new SongSearchRepository.Criteria(null, null, null, null, "warm-up"), 0, 1);
+    }
+}
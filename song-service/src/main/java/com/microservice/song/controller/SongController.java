@@ -1,15 +1,23 @@
 package com.microservice.song.controller;
 
 import com.microservice.song.dto.DeleteSongsResponseDto;
+import com.microservice.song.dto.SongBatchResponseDto;
 import com.microservice.song.dto.SongCreateRequestDto;
 import com.microservice.song.dto.SongIdResponseDto;
-import com.microservice.song.dto.SongResponseDto;
+import com.microservice.song.dto.SongJsonResponseDto;
+import com.microservice.song.dto.SongSearchResponseDto;
 import com.microservice.song.service.SongService;
 import jakarta.validation.Valid;
 import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.http.CacheControl;
 import org.springframework.http.HttpStatus;
+import org.springframework.http.MediaType;
 import org.springframework.http.ResponseEntity;
 import org.springframework.web.bind.annotation.*;
+import org.springframework.web.servlet.mvc.method.annotation.StreamingResponseBody;
+
+import java.time.Duration;
+import java.util.List;
 
 /**
  * Controller for managing song metadata CRUD operations.
@@ -17,6 +25,10 @@ import org.springframework.web.bind.annotation.*;
 @RestController
 @RequestMapping("/songs")
 public class SongController {
+
+    // Metadata is only overwritten by re-extraction, so shared caches may keep it for an hour before revalidating
+    private static final CacheControl CACHE_CONTROL = CacheControl.maxAge(Duration.ofHours(1)).cachePublic();
+
     @Autowired
     private SongService songService;
 
@@ -32,16 +44,86 @@ public class SongController {
         return ResponseEntity.status(HttpStatus.OK).body(response);
     }
 
+    /**
+     * Creates song metadata records in bulk.
+     *
+     * @param requestDtos DTOs containing song metadata.
+     * @return ResponseEntity with the outcome of each song: CREATED, CONFLICT or INVALID.
+     */
+    @PostMapping("/batch")
+    public ResponseEntity<SongBatchResponseDto> createSongs(@RequestBody List<SongCreateRequestDto> requestDtos) {
+        SongBatchResponseDto response = songService.createSongs(requestDtos);
+        return ResponseEntity.status(HttpStatus.OK).body(response);
+    }
+
+    /**
+     * Creates or overwrites song metadata records in bulk.
+     *
+     * @param requestDtos DTOs containing song metadata.
+     * @return ResponseEntity with the outcome of each song: SAVED, UNCHANGED or INVALID.
+     */
+    @PutMapping("/batch")
+    public ResponseEntity<SongBatchResponseDto> saveSongs(@RequestBody List<SongCreateRequestDto> requestDtos) {
+        SongBatchResponseDto response = songService.saveSongs(requestDtos);
+        return ResponseEntity.status(HttpStatus.OK).body(response);
+    }
+
+    /**
+     * Lists song metadata in ID order, one page at a time.
+     * Pass the returned next cursor to fetch the following page; it is null on the last page.
+     *
+     * @param cursor ID after which the page starts; the first page is returned if absent.
+     * @param limit Maximum number of songs in the page.
+     * @return ResponseEntity streaming the songs of the page.
+     */
+    @GetMapping
+    public ResponseEntity<StreamingResponseBody> listSongs(@RequestParam(required = false) String cursor,
+                                                           @RequestParam(required = false) String limit) {
+        StreamingResponseBody response = songService.listSongs(cursor, limit);
+        return ResponseEntity.ok().contentType(MediaType.APPLICATION_JSON).body(response);
+    }
+
+    /**
+     * Searches song metadata. All given filters must match; results are paginated like the song listing.
+     *
+     * @param artist Exact artist name.
+     * @param album Exact album name.
+     * @param year Exact year.
+     * @param name Case-insensitive prefix of the song name.
+     * @param q Words that must all occur in the song name.
+     * @param cursor ID after which the page starts; the first page is returned if absent.
+     * @param limit Maximum number of songs in the page.
+     * @return ResponseEntity with the matching songs and the cursor of the next page.
+     */
+    @GetMapping("/search")
+    public ResponseEntity<SongSearchResponseDto> searchSongs(@RequestParam(required = false) String artist,
+                                                             @RequestParam(required = false) String album,
+                                                             @RequestParam(required = false) String year,
+                                                             @RequestParam(required = false) String name,
+                                                             @RequestParam(required = false) String q,
+                                                             @RequestParam(required = false) String cursor,
+                                                             @RequestParam(required = false) String limit) {
+        SongSearchResponseDto response = songService.searchSongs(artist, album, year, name, q, cursor, limit);
+        return ResponseEntity.ok(response);
+    }
+
     /**
      * Retrieves song metadata by ID.
+     * The JSON is served from the song response cache when possible.
+     * The response carries a strong ETag and may be cached for an hour, after which caches revalidate it;
+     * a GET or HEAD whose If-None-Match header matches the ETag is answered with 304 Not Modified.
      *
      * @param id The ID of the song to retrieve.
      * @return ResponseEntity with the song metadata.
      */
     @GetMapping("/{id}")
-    public ResponseEntity<SongResponseDto> getSongById(@PathVariable String id) {
-        SongResponseDto response = songService.getSongById(id);
-        return ResponseEntity.ok(response);
+    public ResponseEntity<byte[]> getSongById(@PathVariable String id) {
+        SongJsonResponseDto song = songService.getSongJsonById(id);
+        return ResponseEntity.ok()
+                .contentType(MediaType.APPLICATION_JSON)
+                .eTag(song.getEtag())
+                .cacheControl(CACHE_CONTROL)
+                .body(song.getJson());
     }
 
     /**
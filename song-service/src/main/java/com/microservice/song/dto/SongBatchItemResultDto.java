@@ -0,0 +1,30 @@
+package com.microservice.song.dto;
+
+import lombok.Getter;
+import lombok.Setter;
+
+import java.util.Map;
+
+/**
+ * DTO for the outcome of a single song in a batch request.
+ * Batch creation reports CREATED, or CONFLICT if metadata for the ID already exists; batch saving reports SAVED,
+ * or UNCHANGED if the song already held the same metadata. Either reports INVALID with field-specific details.
+ */
+@Getter
+@Setter
+public class SongBatchItemResultDto {
+    private int id;
+    private String status;
+    private Map<String, String> details;
+
+    public SongBatchItemResultDto(int id, String status) {
+        this.id = id;
+        this.status = status;
+    }
+
+    public SongBatchItemResultDto(int id, String status, Map<String, String> details) {
+        this.id = id;
+        this.status = status;
+        this.details = details;
+    }
+}
@@ -0,0 +1,19 @@
+package com.microservice.song.dto;
+
+import lombok.Getter;
+import lombok.Setter;
+
+import java.util.List;
+
+/**
+ * DTO for responding to a batch creation request with one result per submitted song, in request order.
+ */
+@Getter
+@Setter
+public class SongBatchResponseDto {
+    private List<SongBatchItemResultDto> results;
+
+    public SongBatchResponseDto(List<SongBatchItemResultDto> results) {
+        this.results = results;
+    }
+}
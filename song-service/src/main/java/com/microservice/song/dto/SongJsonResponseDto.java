@@ -0,0 +1,20 @@
+package com.microservice.song.dto;
+
+import lombok.Getter;
+import lombok.Setter;
+
+/**
+ * DTO for responding with song metadata that is already serialized to JSON,
+ * together with the entity tag identifying that JSON.
+ */
+@Getter
+@Setter
+public class SongJsonResponseDto {
+    private byte[] json;
+    private String etag;
+
+    public SongJsonResponseDto(byte[] json, String etag) {
+        this.json = json;
+        this.etag = etag;
+    }
+}
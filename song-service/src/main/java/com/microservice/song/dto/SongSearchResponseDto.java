@@ -0,0 +1,22 @@
+package com.microservice.song.dto;
+
+import lombok.Getter;
+import lombok.Setter;
+
+import java.util.List;
+
+/**
+ * DTO for responding with a page of song search results.
+ */
+@Getter
+@Setter
+public class SongSearchResponseDto {
+    private List<SongResponseDto> songs;
+    // Cursor of the next page, null on the last page
+    private Integer nextCursor;
+
+    public SongSearchResponseDto(List<SongResponseDto> songs, Integer nextCursor) {
+        this.songs = songs;
+        this.nextCursor = nextCursor;
+    }
+}
@@ -9,7 +9,13 @@ import lombok.Setter;
  * Represents a Song metadata record in the database.
  */
 @Entity
-@Table(name = "songs")
+// Exact-match filters of the search, each ordered by ID for keyset pagination;
+// name indexes need expressions and are created by SearchIndexInitializer
+@Table(name = "songs", indexes = {
+        @Index(name = "idx_songs_artist_id", columnList = "artist, id"),
+        @Index(name = "idx_songs_album_id", columnList = "album, id"),
+        @Index(name = "idx_songs_year_id", columnList = "year, id")
+})
 @Getter
 @Setter
 @NoArgsConstructor
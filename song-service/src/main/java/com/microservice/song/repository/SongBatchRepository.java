@@ -0,0 +1,93 @@
+package com.microservice.song.repository;
+
+import com.microservice.song.entity.Song;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.Timer;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.stereotype.Repository;
+import org.springframework.transaction.annotation.Transactional;
+
+import java.util.List;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Repository for inserting song metadata records with JDBC batching.
+ */
+@Repository
+public class SongBatchRepository {
+
+    private static final String INSERT_SQL = "INSERT INTO songs (id, name, artist, album, duration, year) "
+            + "VALUES (?, ?, ?, ?, ?, ?) ON CONFLICT (id) DO NOTHING";
+    // Rows whose values would not change are left alone, so they report 0 updated rows
+    private static final String UPSERT_SQL = "INSERT INTO songs (id, name, artist, album, duration, year) "
+            + "VALUES (?, ?, ?, ?, ?, ?) ON CONFLICT (id) DO UPDATE SET name = EXCLUDED.name, "
+            + "artist = EXCLUDED.artist, album = EXCLUDED.album, duration = EXCLUDED.duration, year = EXCLUDED.year "
+            + "WHERE (songs.name, songs.artist, songs.album, songs.duration, songs.year) "
+            + "IS DISTINCT FROM (EXCLUDED.name, EXCLUDED.artist, EXCLUDED.album, EXCLUDED.duration, EXCLUDED.year)";
+
+    private final JdbcTemplate jdbcTemplate;
+    private final Timer insertTimer;
+    private final Timer upsertTimer;
+
+    @Value("${song.batch.jdbc-batch-size:500}")
+    private int jdbcBatchSize;
+
+    public SongBatchRepository(JdbcTemplate jdbcTemplate, MeterRegistry registry) {
+        this.jdbcTemplate = jdbcTemplate;
+        this.insertTimer = Timer.builder("song.db.query").tag("query", "batch-insert")
+                .description("Execution time of SQL statements issued through JdbcTemplate").register(registry);
+        this.upsertTimer = Timer.builder("song.db.query").tag("query", "batch-upsert")
+                .description("Execution time of SQL statements issued through JdbcTemplate").register(registry);
+    }
+
+    /**
+     * Inserts songs in JDBC batches, skipping songs whose ID already exists.
+     *
+     * @param songs Songs to insert.
+     * @return For each song, in order, whether it was inserted.
+     */
+    public boolean[] insertIgnoringConflicts(List<Song> songs) {
+        long start = System.nanoTime();
+        int[][] counts = execute(INSERT_SQL, songs);
+        insertTimer.record(System.nanoTime() - start, TimeUnit.NANOSECONDS);
+        // The driver reports 0 updated rows for a conflicting ID
+        return changed(counts, songs.size());
+    }
+
+    /**
+     * Inserts songs in JDBC batches within one transaction, overwriting songs whose ID already exists.
+     *
+     * @param songs Songs to insert or overwrite.
+     * @return For each song, in order, whether it was inserted or changed; false if it already held the same values.
+     */
+    @Transactional
+    public boolean[] upsert(List<Song> songs) {
+        long start = System.nanoTime();
+        int[][] counts = execute(UPSERT_SQL, songs);
+        upsertTimer.record(System.nanoTime() - start, TimeUnit.NANOSECONDS);
+        return changed(counts, songs.size());
+    }
+
+    private int[][] execute(String sql, List<Song> songs) {
+        return jdbcTemplate.batchUpdate(sql, songs, jdbcBatchSize, (ps, song) -> {
+            ps.setInt(1, song.getId());
+            ps.setString(2, song.getName());
+            ps.setString(3, song.getArtist());
+            ps.setString(4, song.getAlbum());
+            ps.setString(5, song.getDuration());
+            ps.setString(6, song.getYear());
+        });
+    }
+
+    private static boolean[] changed(int[][] counts, int size) {
+        boolean[] changed = new boolean[size];
+        int index = 0;
+        for (int[] batch : counts) {
+            for (int count : batch) {
+                changed[index++] = count != 0;
+            }
+        }
+        return changed;
+    }
+}
@@ -0,0 +1,64 @@
+package com.microservice.song.repository;
+
+import com.microservice.song.entity.Song;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.Timer;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.stereotype.Repository;
+
+import java.sql.PreparedStatement;
+import java.util.concurrent.TimeUnit;
+import java.util.function.Consumer;
+
+/**
+ * Repository for reading song metadata records in ID order without materializing the result.
+ */
+@Repository
+public class SongListRepository {
+
+    private static final String LIST_SQL = "SELECT id, name, artist, album, duration, year FROM songs "
+            + "WHERE id > ? ORDER BY id LIMIT ?";
+
+    private final JdbcTemplate jdbcTemplate;
+    private final Timer listTimer;
+
+    @Value("${song.list.fetch-size:500}")
+    private int fetchSize;
+
+    public SongListRepository(JdbcTemplate jdbcTemplate, MeterRegistry registry) {
+        this.jdbcTemplate = jdbcTemplate;
+        this.listTimer = Timer.builder("song.db.query").tag("query", "list")
+                .description("Execution time of SQL statements issued through JdbcTemplate").register(registry);
+    }
+
+    /**
+     * Reads songs by keyset pagination over the primary key.
+     * Rows are fetched from a server-side cursor in chunks of the fetch size, which requires an open transaction.
+     * The recorded query time includes the time the consumer spends on each song.
+     *
+     * @param cursor ID after which the page starts.
+     * @param limit Maximum number of songs.
+     * @param consumer Receives the songs in ID order, one at a time.
+     */
+    public void forEachAfter(int cursor, int limit, Consumer<Song> consumer) {
+        long start = System.nanoTime();
+        jdbcTemplate.query(con -> {
+            PreparedStatement ps = con.prepareStatement(LIST_SQL);
+            ps.setFetchSize(fetchSize);
+            ps.setInt(1, cursor);
+            ps.setInt(2, limit);
+            return ps;
+        }, rs -> {
+            consumer.accept(new Song(
+                    rs.getInt("id"),
+                    rs.getString("name"),
+                    rs.getString("artist"),
+                    rs.getString("album"),
+                    rs.getString("duration"),
+                    rs.getString("year")
+            ));
+        });
+        listTimer.record(System.nanoTime() - start, TimeUnit.NANOSECONDS);
+    }
+}
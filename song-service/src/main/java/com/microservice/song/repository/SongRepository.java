@@ -2,12 +2,27 @@ package com.microservice.song.repository;
 
 import com.microservice.song.entity.Song;
 import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.repository.query.Param;
 import org.springframework.stereotype.Repository;
+import org.springframework.transaction.annotation.Transactional;
+
+import java.util.Collection;
+import java.util.List;
 
 /**
  * Repository for managing song metadata records in the database.
  */
 @Repository
 public interface SongRepository extends JpaRepository<Song, Integer> {
-}
 
+    /**
+     * Deletes song metadata records in a single statement.
+     *
+     * @param ids IDs of the songs to delete.
+     * @return IDs of the songs that existed and were deleted.
+     */
+    @Transactional
+    @Query(value = "DELETE FROM songs WHERE id IN (:ids) RETURNING id", nativeQuery = true)
+    List<Integer> deleteAllByIdReturning(@Param("ids") Collection<Integer> ids);
+}
@@ -0,0 +1,97 @@
+package com.microservice.song.repository;
+
+import com.microservice.song.entity.Song;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.Timer;
+import org.springframework.jdbc.core.namedparam.MapSqlParameterSource;
+import org.springframework.jdbc.core.namedparam.NamedParameterJdbcTemplate;
+import org.springframework.stereotype.Repository;
+
+import java.util.List;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Repository for searching song metadata records by their indexed columns.
+ */
+@Repository
+public class SongSearchRepository {
+
+    private static final String SELECT_SQL = "SELECT id, name, artist, album, duration, year FROM songs WHERE id > :cursor";
+    // Expressions must match the indexes created by SearchIndexInitializer
+    private static final String NAME_PREFIX_SQL = " AND lower(name) LIKE :namePrefix ESCAPE '\\'";
+    private static final String NAME_TEXT_SQL = " AND to_tsvector('simple', name) @@ plainto_tsquery('simple', :text)";
+    private static final String ORDER_SQL = " ORDER BY id LIMIT :limit";
+
+    private final NamedParameterJdbcTemplate jdbcTemplate;
+    private final Timer searchTimer;
+
+    public SongSearchRepository(NamedParameterJdbcTemplate jdbcTemplate, MeterRegistry registry) {
+        this.jdbcTemplate = jdbcTemplate;
+        this.searchTimer = Timer.builder("song.db.query").tag("query", "search")
+                .description("Execution time of SQL statements issued through JdbcTemplate").register(registry);
+    }
+
+    /**
+     * Finds songs matching all given filters, by keyset pagination over the primary key.
+     *
+     * @param criteria Filters; absent filters are null.
+     * @param cursor ID after which the page starts.
+     * @param limit Maximum number of songs.
+     * @return Matching songs with an ID greater than the cursor, in ID order.
+     */
+    public List<Song> search(Criteria criteria, int cursor, int limit) {
+        StringBuilder sql = new StringBuilder(SELECT_SQL);
+        MapSqlParameterSource params = new MapSqlParameterSource()
+                .addValue("cursor", cursor)
+                .addValue("limit", limit);
+        if (criteria.artist() != null) {
+            sql.append(" AND artist = :artist");
+            params.addValue("artist", criteria.artist());
+        }
+        if (criteria.album() != null) {
+            sql.append(" AND album = :album");
+            params.addValue("album", criteria.album());
+        }
+        if (criteria.year() != null) {
+            sql.append(" AND year = :year");
+            params.addValue("year", criteria.year());
+        }
+        if (criteria.namePrefix() != null) {
+            sql.append(NAME_PREFIX_SQL);
+            params.addValue("namePrefix", escapeLike(criteria.namePrefix().toLowerCase()) + "%");
+        }
+        if (criteria.text() != null) {
+            sql.append(NAME_TEXT_SQL);
+            params.addValue("text", criteria.text());
+        }
+        sql.append(ORDER_SQL);
+
+        long start = System.nanoTime();
+        List<Song> songs = jdbcTemplate.query(sql.toString(), params, (rs, rowNum) -> new Song(
+                rs.getInt("id"),
+                rs.getString("name"),
+                rs.getString("artist"),
+                rs.getString("album"),
+                rs.getString("duration"),
+                rs.getString("year")
+        ));
+        searchTimer.record(System.nanoTime() - start, TimeUnit.NANOSECONDS);
+        return songs;
+    }
+
+    private static String escapeLike(String value) {
+        return value.replace("\\", "\\\\").replace("%", "\\%").replace("_", "\\_");
+    }
+
+    /**
+     * Search filters.
+     *
+     * @param artist Exact artist name.
+     * @param album Exact album name.
+     * @param year Exact year.
+     * @param namePrefix Case-insensitive prefix of the song name.
+     * @param text Words that must all occur in the song name, in any order and case.
+     */
+    public record Criteria(String artist, String album, String year, String namePrefix, String text) {
+    }
+}
@@ -1,31 +1,93 @@
 package com.microservice.song.service;
 
+import com.github.benmanes.caffeine.cache.AsyncCache;
 import com.microservice.song.dto.DeleteSongsResponseDto;
+import com.microservice.song.dto.SongBatchItemResultDto;
+import com.microservice.song.dto.SongBatchResponseDto;
 import com.microservice.song.dto.SongCreateRequestDto;
 import com.microservice.song.dto.SongIdResponseDto;
+import com.microservice.song.dto.SongJsonResponseDto;
 import com.microservice.song.dto.SongResponseDto;
+import com.microservice.song.dto.SongSearchResponseDto;
 import com.microservice.song.entity.Song;
 import com.microservice.song.exception.InvalidRequestException;
 import com.microservice.song.exception.SongAlreadyExistsException;
 import com.microservice.song.exception.SongNotFoundException;
+import com.microservice.song.repository.SongBatchRepository;
+import com.microservice.song.repository.SongListRepository;
 import com.microservice.song.repository.SongRepository;
+import com.microservice.song.repository.SongSearchRepository;
+import jakarta.validation.ConstraintViolation;
+import jakarta.validation.Validator;
+import org.springframework.aot.hint.annotation.RegisterReflectionForBinding;
+import org.springframework.beans.factory.annotation.Value;
 import org.springframework.stereotype.Service;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.annotation.Transactional;
+import org.springframework.transaction.support.TransactionTemplate;
+import org.springframework.web.servlet.mvc.method.annotation.StreamingResponseBody;
+import tools.jackson.core.JsonGenerator;
+import tools.jackson.databind.json.JsonMapper;
 
+import java.security.MessageDigest;
+import java.security.NoSuchAlgorithmException;
 import java.util.ArrayList;
 import java.util.Arrays;
+import java.util.HashSet;
+import java.util.HexFormat;
+import java.util.LinkedHashMap;
+import java.util.LinkedHashSet;
 import java.util.List;
-import java.util.Optional;
+import java.util.Map;
+import java.util.Set;
+import java.util.concurrent.CompletionException;
 
 /**
  * Service for handling song metadata CRUD operations.
  */
 @Service
+// Responses are serialized here rather than by a controller, so native images need their binding hints
+@RegisterReflectionForBinding(SongResponseDto.class)
 public class SongService {
 
     private final SongRepository repository;
+    private final SongBatchRepository batchRepository;
+    private final SongListRepository listRepository;
+    private final SongSearchRepository searchRepository;
+    private final TransactionTemplate readOnlyTransaction;
+    private final Validator validator;
+    private final AsyncCache<Integer, SongJsonResponseDto> responseCache;
+    private final JsonMapper jsonMapper;
 
-    public SongService(SongRepository repository) {
+    @Value("${song.batch.max-size:1000}")
+    private int maxBatchSize;
+
+    @Value("${song.list.default-limit:100}")
+    private int defaultListLimit;
+
+    @Value("${song.list.max-limit:10000}")
+    private int maxListLimit;
+
+    @Value("${song.search.max-limit:1000}")
+    private int maxSearchLimit;
+
+    public SongService(SongRepository repository,
+                       SongBatchRepository batchRepository,
+                       SongListRepository listRepository,
+                       SongSearchRepository searchRepository,
+                       PlatformTransactionManager transactionManager,
+                       Validator validator,
+                       AsyncCache<Integer, SongJsonResponseDto> songResponseCache,
+                       JsonMapper jsonMapper) {
         this.repository = repository;
+        this.batchRepository = batchRepository;
+        this.listRepository = listRepository;
+        this.searchRepository = searchRepository;
+        this.readOnlyTransaction = new TransactionTemplate(transactionManager);
+        this.readOnlyTransaction.setReadOnly(true);
+        this.validator = validator;
+        this.responseCache = songResponseCache;
+        this.jsonMapper = jsonMapper;
     }
 
     /**
@@ -54,25 +116,224 @@ public class SongService {
     }
 
     /**
-     * Retrieves a song metadata by ID.
+     * Creates song metadata records in bulk.
+     * Each song is validated on its own; valid songs are inserted in JDBC batches within one transaction,
+     * and songs whose ID already exists are reported as conflicts instead of failing the batch.
+     *
+     * @param requestDtos DTOs containing song metadata.
+     * @return DTO containing the outcome of each song, in request order.
+     */
+    @Transactional
+    public SongBatchResponseDto createSongs(List<SongCreateRequestDto> requestDtos) {
+        SongBatchItemResultDto[] results = new SongBatchItemResultDto[validateBatchSize(requestDtos)];
+        List<Song> songs = new ArrayList<>();
+        List<Integer> positions = collectValid(requestDtos, results, songs);
+
+        if (!songs.isEmpty()) {
+            boolean[] inserted = batchRepository.insertIgnoringConflicts(songs);
+            for (int i = 0; i < songs.size(); i++) {
+                results[positions.get(i)] = new SongBatchItemResultDto(songs.get(i).getId(), inserted[i] ? "CREATED" : "CONFLICT");
+            }
+        }
+
+        return new SongBatchResponseDto(Arrays.asList(results));
+    }
+
+    /**
+     * Creates or overwrites song metadata records in bulk, e.g. when metadata is re-extracted.
+     * Each song is validated on its own; valid songs are written in JDBC batches within one transaction.
+     * Cached responses of changed songs are invalidated once the transaction committed.
+     *
+     * @param requestDtos DTOs containing song metadata.
+     * @return DTO containing the outcome of each song, in request order: SAVED if it was created or changed,
+     *         UNCHANGED if it already held the same metadata, or INVALID.
+     */
+    public SongBatchResponseDto saveSongs(List<SongCreateRequestDto> requestDtos) {
+        SongBatchItemResultDto[] results = new SongBatchItemResultDto[validateBatchSize(requestDtos)];
+        List<Song> songs = new ArrayList<>();
+        List<Integer> positions = collectValid(requestDtos, results, songs);
+
+        if (!songs.isEmpty()) {
+            boolean[] changed = batchRepository.upsert(songs);
+            List<Integer> changedIds = new ArrayList<>();
+            for (int i = 0; i < songs.size(); i++) {
+                results[positions.get(i)] = new SongBatchItemResultDto(songs.get(i).getId(), changed[i] ? "SAVED" : "UNCHANGED");
+                if (changed[i]) {
+                    changedIds.add(songs.get(i).getId());
+                }
+            }
+            responseCache.synchronous().invalidateAll(changedIds);
+        }
+
+        return new SongBatchResponseDto(Arrays.asList(results));
+    }
+
+    /**
+     * Validates the size of a batch request.
+     *
+     * @param requestDtos DTOs containing song metadata.
+     * @return Number of songs in the batch.
+     * @throws InvalidRequestException if the batch is empty or too large.
+     */
+    private int validateBatchSize(List<SongCreateRequestDto> requestDtos) {
+        if (requestDtos == null || requestDtos.isEmpty()) {
+            throw new InvalidRequestException("Batch cannot be empty");
+        }
+        if (requestDtos.size() > maxBatchSize) {
+            throw new InvalidRequestException("Batch is too large: received " + requestDtos.size()
+                    + " songs, maximum allowed is " + maxBatchSize);
+        }
+        return requestDtos.size();
+    }
+
+    /**
+     * Validates the songs of a batch, recording an INVALID result for each invalid song.
+     *
+     * @param requestDtos DTOs containing song metadata.
+     * @param results Receives the result of each invalid song.
+     * @param songs Receives the valid songs, in request order.
+     * @return Position of each valid song in the request.
+     */
+    private List<Integer> collectValid(List<SongCreateRequestDto> requestDtos, SongBatchItemResultDto[] results,
+                                       List<Song> songs) {
+        List<Integer> positions = new ArrayList<>();
+        for (int i = 0; i < requestDtos.size(); i++) {
+            SongCreateRequestDto requestDto = requestDtos.get(i);
+            Map<String, String> details = validate(requestDto);
+            if (!details.isEmpty()) {
+                results[i] = new SongBatchItemResultDto(requestDto == null ? 0 : requestDto.getId(), "INVALID", details);
+                continue;
+            }
+            songs.add(new Song(
+                    requestDto.getId(),
+                    requestDto.getName(),
+                    requestDto.getArtist(),
+                    requestDto.getAlbum(),
+                    requestDto.getDuration(),
+                    requestDto.getYear()
+            ));
+            positions.add(i);
+        }
+        return positions;
+    }
+
+    /**
+     * Retrieves a song metadata by ID as serialized JSON.
+     * Responses are cached until the song is overwritten or deleted.
+     * The entity tag is the SHA-256 hash of the JSON, computed once when the response is cached.
      *
      * @param id The ID of the song.
-     * @return DTO containing the song metadata.
+     * @return DTO containing the JSON of the song metadata and its entity tag.
      */
-    public SongResponseDto getSongById(String id) {
+    public SongJsonResponseDto getSongJsonById(String id) {
         int validatedId = validateId(id);
 
-        Optional<Song> song = repository.findById(validatedId);
-        if (song.isEmpty()) {
+        // Missing songs are not cached, so a later creation is visible immediately
+        SongJsonResponseDto song;
+        try {
+            song = responseCache.get(validatedId, key -> repository.findById(key)
+                    .map(s -> toJsonResponse(jsonMapper.writeValueAsBytes(
+                            new SongResponseDto(s.getId(), s.getName(), s.getArtist(), s.getAlbum(), s.getDuration(), s.getYear()))))
+                    .orElse(null)).join();
+        } catch (CompletionException e) {
+            throw e.getCause() instanceof RuntimeException cause ? cause : e;
+        }
+        if (song == null) {
             throw new SongNotFoundException("Song metadata for ID=" + id + " not found");
         }
+        return song;
+    }
 
-        Song s = song.get();
-        return new SongResponseDto(s.getId(), s.getName(), s.getArtist(), s.getAlbum(), s.getDuration(), s.getYear());
+    /**
+     * Pairs serialized song metadata with its entity tag.
+     *
+     * @param json Serialized song metadata.
+     * @return DTO containing the JSON and the hex SHA-256 hash of it.
+     */
+    private static SongJsonResponseDto toJsonResponse(byte[] json) {
+        try {
+            return new SongJsonResponseDto(json, HexFormat.of().formatHex(MessageDigest.getInstance("SHA-256").digest(json)));
+        } catch (NoSuchAlgorithmException e) {
+            throw new IllegalStateException("SHA-256 is not available", e);
+        }
+    }
+
+    /**
+     * Lists songs in ID order using keyset pagination, so every page costs one index range scan
+     * regardless of its depth. Rows are written to the response as they are read from the database,
+     * so memory usage does not depend on the page size.
+     *
+     * @param cursor ID after which the page starts, or null for the first page.
+     * @param limit Maximum number of songs, or null for the default page size.
+     * @return Body writing the page and the cursor of the next page as JSON.
+     */
+    public StreamingResponseBody listSongs(String cursor, String limit) {
+        int validatedCursor = parseListParameter("cursor", cursor, 0, 0, Integer.MAX_VALUE);
+        int validatedLimit = parseListParameter("limit", limit, defaultListLimit, 1, maxListLimit);
+
+        return out -> {
+            try (JsonGenerator generator = jsonMapper.createGenerator(out)) {
+                int[] written = new int[2];
+                generator.writeStartObject();
+                generator.writeArrayPropertyStart("songs");
+                readOnlyTransaction.executeWithoutResult(status ->
+                        listRepository.forEachAfter(validatedCursor, validatedLimit, s -> {
+                            generator.writePOJO(new SongResponseDto(
+                                    s.getId(), s.getName(), s.getArtist(), s.getAlbum(), s.getDuration(), s.getYear()));
+                            written[0]++;
+                            written[1] = s.getId();
+                        }));
+                generator.writeEndArray();
+                // Cursor of the next page, null on the last page
+                generator.writeName("nextCursor");
+                if (written[0] < validatedLimit) {
+                    generator.writeNull();
+                } else {
+                    generator.writeNumber(written[1]);
+                }
+                generator.writeEndObject();
+            }
+        };
+    }
+
+    /**
+     * Searches songs by exact artist, album and year, name prefix and words of the name.
+     * Every filter is backed by an index, and results are paginated by keyset over the ID.
+     *
+     * @param artist Exact artist name, or null.
+     * @param album Exact album name, or null.
+     * @param year Exact year, or null.
+     * @param name Case-insensitive prefix of the song name, or null.
+     * @param text Words that must all occur in the song name, or null.
+     * @param cursor ID after which the page starts, or null for the first page.
+     * @param limit Maximum number of songs, or null for the default page size.
+     * @return DTO containing the page and the cursor of the next page.
+     */
+    public SongSearchResponseDto searchSongs(String artist, String album, String year, String name, String text,
+                                             String cursor, String limit) {
+        SongSearchRepository.Criteria criteria = new SongSearchRepository.Criteria(
+                validateFilter("artist", artist), validateFilter("album", album), validateFilter("year", year),
+                validateFilter("name", name), validateFilter("q", text));
+        if (criteria.artist() == null && criteria.album() == null && criteria.year() == null
+                && criteria.namePrefix() == null && criteria.text() == null) {
+            throw new InvalidRequestException("At least one of artist, album, year, name or q is required");
+        }
+        if (criteria.year() != null && !criteria.year().matches("^\\d{4}$")) {
+            throw new InvalidRequestException("Invalid value '" + year + "' for year. Must be a 4-digit year");
+        }
+        int validatedCursor = parseListParameter("cursor", cursor, 0, 0, Integer.MAX_VALUE);
+        int validatedLimit = parseListParameter("limit", limit, defaultListLimit, 1, maxSearchLimit);
+
+        List<SongResponseDto> songs = searchRepository.search(criteria, validatedCursor, validatedLimit).stream()
+                .map(s -> new SongResponseDto(s.getId(), s.getName(), s.getArtist(), s.getAlbum(), s.getDuration(), s.getYear()))
+                .toList();
+        Integer nextCursor = songs.size() < validatedLimit ? null : songs.getLast().getId();
+        return new SongSearchResponseDto(songs, nextCursor);
     }
 
     /**
      * Deletes specified song metadata records by their IDs.
+     * All records are removed with a single SQL statement, regardless of the number of IDs.
      *
      * @param songIds Comma-separated list of song IDs to delete.
      * @return DTO containing the IDs of successfully deleted songs.
@@ -81,15 +342,86 @@ public class SongService {
         validateCsvLength(songIds);
         List<Integer> ids = parseCsvIds(songIds);
 
-        List<Integer> deletedIds = new ArrayList<>();
-        for (Integer id : ids) {
-            if (repository.existsById(id)) {
-                repository.deleteById(id);
-                deletedIds.add(id);
+        Set<Integer> deleted = new HashSet<>(repository.deleteAllByIdReturning(new LinkedHashSet<>(ids)));
+        // Invalidated after the deletion committed; the result of a load still in flight is discarded
+        responseCache.synchronous().invalidateAll(deleted);
+        List<Integer> deletedIds = ids.stream().distinct().filter(deleted::contains).toList();
+
+        return new DeleteSongsResponseDto(deletedIds);
+    }
+
+    /**
+     * Validates a song of a batch, preferring format errors over missing-value errors per field,
+     * as for single song creation.
+     *
+     * @param requestDto DTO containing song metadata.
+     * @return Field-specific error messages, empty if the song is valid.
+     */
+    private Map<String, String> validate(SongCreateRequestDto requestDto) {
+        Map<String, String> details = new LinkedHashMap<>();
+        if (requestDto == null) {
+            details.put("song", "Song metadata is required");
+            return details;
+        }
+
+        Map<String, String> notBlankErrors = new LinkedHashMap<>();
+        for (ConstraintViolation<SongCreateRequestDto> violation : validator.validate(requestDto)) {
+            String field = violation.getPropertyPath().toString();
+            String code = violation.getConstraintDescriptor().getAnnotation().annotationType().getSimpleName();
+            if ("Size".equals(code) || "Pattern".equals(code)) {
+                details.putIfAbsent(field, violation.getMessage());
+            } else {
+                notBlankErrors.putIfAbsent(field, violation.getMessage());
             }
         }
+        notBlankErrors.forEach(details::putIfAbsent);
+        return details;
+    }
 
-        return new DeleteSongsResponseDto(deletedIds);
+    /**
+     * Validates an optional search filter.
+     *
+     * @param name Parameter name.
+     * @param value Parameter value, or null if absent.
+     * @return Trimmed value, or null if absent.
+     * @throws InvalidRequestException if the value is blank or too long.
+     */
+    private String validateFilter(String name, String value) {
+        if (value == null) {
+            return null;
+        }
+        String trimmed = value.trim();
+        if (trimmed.isEmpty() || trimmed.length() > 100) {
+            throw new InvalidRequestException("Invalid value for " + name + ". Must be between 1 and 100 characters");
+        }
+        return trimmed;
+    }
+
+    /**
+     * Parses an optional integer query parameter of the listing endpoint.
+     *
+     * @param name Parameter name.
+     * @param value Parameter value, or null if absent.
+     * @param defaultValue Value used when the parameter is absent.
+     * @param min Smallest allowed value.
+     * @param max Largest allowed value.
+     * @return Parsed value.
+     * @throws InvalidRequestException if the value is not an integer within bounds.
+     */
+    private int parseListParameter(String name, String value, int defaultValue, int min, int max) {
+        if (value == null) {
+            return defaultValue;
+        }
+        try {
+            int parsed = Integer.parseInt(value);
+            if (parsed >= min && parsed <= max) {
+                return parsed;
+            }
+        } catch (NumberFormatException e) {
+            // Reported below
+        }
+        throw new InvalidRequestException("Invalid value '" + value + "' for " + name
+                + ". Must be an integer between " + min + " and " + max);
     }
 
     /**